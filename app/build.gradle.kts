@@ -232,6 +232,7 @@ dependencies {
 
 	// Network
 	implementation("com.squareup.okhttp3:okhttp:4.11.0")
+	implementation("com.squareup.okhttp3:okhttp-brotli:4.11.0")
     implementation(libs.androidx.foundation.android)
 
 	coreLibraryDesugaring(libs.android.desugar)
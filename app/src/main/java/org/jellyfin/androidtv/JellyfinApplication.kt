@@ -5,11 +5,16 @@ import android.content.Context
 import android.content.res.Configuration
 import android.os.Build
 import android.os.LocaleList
+import androidx.lifecycle.DefaultLifecycleObserver
+import androidx.lifecycle.LifecycleOwner
+import androidx.lifecycle.ProcessLifecycleOwner
+import androidx.lifecycle.lifecycleScope
 import androidx.work.BackoffPolicy
 import androidx.work.ExistingPeriodicWorkPolicy
 import androidx.work.PeriodicWorkRequestBuilder
 import androidx.work.WorkManager
 import androidx.work.await
+import coil3.ImageLoader
 import kotlinx.coroutines.Dispatchers
 import kotlinx.coroutines.launch
 import kotlinx.coroutines.withContext
@@ -21,6 +26,8 @@ import org.jellyfin.androidtv.preference.UserPreferences
 import org.jellyfin.androidtv.preference.constant.AppLanguage
 import org.jellyfin.androidtv.telemetry.TelemetryService
 import org.jellyfin.androidtv.util.LocaleHelper
+import org.jellyfin.androidtv.util.coil.ImageCachePolicy
+import org.jellyfin.preference.store.SharedPreferenceStore
 import org.koin.android.ext.android.get
 import org.koin.android.ext.android.inject
 import org.koin.android.ext.koin.androidContext
@@ -70,6 +77,13 @@ class JellyfinApplication : Application() {
 
 			// Add default notifications
 			notificationsRepository.addDefaultNotifications()
+
+			// Preferences are written in the background, make sure they are stored when the app is left
+			ProcessLifecycleOwner.get().lifecycle.addObserver(object : DefaultLifecycleObserver {
+				override fun onStop(owner: LifecycleOwner) {
+					owner.lifecycleScope.launch(Dispatchers.IO) { SharedPreferenceStore.flushAll() }
+				}
+			})
 		} catch (e: Exception) {
 			if (BuildConfig.DEBUG) Timber.e(e, "Error during application setup")
 		}
@@ -131,6 +145,16 @@ class JellyfinApplication : Application() {
 		}
 	}
 
+	override fun onTrimMemory(level: Int) {
+		super.onTrimMemory(level)
+
+		try {
+			get<ImageCachePolicy>().onTrimMemory(get<ImageLoader>(), level)
+		} catch (e: Exception) {
+			Timber.w(e, "Unable to trim image cache")
+		}
+	}
+
 	/**
 	 * Called from the StartupActivity when the user session is started.
 	 */
@@ -0,0 +1,65 @@
+package org.jellyfin.androidtv.data.eventhandling
+
+import kotlinx.coroutines.flow.MutableSharedFlow
+import kotlinx.coroutines.flow.SharedFlow
+import kotlinx.coroutines.flow.asSharedFlow
+import org.jellyfin.sdk.model.api.UserItemDataDto
+import java.time.Instant
+import java.util.UUID
+
+enum class LibraryChangeKind {
+	ADDED,
+	REMOVED,
+	UPDATED,
+	USER_DATA,
+}
+
+/**
+ * A change to the [itemIds] in the library. The [parentIds] contain the folders the items were
+ * added to or removed from when known, [userData] contains the new user data of changed items.
+ */
+data class LibraryChange(
+	val kind: LibraryChangeKind,
+	val itemIds: Set<UUID>,
+	val parentIds: Set<UUID> = emptySet(),
+	val userData: Map<UUID, UserItemDataDto> = emptyMap(),
+	val time: Instant = Instant.now(),
+)
+
+/**
+ * Publishes library changes reported by the server. Long-lived caches collect [changes], screens
+ * that refresh when resumed use [getChangesSince] to patch only the affected items.
+ */
+class LibraryChangeBus {
+	companion object {
+		private const val HISTORY_SIZE = 200
+	}
+
+	private val _changes = MutableSharedFlow<LibraryChange>(extraBufferCapacity = 64)
+	val changes: SharedFlow<LibraryChange> = _changes.asSharedFlow()
+
+	private val history = ArrayDeque<LibraryChange>()
+
+	// Changes up to this time were dropped from the history
+	private var droppedUntil = Instant.MIN
+
+	fun publish(change: LibraryChange) {
+		if (change.itemIds.isEmpty()) return
+
+		synchronized(history) {
+			history.addLast(change)
+			while (history.size > HISTORY_SIZE) droppedUntil = history.removeFirst().time
+		}
+
+		_changes.tryEmit(change)
+	}
+
+	/**
+	 * Get the changes published after [since]. Returns null when some of them are no longer known,
+	 * callers should assume everything changed in that case.
+	 */
+	fun getChangesSince(since: Instant): List<LibraryChange>? = synchronized(history) {
+		if (since.isBefore(droppedUntil)) null
+		else history.filter { it.time.isAfter(since) }
+	}
+}
@@ -33,6 +33,8 @@ import org.jellyfin.sdk.model.api.MediaType
 import org.jellyfin.sdk.model.api.PlayMessage
 import org.jellyfin.sdk.model.api.PlaystateCommand
 import org.jellyfin.sdk.model.api.PlaystateMessage
+import org.jellyfin.sdk.model.api.UserDataChangeInfo
+import org.jellyfin.sdk.model.api.UserDataChangedMessage
 import org.jellyfin.sdk.model.extensions.get
 import org.jellyfin.sdk.model.extensions.getValue
 import org.jellyfin.sdk.model.serializer.toUUIDOrNull
@@ -50,6 +52,7 @@ class SocketHandler(
 	private val audioManager: AudioManager,
 	private val itemLauncher: ItemLauncher,
 	private val playbackHelper: PlaybackHelper,
+	private val libraryChangeBus: LibraryChangeBus,
 ) {
 	private val coroutineScope = CoroutineScope(Dispatchers.IO)
 
@@ -101,6 +104,10 @@ class SocketHandler(
 				.onEach { message -> message.data?.let(::onLibraryChanged) }
 				.launchIn(coroutineScope)
 
+			subscribe<UserDataChangedMessage>()
+				.onEach { message -> message.data?.let(::onUserDataChanged) }
+				.launchIn(coroutineScope)
+
 			// Media playback
 			subscribe<PlayMessage>()
 				.onEach { message -> onPlayMessage(message) }
@@ -176,8 +183,24 @@ class SocketHandler(
 
 		if (info.itemsAdded.any() || info.itemsRemoved.any())
 			dataRefreshService.lastLibraryChange = Instant.now()
+
+		// Changes without items are dropped by the bus
+		libraryChangeBus.publish(LibraryChange(LibraryChangeKind.ADDED, info.itemsAdded.toUUIDs(), info.foldersAddedTo.toUUIDs()))
+		libraryChangeBus.publish(LibraryChange(LibraryChangeKind.REMOVED, info.itemsRemoved.toUUIDs(), info.foldersRemovedFrom.toUUIDs()))
+		libraryChangeBus.publish(LibraryChange(LibraryChangeKind.UPDATED, info.itemsUpdated.toUUIDs()))
 	}
 
+	private fun onUserDataChanged(info: UserDataChangeInfo) {
+		// Only sent for the user of this session
+		val userData = info.userDataList
+			.mapNotNull { userData -> userData.itemId.toString().toUUIDOrNull()?.let { it to userData } }
+			.toMap()
+		libraryChangeBus.publish(LibraryChange(LibraryChangeKind.USER_DATA, userData.keys, userData = userData))
+	}
+
+	// Normalizes ids in both dashed and plain form
+	private fun Collection<Any>.toUUIDs() = mapNotNull { it.toString().toUUIDOrNull() }.toSet()
+
 	private fun onPlayMessage(message: PlayMessage) {
 		val itemId = message.data?.itemIds?.firstOrNull() ?: return
 
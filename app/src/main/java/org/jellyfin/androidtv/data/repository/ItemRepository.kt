@@ -22,4 +22,15 @@ object ItemRepository {
 		ItemFields.TAGLINES,
 		ItemFields.TRICKPLAY,
 	)
+
+	/**
+	 * Fields used by cards, for lists that are only shown as cards and open the item on click.
+	 */
+	val cardFields = setOf(
+		ItemFields.CHANNEL_INFO,
+		ItemFields.CHILD_COUNT,
+		ItemFields.CUMULATIVE_RUN_TIME_TICKS,
+		ItemFields.DISPLAY_PREFERENCES_ID,
+		ItemFields.PRIMARY_IMAGE_ASPECT_RATIO,
+	)
 }
@@ -0,0 +1,661 @@
+@file:UseSerializers(UUIDSerializer::class)
+
+package org.jellyfin.androidtv.data.repository
+
+import android.app.ActivityManager
+import android.content.Context
+import androidx.core.content.getSystemService
+import kotlinx.coroutines.CoroutineScope
+import kotlinx.coroutines.Dispatchers
+import kotlinx.coroutines.Job
+import kotlinx.coroutines.SupervisorJob
+import kotlinx.coroutines.delay
+import kotlinx.coroutines.flow.launchIn
+import kotlinx.coroutines.flow.onEach
+import kotlinx.coroutines.launch
+import kotlinx.coroutines.sync.Mutex
+import kotlinx.coroutines.sync.withLock
+import kotlinx.coroutines.withContext
+import kotlinx.serialization.Serializable
+import kotlinx.serialization.SerializationException
+import kotlinx.serialization.UseSerializers
+import kotlinx.serialization.json.Json
+import org.jellyfin.androidtv.auth.repository.UserRepository
+import org.jellyfin.androidtv.data.eventhandling.LibraryChangeBus
+import org.jellyfin.androidtv.data.eventhandling.LibraryChangeKind
+import org.jellyfin.androidtv.data.model.DataRefreshService
+import org.jellyfin.sdk.api.client.ApiClient
+import org.jellyfin.sdk.api.client.exception.ApiClientException
+import org.jellyfin.sdk.api.client.extensions.itemsApi
+import org.jellyfin.sdk.api.client.extensions.userViewsApi
+import org.jellyfin.sdk.model.api.BaseItemDto
+import org.jellyfin.sdk.model.api.BaseItemDtoQueryResult
+import org.jellyfin.sdk.model.api.BaseItemKind
+import org.jellyfin.sdk.model.api.CollectionType
+import org.jellyfin.sdk.model.api.ImageType
+import org.jellyfin.sdk.model.api.ItemFields
+import org.jellyfin.sdk.model.api.ItemFilter
+import org.jellyfin.sdk.model.api.ItemSortBy
+import org.jellyfin.sdk.model.api.SortOrder
+import org.jellyfin.sdk.model.api.UserItemDataDto
+import org.jellyfin.sdk.model.api.request.GetItemsRequest
+import org.jellyfin.sdk.model.serializer.UUIDSerializer
+import timber.log.Timber
+import java.io.File
+import java.io.IOException
+import java.time.Instant
+import java.time.LocalDateTime
+import java.time.ZoneId
+import java.time.ZoneOffset
+import java.util.UUID
+import kotlin.time.Duration.Companion.days
+import kotlin.time.Duration.Companion.minutes
+import kotlin.time.Duration.Companion.seconds
+
+/**
+ * On-device index of lightweight records for the movies, series, albums and collections in the
+ * libraries of the current user. Searches and library grid queries the index can answer are
+ * resolved locally, the server is only asked for the full items of the visible page.
+ *
+ * The index is stored in the cache directory and updated incrementally: library change events
+ * update single items and [sync] requests the items saved since the previous sync.
+ */
+interface LibraryIndexRepository {
+	/**
+	 * Whether [kind] is indexed and the index is ready to answer queries for it.
+	 */
+	fun isIndexed(kind: BaseItemKind): Boolean
+
+	/**
+	 * Search the names of indexed items. Matching ids are found locally and the items are loaded
+	 * from the server in a single request with [fields].
+	 * @return The items, or null when the index is not ready or the items could not be loaded
+	 */
+	suspend fun search(searchTerm: String, itemTypes: Collection<BaseItemKind>, limit: Int, fields: Collection<ItemFields>): List<BaseItemDto>?
+
+	/**
+	 * Resolve a library browsing request with the index. Matching ids are found locally and only
+	 * the requested page is loaded from the server, using the fields of [request].
+	 * @return The result or null when the request can't be answered by the index
+	 */
+	suspend fun getItems(request: GetItemsRequest): BaseItemDtoQueryResult?
+
+	/**
+	 * Count the items of a library browsing request with a sort name before [nameLessThan]. Uses the
+	 * same name order as [getItems], so the count is the position of the first later item.
+	 * @return The count or null when the request can't be answered by the index
+	 */
+	fun countNameLessThan(request: GetItemsRequest, nameLessThan: String): Int?
+
+	/**
+	 * Update the index with the items saved since the last sync. Does nothing when the last sync
+	 * is recent and no changes were reported since.
+	 */
+	fun sync()
+
+	/**
+	 * Apply a library change event. Changes published to the [LibraryChangeBus] are applied
+	 * automatically.
+	 */
+	fun onLibraryChanged(added: Collection<UUID>, updated: Collection<UUID>, removed: Collection<UUID>)
+}
+
+class LibraryIndexRepositoryImpl(
+	context: Context,
+	private val api: ApiClient,
+	private val userRepository: UserRepository,
+	private val dataRefreshService: DataRefreshService,
+	libraryChangeBus: LibraryChangeBus,
+) : LibraryIndexRepository {
+	companion object {
+		/**
+		 * Bump when the stored format changes to ignore older indexes.
+		 */
+		private const val VERSION = 1
+
+		private const val PAGE_SIZE = 500
+		private const val CHANGE_BATCH_SIZE = 100
+
+		private val MIN_SYNC_INTERVAL = 5.minutes
+		private val FULL_SYNC_INTERVAL = 7.days
+
+		// Saved dates are compared with the server clock
+		private val CLOCK_SKEW = 5.minutes
+		private val SAVE_DELAY = 10.seconds
+
+		private val indexedKinds = setOf(
+			BaseItemKind.MOVIE,
+			BaseItemKind.SERIES,
+			BaseItemKind.MUSIC_ALBUM,
+			BaseItemKind.BOX_SET,
+		)
+
+		private val ignoredCollectionTypes = setOf(
+			CollectionType.LIVETV,
+			CollectionType.PLAYLISTS,
+		)
+
+		private val supportedSortBy = setOf(
+			ItemSortBy.SORT_NAME,
+			ItemSortBy.PRODUCTION_YEAR,
+			ItemSortBy.DATE_CREATED,
+		)
+
+		private val supportedFilters = setOf(
+			ItemFilter.IS_FAVORITE,
+			ItemFilter.IS_PLAYED,
+			ItemFilter.IS_UNPLAYED,
+		)
+
+		private val indexFields = setOf(
+			ItemFields.SORT_NAME,
+			ItemFields.GENRES,
+			ItemFields.DATE_CREATED,
+		)
+
+		private val json = Json {
+			ignoreUnknownKeys = true
+		}
+
+		// Order of the sort names, letter jumps in indexed grids are counted with the same order
+		private val nameOrder = String.CASE_INSENSITIVE_ORDER
+	}
+
+	@Serializable
+	private data class Record(
+		val id: UUID,
+		val libraryId: UUID,
+		val type: BaseItemKind,
+		val name: String,
+		val sortName: String,
+		val year: Int? = null,
+		val genres: List<String> = emptyList(),
+		val dateCreated: Long? = null,
+		val isPlayed: Boolean = false,
+		val isFavorite: Boolean = false,
+		val primaryImageTag: String? = null,
+	)
+
+	@Serializable
+	private data class StoredIndex(
+		val version: Int,
+		val userId: UUID,
+		val syncedAt: Long,
+		val fullSyncedAt: Long,
+		val libraryIds: List<UUID>,
+		val records: List<Record>,
+	)
+
+	/**
+	 * Immutable state of the index, replaced as a whole on every change.
+	 */
+	private class Snapshot(
+		val userId: UUID,
+		val syncedAt: Long,
+		val fullSyncedAt: Long,
+		val libraryIds: Set<UUID>,
+		val records: Map<UUID, Record>,
+	) {
+		// Most queries are sorted by name, other sort orders start from this order
+		val byName by lazy {
+			records.values.sortedWith(compareBy(nameOrder) { it.sortName })
+		}
+	}
+
+	private val directory = File(context.cacheDir, "library_index")
+	private val isSupported = context.getSystemService<ActivityManager>()?.isLowRamDevice != true
+	private val scope = CoroutineScope(Dispatchers.IO + SupervisorJob())
+	private val syncLock = Mutex()
+
+	@Volatile
+	private var snapshot: Snapshot? = null
+	private var loadedUserId: UUID? = null
+	private var saveJob: Job? = null
+
+	// Queries are repeated for every page, keep the ids of the last one
+	@Volatile
+	private var lastQuery: Pair<GetItemsRequest, List<UUID>>? = null
+
+	init {
+		libraryChangeBus.changes.onEach { change ->
+			when (change.kind) {
+				LibraryChangeKind.ADDED -> onLibraryChanged(change.itemIds, emptySet(), emptySet())
+				// Records contain the played and favorite state
+				LibraryChangeKind.UPDATED,
+				LibraryChangeKind.USER_DATA -> onLibraryChanged(emptySet(), change.itemIds, emptySet())
+				LibraryChangeKind.REMOVED -> onLibraryChanged(emptySet(), emptySet(), change.itemIds)
+			}
+		}.launchIn(scope)
+	}
+
+	private val currentSnapshot: Snapshot?
+		get() = snapshot?.takeIf { it.userId == userRepository.currentUser.value?.id }
+
+	override fun isIndexed(kind: BaseItemKind) = kind in indexedKinds && currentSnapshot != null
+
+	override suspend fun search(
+		searchTerm: String,
+		itemTypes: Collection<BaseItemKind>,
+		limit: Int,
+		fields: Collection<ItemFields>,
+	): List<BaseItemDto>? {
+		val snapshot = currentSnapshot ?: return null
+		val term = searchTerm.trim()
+
+		val ids = snapshot.byName
+			.asSequence()
+			.filter { it.type in itemTypes && it.name.contains(term, ignoreCase = true) }
+			// Exact matches first, then names starting with the term
+			.sortedBy { record ->
+				when {
+					record.name.equals(term, ignoreCase = true) -> 0
+					record.name.startsWith(term, ignoreCase = true) -> 1
+					else -> 2
+				}
+			}
+			.take(limit)
+			.map { it.id }
+			.toList()
+		if (ids.isEmpty()) return emptyList()
+
+		val items = try {
+			withContext(Dispatchers.IO) {
+				api.itemsApi.getItems(
+					GetItemsRequest(
+						ids = ids,
+						fields = fields,
+						imageTypeLimit = 1,
+						enableTotalRecordCount = false,
+					)
+				).content.items
+			}.associateBy { it.id }
+		} catch (err: ApiClientException) {
+			// Let the caller search on the server instead
+			Timber.w(err, "[LibraryIndex] Unable to load search results")
+			return null
+		}
+
+		return ids.mapNotNull(items::get)
+	}
+
+	override suspend fun getItems(request: GetItemsRequest): BaseItemDtoQueryResult? {
+		val snapshot = currentSnapshot ?: return null
+		val ids = query(snapshot, request) ?: return null
+
+		val startIndex = request.startIndex ?: 0
+		val pageIds = ids.drop(startIndex).take(request.limit ?: ids.size)
+		if (pageIds.isEmpty()) return BaseItemDtoQueryResult(emptyList(), ids.size, startIndex)
+
+		val items = try {
+			withContext(Dispatchers.IO) {
+				api.itemsApi.getItems(
+					GetItemsRequest(
+						ids = pageIds,
+						fields = request.fields,
+						enableImageTypes = request.enableImageTypes,
+						imageTypeLimit = request.imageTypeLimit,
+						enableTotalRecordCount = false,
+					)
+				).content.items
+			}.associateBy { it.id }
+		} catch (err: ApiClientException) {
+			// Let the caller retry with the original request
+			Timber.w(err, "[LibraryIndex] Unable to load indexed page")
+			return null
+		}
+
+		// Items missing on the server are shown from the index and dropped from it
+		val missing = pageIds.filterNot(items::containsKey)
+		if (missing.isNotEmpty()) {
+			Timber.d("[LibraryIndex] ${missing.size} indexed items no longer exist")
+			scope.launch { syncLock.withLock { update { records -> records - missing.toSet() } } }
+		}
+
+		return BaseItemDtoQueryResult(
+			items = pageIds.mapNotNull { id -> items[id] ?: snapshot.records[id]?.toBaseItemDto() },
+			totalRecordCount = ids.size,
+			startIndex = startIndex,
+		)
+	}
+
+	override fun countNameLessThan(request: GetItemsRequest, nameLessThan: String): Int? {
+		val snapshot = currentSnapshot ?: return null
+		val ids = query(snapshot, request) ?: return null
+
+		return ids.count { id ->
+			val record = snapshot.records[id] ?: return@count false
+			nameOrder.compare(record.sortName, nameLessThan) < 0
+		}
+	}
+
+	private fun query(snapshot: Snapshot, request: GetItemsRequest): List<UUID>? {
+		val parentId = request.parentId ?: return null
+		if (parentId !in snapshot.libraryIds) return null
+		if (request.recursive != true) return null
+
+		val itemTypes = request.includeItemTypes
+		if (itemTypes.isNullOrEmpty() || !indexedKinds.containsAll(itemTypes)) return null
+
+		val sortBy = request.sortBy.orEmpty()
+		if (!supportedSortBy.containsAll(sortBy)) return null
+
+		val filters = request.filters.orEmpty()
+		if (!supportedFilters.containsAll(filters)) return null
+
+		// Anything else changes the result in ways the index can't reproduce
+		val unsupported = request.copy(
+			parentId = null,
+			recursive = null,
+			includeItemTypes = null,
+			sortBy = null,
+			sortOrder = null,
+			filters = null,
+			genres = null,
+			nameStartsWith = null,
+			startIndex = null,
+			limit = null,
+			fields = null,
+			enableImageTypes = null,
+			imageTypeLimit = null,
+			enableTotalRecordCount = null,
+		)
+		if (unsupported != GetItemsRequest()) return null
+
+		val key = request.copy(startIndex = null, limit = null, fields = null)
+		lastQuery?.let { (lastKey, ids) -> if (lastKey == key) return ids }
+
+		val genres = request.genres.orEmpty()
+		val nameStartsWith = request.nameStartsWith
+
+		val records = snapshot.byName.filter { record ->
+			record.libraryId == parentId &&
+				record.type in itemTypes &&
+				(nameStartsWith == null || record.sortName.startsWith(nameStartsWith, ignoreCase = true)) &&
+				(genres.isEmpty() || record.genres.any { genre -> genres.any { it.equals(genre, ignoreCase = true) } }) &&
+				filters.all { filter ->
+					when (filter) {
+						ItemFilter.IS_FAVORITE -> record.isFavorite
+						ItemFilter.IS_PLAYED -> record.isPlayed
+						ItemFilter.IS_UNPLAYED -> !record.isPlayed
+						else -> true
+					}
+				}
+		}
+
+		// Records are sorted by name, a stable sort on the primary key keeps the name order for ties
+		val primary = sortBy.firstOrNull() ?: ItemSortBy.SORT_NAME
+		val descending = request.sortOrder?.firstOrNull() == SortOrder.DESCENDING
+		val sorted = when (primary) {
+			ItemSortBy.PRODUCTION_YEAR -> records.sortedWith(compareBy(nullsFirst<Int>()) { it.year })
+			ItemSortBy.DATE_CREATED -> records.sortedWith(compareBy(nullsFirst<Long>()) { it.dateCreated })
+			else -> records
+		}.let { if (descending) it.reversed() else it }
+
+		val ids = sorted.map { it.id }
+		lastQuery = key to ids
+		return ids
+	}
+
+	override fun sync() {
+		if (!isSupported) return
+
+		scope.launch {
+			syncLock.withLock {
+				try {
+					syncLocked()
+				} catch (err: ApiClientException) {
+					Timber.w(err, "[LibraryIndex] Sync failed")
+				}
+			}
+		}
+	}
+
+	private suspend fun syncLocked() {
+		val userId = userRepository.currentUser.value?.id ?: return
+		if (loadedUserId != userId) {
+			val stored = readFromDisk(userId)
+			synchronized(this) { snapshot = stored }
+			loadedUserId = userId
+		}
+
+		val now = System.currentTimeMillis()
+		val current = currentSnapshot
+		val lastChange = listOfNotNull(
+			dataRefreshService.lastLibraryChange,
+			dataRefreshService.lastPlayback,
+			dataRefreshService.lastFavoriteUpdate,
+		).maxOrNull()
+
+		if (current != null && now - current.syncedAt < MIN_SYNC_INTERVAL.inWholeMilliseconds &&
+			(lastChange == null || lastChange.toEpochMilli() < current.syncedAt)
+		) return
+
+		val libraryIds = api.userViewsApi.getUserViews().content.items
+			.filter { it.collectionType !in ignoredCollectionTypes }
+			.map { it.id }
+			.toSet()
+
+		val isFullSync = current == null ||
+			current.libraryIds != libraryIds ||
+			now - current.fullSyncedAt > FULL_SYNC_INTERVAL.inWholeMilliseconds
+
+		val records = if (isFullSync || current == null) {
+			libraryIds.flatMap { libraryId -> fetchLibrary(libraryId) }.associateBy { it.id }
+		} else {
+			// Dates of the SDK are in local time
+			val since = LocalDateTime.ofInstant(Instant.ofEpochMilli(current.syncedAt - CLOCK_SKEW.inWholeMilliseconds), ZoneId.systemDefault())
+			val records = current.records.toMutableMap()
+
+			for (libraryId in libraryIds) {
+				val changed = fetchChanged(libraryId, since)
+				changed.forEach { records[it.id] = it }
+
+				// Removals that were missed can only be detected by a different item count
+				val localCount = records.values.count { it.libraryId == libraryId }
+				if (localCount != countLibrary(libraryId)) {
+					Timber.d("[LibraryIndex] Item count of $libraryId changed, rebuilding")
+					records.values.removeAll { it.libraryId == libraryId }
+					fetchLibrary(libraryId).forEach { records[it.id] = it }
+				}
+			}
+
+			records
+		}
+
+		// Change events wait for the sync lock, the records can't have changed since they were copied
+		synchronized(this) {
+			snapshot = Snapshot(
+				userId = userId,
+				syncedAt = now,
+				fullSyncedAt = if (isFullSync || current == null) now else current.fullSyncedAt,
+				libraryIds = libraryIds,
+				records = records,
+			)
+			lastQuery = null
+		}
+		Timber.i("[LibraryIndex] ${if (isFullSync) "Full" else "Incremental"} sync finished, ${records.size} items indexed")
+
+		writeToDisk()
+	}
+
+	override fun onLibraryChanged(added: Collection<UUID>, updated: Collection<UUID>, removed: Collection<UUID>) {
+		if (currentSnapshot == null) return
+
+		val changed = (added + updated).distinct()
+		if (removed.isEmpty() && changed.isEmpty()) return
+
+		// Applied under the sync lock, a running sync would otherwise replace the changes
+		scope.launch {
+			syncLock.withLock {
+				if (removed.isNotEmpty()) update { records -> records - removed.toSet() }
+
+				try {
+					changed.chunked(CHANGE_BATCH_SIZE).forEach { ids ->
+						val snapshot = currentSnapshot ?: return@launch
+						val items = api.itemsApi.getItems(
+							indexRequest().copy(ids = ids, recursive = null)
+						).content.items
+
+						// Only items inside an indexed library are added, their parent must be known
+						val records = items.mapNotNull { item ->
+							val libraryId = snapshot.records[item.id]?.libraryId
+								?: item.parentId?.takeIf { it in snapshot.libraryIds }
+								?: snapshot.records[item.parentId]?.libraryId
+								?: return@mapNotNull null
+							item.toRecord(libraryId)
+						}
+
+						update { current -> current + records.associateBy { it.id } }
+					}
+				} catch (err: ApiClientException) {
+					Timber.w(err, "[LibraryIndex] Unable to update changed items")
+				}
+			}
+		}
+	}
+
+	private fun indexRequest() = GetItemsRequest(
+		recursive = true,
+		includeItemTypes = indexedKinds,
+		fields = indexFields,
+		enableImageTypes = setOf(ImageType.PRIMARY),
+		imageTypeLimit = 1,
+		enableTotalRecordCount = false,
+	)
+
+	private suspend fun fetchLibrary(libraryId: UUID): List<Record> = buildList {
+		var startIndex = 0
+		do {
+			val items = api.itemsApi.getItems(
+				indexRequest().copy(
+					parentId = libraryId,
+					startIndex = startIndex,
+					limit = PAGE_SIZE,
+				)
+			).content.items
+
+			items.mapTo(this) { it.toRecord(libraryId) }
+			startIndex += items.size
+		} while (items.size == PAGE_SIZE)
+	}
+
+	private suspend fun fetchChanged(libraryId: UUID, since: LocalDateTime): List<Record> {
+		val request = indexRequest().copy(parentId = libraryId)
+		// Metadata and user data (played, favorite) changes are tracked separately by the server
+		val saved = api.itemsApi.getItems(request.copy(minDateLastSaved = since)).content.items
+		val savedForUser = api.itemsApi.getItems(request.copy(minDateLastSavedForUser = since)).content.items
+
+		return (saved + savedForUser).distinctBy { it.id }.map { it.toRecord(libraryId) }
+	}
+
+	private suspend fun countLibrary(libraryId: UUID): Int = api.itemsApi.getItems(
+		indexRequest().copy(
+			parentId = libraryId,
+			fields = null,
+			limit = 0,
+			enableTotalRecordCount = true,
+		)
+	).content.totalRecordCount
+
+	private fun update(transform: (Map<UUID, Record>) -> Map<UUID, Record>) {
+		synchronized(this) {
+			val current = currentSnapshot ?: return
+			snapshot = Snapshot(
+				userId = current.userId,
+				syncedAt = current.syncedAt,
+				fullSyncedAt = current.fullSyncedAt,
+				libraryIds = current.libraryIds,
+				records = transform(current.records),
+			)
+			lastQuery = null
+		}
+
+		// Write behind, changes often arrive in bursts
+		saveJob?.cancel()
+		saveJob = scope.launch {
+			delay(SAVE_DELAY)
+			writeToDisk()
+		}
+	}
+
+	private fun BaseItemDto.toRecord(libraryId: UUID) = Record(
+		id = id,
+		libraryId = libraryId,
+		type = type,
+		name = name.orEmpty(),
+		sortName = sortName ?: name.orEmpty(),
+		year = productionYear,
+		genres = genres.orEmpty(),
+		dateCreated = dateCreated?.toEpochSecond(ZoneOffset.UTC),
+		isPlayed = userData?.played == true,
+		isFavorite = userData?.isFavorite == true,
+		primaryImageTag = imageTags?.get(ImageType.PRIMARY),
+	)
+
+	private fun Record.toBaseItemDto() = BaseItemDto(
+		id = id,
+		type = type,
+		name = name,
+		sortName = sortName,
+		productionYear = year,
+		genres = genres,
+		parentId = libraryId,
+		imageTags = primaryImageTag?.let { mapOf(ImageType.PRIMARY to it) },
+		userData = UserItemDataDto(
+			playbackPositionTicks = 0,
+			playCount = 0,
+			isFavorite = isFavorite,
+			played = isPlayed,
+			key = id.toString(),
+			itemId = id,
+		),
+	)
+
+	private suspend fun readFromDisk(userId: UUID): Snapshot? = withContext(Dispatchers.IO) {
+		val file = File(directory, "$userId.json")
+		if (!file.exists()) return@withContext null
+
+		try {
+			val stored = json.decodeFromString(StoredIndex.serializer(), file.readText())
+			if (stored.version != VERSION || stored.userId != userId) return@withContext null
+
+			Snapshot(
+				userId = stored.userId,
+				syncedAt = stored.syncedAt,
+				fullSyncedAt = stored.fullSyncedAt,
+				libraryIds = stored.libraryIds.toSet(),
+				records = stored.records.associateBy { it.id },
+			)
+		} catch (err: SerializationException) {
+			Timber.w(err, "[LibraryIndex] Discarding corrupt index")
+			file.delete()
+			null
+		} catch (err: IOException) {
+			Timber.w(err, "[LibraryIndex] Unable to read index")
+			null
+		}
+	}
+
+	private suspend fun writeToDisk(): Unit = withContext(Dispatchers.IO) {
+		val snapshot = snapshot ?: return@withContext
+		val stored = StoredIndex(
+			version = VERSION,
+			userId = snapshot.userId,
+			syncedAt = snapshot.syncedAt,
+			fullSyncedAt = snapshot.fullSyncedAt,
+			libraryIds = snapshot.libraryIds.toList(),
+			records = snapshot.records.values.toList(),
+		)
+
+		try {
+			directory.mkdirs()
+			// Write to a temporary file first so readers never see a partial index
+			val file = File(directory, "${snapshot.userId}.json")
+			val tmp = File(directory, "${file.name}.tmp")
+			tmp.writeText(json.encodeToString(StoredIndex.serializer(), stored))
+			if (!tmp.renameTo(file)) tmp.delete()
+		} catch (err: IOException) {
+			Timber.w(err, "[LibraryIndex] Unable to write index")
+		}
+	}
+}
@@ -0,0 +1,164 @@
+package org.jellyfin.androidtv.data.repository
+
+import kotlinx.coroutines.CoroutineScope
+import kotlinx.coroutines.Dispatchers
+import kotlinx.coroutines.SupervisorJob
+import kotlinx.coroutines.flow.filter
+import kotlinx.coroutines.flow.launchIn
+import kotlinx.coroutines.flow.onEach
+import kotlinx.coroutines.sync.Mutex
+import kotlinx.coroutines.sync.withLock
+import kotlinx.coroutines.withContext
+import org.jellyfin.androidtv.auth.repository.UserRepository
+import org.jellyfin.androidtv.data.eventhandling.LibraryChangeBus
+import org.jellyfin.androidtv.data.eventhandling.LibraryChangeKind
+import org.jellyfin.sdk.api.client.ApiClient
+import org.jellyfin.sdk.api.client.exception.ApiClientException
+import org.jellyfin.sdk.api.client.extensions.libraryApi
+import org.jellyfin.sdk.api.client.extensions.userViewsApi
+import org.jellyfin.sdk.model.api.BaseItemDto
+import timber.log.Timber
+import java.util.UUID
+import java.util.concurrent.ConcurrentHashMap
+
+/**
+ * Index of the library (user view) every known item belongs to.
+ *
+ * The index is filled from list queries as items are loaded and, on a miss, from a single
+ * ancestors request. It is kept for the current user only and entries are dropped when the
+ * server reports library changes.
+ */
+interface LibraryMembershipRepository {
+	/**
+	 * Get the library [itemId] belongs to.
+	 * @param parentId The parent of the item when known, saves a request when it is indexed
+	 * @return The library id or null when it could not be determined
+	 */
+	suspend fun getLibraryId(itemId: UUID, parentId: UUID? = null): UUID?
+
+	/**
+	 * Add the items of a list query to the index. Only items with an indexed parent (or a
+	 * library as parent) are added.
+	 */
+	fun index(items: Collection<BaseItemDto>)
+
+	/**
+	 * Remove [itemIds] from the index.
+	 */
+	fun invalidate(itemIds: Collection<UUID>)
+
+	/**
+	 * Remove everything from the index.
+	 */
+	fun clear()
+}
+
+class LibraryMembershipRepositoryImpl(
+	private val api: ApiClient,
+	private val userRepository: UserRepository,
+	libraryChangeBus: LibraryChangeBus,
+) : LibraryMembershipRepository {
+	private val memberships = ConcurrentHashMap<UUID, UUID>()
+	private val libraryLock = Mutex()
+
+	init {
+		// Removed or moved items may no longer belong to the indexed library
+		libraryChangeBus.changes
+			.filter { it.kind == LibraryChangeKind.REMOVED || it.kind == LibraryChangeKind.UPDATED }
+			.onEach { change -> invalidate(change.itemIds) }
+			.launchIn(CoroutineScope(Dispatchers.Default + SupervisorJob()))
+	}
+
+	@Volatile
+	private var libraryIds: Set<UUID>? = null
+
+	@Volatile
+	private var userId: UUID? = null
+
+	override suspend fun getLibraryId(itemId: UUID, parentId: UUID?): UUID? {
+		val libraryIds = getLibraryIds()
+
+		if (itemId in libraryIds) return itemId
+		memberships[itemId]?.let { return it }
+
+		if (parentId != null) {
+			val libraryId = if (parentId in libraryIds) parentId else memberships[parentId]
+			if (libraryId != null) {
+				memberships[itemId] = libraryId
+				return libraryId
+			}
+		}
+
+		// Fetch the complete parent chain in a single request
+		val ancestors = try {
+			withContext(Dispatchers.IO) {
+				api.libraryApi.getAncestors(itemId).content
+			}
+		} catch (err: ApiClientException) {
+			Timber.e(err, "Unable to retrieve ancestors of $itemId")
+			return null
+		}
+
+		// Ancestors are ordered from the direct parent upwards
+		val libraryIndex = ancestors.indexOfFirst { it.id in libraryIds }
+		if (libraryIndex == -1) return null
+
+		val libraryId = ancestors[libraryIndex].id
+		memberships[itemId] = libraryId
+		for (i in 0 until libraryIndex) memberships[ancestors[i].id] = libraryId
+
+		return libraryId
+	}
+
+	override fun index(items: Collection<BaseItemDto>) {
+		checkSession()
+		val libraryIds = libraryIds.orEmpty()
+
+		for (item in items) {
+			val parentId = item.parentId ?: continue
+			val libraryId = if (parentId in libraryIds) parentId else memberships[parentId]
+			if (libraryId != null) memberships[item.id] = libraryId
+		}
+	}
+
+	override fun invalidate(itemIds: Collection<UUID>) {
+		if (libraryIds.orEmpty().any { it in itemIds }) {
+			clear()
+			return
+		}
+
+		itemIds.forEach(memberships::remove)
+	}
+
+	override fun clear() {
+		memberships.clear()
+		libraryIds = null
+	}
+
+	private suspend fun getLibraryIds(): Set<UUID> {
+		checkSession()
+		libraryIds?.let { return it }
+
+		return libraryLock.withLock {
+			libraryIds ?: try {
+				withContext(Dispatchers.IO) {
+					api.userViewsApi.getUserViews().content.items.map { it.id }.toSet()
+				}.also { libraryIds = it }
+			} catch (err: ApiClientException) {
+				Timber.e(err, "Unable to retrieve user views")
+				emptySet()
+			}
+		}
+	}
+
+	/**
+	 * Clear the index when the user changed since it was filled.
+	 */
+	private fun checkSession() {
+		val currentUserId = userRepository.currentUser.value?.id
+		if (currentUserId == userId) return
+
+		clear()
+		userId = currentUserId
+	}
+}
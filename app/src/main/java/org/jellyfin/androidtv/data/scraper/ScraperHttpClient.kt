@@ -0,0 +1,168 @@
+package org.jellyfin.androidtv.data.scraper
+
+import kotlinx.coroutines.CancellationException
+import kotlinx.coroutines.suspendCancellableCoroutine
+import okhttp3.Call
+import okhttp3.Callback
+import okhttp3.ConnectionPool
+import okhttp3.OkHttpClient
+import okhttp3.Request
+import okhttp3.Response
+import okhttp3.brotli.BrotliInterceptor
+import timber.log.Timber
+import java.io.IOException
+import java.io.InputStream
+import java.util.concurrent.ConcurrentHashMap
+import java.util.concurrent.TimeUnit
+import java.util.concurrent.atomic.AtomicLong
+import kotlin.coroutines.resume
+import kotlin.coroutines.resumeWithException
+
+/**
+ * Shared HTTP client for the Stremio addon scrapers.
+ * Keeps connections (and their TLS sessions) alive between lookups so opening a detail page
+ * does not pay DNS, TLS and connection setup again. HTTP/2 is negotiated automatically and
+ * responses are transparently decompressed (gzip and brotli).
+ */
+class ScraperHttpClient {
+	companion object {
+		private const val USER_AGENT = "Mozilla/5.0 (Windows NT 10.0; Win64; x64) AppleWebKit/537.36 (KHTML, like Gecko) Chrome/132.0.0.0 Safari/537.36"
+		private const val TIMEOUT_SECONDS = 30L
+		private const val MAX_IDLE_CONNECTIONS = 5
+		private const val KEEP_ALIVE_MINUTES = 5L
+	}
+
+	private val client = OkHttpClient.Builder()
+		.connectionPool(ConnectionPool(MAX_IDLE_CONNECTIONS, KEEP_ALIVE_MINUTES, TimeUnit.MINUTES))
+		.addInterceptor(BrotliInterceptor)
+		.connectTimeout(TIMEOUT_SECONDS, TimeUnit.SECONDS)
+		.readTimeout(TIMEOUT_SECONDS, TimeUnit.SECONDS)
+		.retryOnConnectionFailure(true)
+		.build()
+
+	private val metrics = ConcurrentHashMap<String, ProviderMetrics>()
+
+	/**
+	 * Latency metrics for a single provider. All times are in milliseconds.
+	 */
+	class ProviderMetrics {
+		private val requests = AtomicLong()
+		private val failures = AtomicLong()
+		private val totalLatency = AtomicLong()
+		private val lastLatency = AtomicLong()
+
+		val requestCount get() = requests.get()
+		val failureCount get() = failures.get()
+		val lastLatencyMs get() = lastLatency.get()
+		val averageLatencyMs get() = requests.get().let { count -> if (count == 0L) 0L else totalLatency.get() / count }
+
+		internal fun record(latencyMs: Long, success: Boolean) {
+			requests.incrementAndGet()
+			totalLatency.addAndGet(latencyMs)
+			lastLatency.set(latencyMs)
+			if (!success) failures.incrementAndGet()
+		}
+
+		override fun toString() = "requests=$requestCount, failures=$failureCount, last=${lastLatencyMs}ms, avg=${averageLatencyMs}ms"
+	}
+
+	/**
+	 * Get the latency metrics for all providers that have been queried this session.
+	 */
+	fun getMetrics(): Map<String, ProviderMetrics> = metrics.toMap()
+
+	/**
+	 * Perform a GET request with the Stremio web headers and decode the body as a stream.
+	 * The request is aborted when the calling coroutine is cancelled, so callers can put a
+	 * deadline on it with [kotlinx.coroutines.withTimeout].
+	 * @param provider Provider name used for logging and metrics
+	 * @param url The URL to request
+	 * @param decode Function reading the (decompressed) response body
+	 * @return The decoded body, or null when the request failed
+	 */
+	suspend fun <T> get(
+		provider: String,
+		url: String,
+		decode: (InputStream) -> T,
+	): T? {
+		val request = Request.Builder()
+			.url(url)
+			.header("User-Agent", USER_AGENT)
+			.header("Accept", "*/*")
+			.header("Origin", "https://web.stremio.com")
+			.header("Sec-Fetch-Site", "cross-site")
+			.header("Sec-Fetch-Mode", "cors")
+			.header("Sec-Fetch-Dest", "empty")
+			.header("Referer", "https://web.stremio.com/")
+			.header("Accept-Language", "en-US,en;q=0.9")
+			.build()
+
+		val providerMetrics = metrics.getOrPut(provider) { ProviderMetrics() }
+		val start = System.nanoTime()
+		var success = false
+
+		return try {
+			val result = client.newCall(request).await(provider, decode)
+			success = result != null
+			result
+		} catch (e: CancellationException) {
+			Timber.w("[$provider] Request cancelled: $url")
+			throw e
+		} catch (e: Exception) {
+			Timber.e(e, "[$provider] Error fetching $url")
+			null
+		} finally {
+			val latencyMs = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start)
+			providerMetrics.record(latencyMs, success)
+			Timber.d("[$provider] Request took ${latencyMs}ms ($providerMetrics)")
+		}
+	}
+
+	/**
+	 * Enqueue the call and decode the body on the OkHttp dispatcher thread. Cancelling the
+	 * coroutine cancels the call, which also aborts a body that is still being read.
+	 */
+	private suspend fun <T> Call.await(
+		provider: String,
+		decode: (InputStream) -> T,
+	): T? = suspendCancellableCoroutine { continuation ->
+		continuation.invokeOnCancellation { cancel() }
+
+		enqueue(object : Callback {
+			override fun onFailure(call: Call, e: IOException) {
+				continuation.resumeWithException(e)
+			}
+
+			override fun onResponse(call: Call, response: Response) {
+				val result = try {
+					response.use { decodeResponse(provider, it, decode) }
+				} catch (e: Exception) {
+					continuation.resumeWithException(e)
+					return
+				}
+
+				continuation.resume(result)
+			}
+		})
+	}
+
+	private fun <T> decodeResponse(
+		provider: String,
+		response: Response,
+		decode: (InputStream) -> T,
+	): T? {
+		Timber.d("[$provider] HTTP Response Code: ${response.code} (${response.protocol})")
+
+		if (!response.isSuccessful) {
+			Timber.e("[$provider] HTTP error: ${response.code}")
+			try {
+				Timber.e("[$provider] Error response: ${response.peekBody(500).string()}")
+			} catch (e: IOException) {
+				Timber.e("[$provider] Could not read error response: ${e.message}")
+			}
+			return null
+		}
+
+		return response.body?.byteStream()?.use(decode)
+	}
+}
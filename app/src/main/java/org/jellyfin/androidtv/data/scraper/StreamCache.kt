@@ -0,0 +1,160 @@
+package org.jellyfin.androidtv.data.scraper
+
+import android.content.Context
+import android.util.LruCache
+import kotlinx.coroutines.Dispatchers
+import kotlinx.coroutines.withContext
+import kotlinx.serialization.Serializable
+import kotlinx.serialization.SerializationException
+import kotlinx.serialization.encodeToString
+import timber.log.Timber
+import java.io.File
+import java.io.IOException
+import kotlin.time.Duration
+import kotlin.time.Duration.Companion.days
+import kotlin.time.Duration.Companion.milliseconds
+
+/**
+ * Two-tier cache for scraper results. A size-bounded in-memory LRU sits in front of a JSON
+ * store in the application cache directory.
+ *
+ * Only the raw provider results are cached, filtering, sorting and deduplication are applied
+ * after reading so preference changes take effect without a refetch.
+ */
+class StreamCache(context: Context) {
+	companion object {
+		private const val MEMORY_ENTRIES = 32
+		private const val DISK_ENTRIES = 500
+
+		/**
+		 * Bump when the stored [StreamData] format changes to ignore older entries.
+		 */
+		private const val VERSION = 2
+
+		/**
+		 * Entries older than this are never returned, not even as stale.
+		 */
+		val MAX_STALE = 7.days
+	}
+
+	/**
+	 * @param configuration The provider settings the results depend on, see [StreamProvider.configuration]
+	 */
+	data class Key(
+		val provider: String,
+		val configuration: String,
+		val mediaType: String,
+		val imdbId: String,
+		val season: Int,
+		val episode: Int,
+	) {
+		// The configuration may contain secrets, only its hash is stored
+		private val configurationHash get() = configuration.hashCode().toUInt().toString(16)
+
+		val fileName get() = "v${VERSION}_${provider}_${configurationHash}_${mediaType}_${imdbId}_${season}_$episode.json".lowercase()
+	}
+
+	/**
+	 * A cache hit.
+	 * @param streams The cached provider results
+	 * @param isStale true when the entry is older than the requested time-to-live
+	 */
+	data class Entry(
+		val streams: List<StreamData>,
+		val isStale: Boolean,
+	)
+
+	@Serializable
+	private data class StoredEntry(
+		val fetchedAt: Long,
+		val streams: List<StreamData>,
+	)
+
+	private val directory = File(context.cacheDir, "stream_cache")
+	private val memory = LruCache<Key, StoredEntry>(MEMORY_ENTRIES)
+	private val json = StreamResponseDecoder.json
+
+	/**
+	 * Get cached streams for [key].
+	 * @param ttl How long an entry is considered fresh
+	 * @param allowStale Whether entries past [ttl] (but within [MAX_STALE]) may be returned
+	 * @return The cached entry or null when nothing usable is cached
+	 */
+	suspend fun get(key: Key, ttl: Duration, allowStale: Boolean): Entry? {
+		if (ttl <= Duration.ZERO) return null
+
+		val stored = memory.get(key) ?: readFromDisk(key)?.also { memory.put(key, it) } ?: return null
+		val age = (System.currentTimeMillis() - stored.fetchedAt).milliseconds
+		val isStale = age > ttl
+
+		return when {
+			age > MAX_STALE -> null
+			isStale && !allowStale -> null
+			else -> Entry(stored.streams, isStale)
+		}
+	}
+
+	/**
+	 * Store [streams] for [key]. Empty results are not cached as they are most likely caused by
+	 * a failed request.
+	 */
+	suspend fun put(key: Key, streams: List<StreamData>) {
+		if (streams.isEmpty()) return
+
+		val stored = StoredEntry(System.currentTimeMillis(), streams)
+		memory.put(key, stored)
+		writeToDisk(key, stored)
+	}
+
+	/**
+	 * Remove all cached entries, both in memory and on disk.
+	 */
+	suspend fun clear() {
+		memory.evictAll()
+		withContext(Dispatchers.IO) { directory.deleteRecursively() }
+	}
+
+	private suspend fun readFromDisk(key: Key): StoredEntry? = withContext(Dispatchers.IO) {
+		val file = File(directory, key.fileName)
+		if (!file.exists()) return@withContext null
+
+		try {
+			json.decodeFromString<StoredEntry>(file.readText())
+				// Keep recently used entries when trimming
+				.also { file.setLastModified(System.currentTimeMillis()) }
+		} catch (e: SerializationException) {
+			Timber.w(e, "[StreamCache] Discarding corrupt cache entry ${key.fileName}")
+			file.delete()
+			null
+		} catch (e: IOException) {
+			Timber.w(e, "[StreamCache] Unable to read cache entry ${key.fileName}")
+			null
+		}
+	}
+
+	private suspend fun writeToDisk(key: Key, stored: StoredEntry): Unit = withContext(Dispatchers.IO) {
+		try {
+			directory.mkdirs()
+			// Write to a temporary file first so readers never see a partial entry
+			val tmp = File(directory, "${key.fileName}.tmp")
+			tmp.writeText(json.encodeToString(stored))
+			if (!tmp.renameTo(File(directory, key.fileName))) tmp.delete()
+		} catch (e: IOException) {
+			Timber.w(e, "[StreamCache] Unable to write cache entry ${key.fileName}")
+		}
+
+		trim()
+	}
+
+	/**
+	 * Remove the least recently used entries from disk when there are more than [DISK_ENTRIES].
+	 */
+	private fun trim() {
+		val files = directory.listFiles { file -> file.name.endsWith(".json") } ?: return
+		if (files.size <= DISK_ENTRIES) return
+
+		files.sortedBy { it.lastModified() }
+			.take(files.size - DISK_ENTRIES)
+			.forEach { it.delete() }
+	}
+}
@@ -1,8 +1,14 @@
 package org.jellyfin.androidtv.data.scraper
 
+import kotlinx.serialization.Serializable
+
 /**
  * Data class representing a stream from a scraper
+ *
+ * The typed fields ([sizeBytes], [resolution], [hasDolbyVision], [hasHdr]) are filled once by
+ * [StreamTitleParser] and should be used for sorting and filtering instead of the display strings.
  */
+@Serializable
 data class StreamData(
 	val id: String,
 	val url: String,
@@ -18,6 +24,10 @@ data class StreamData(
 	val codec: String,
 	val isAtmos: Boolean,
 	val release: String = "unknown",
-	val audioChannels: Int = 2
+	val audioChannels: Int = 2,
+	val sizeBytes: Long = 0L,
+	val resolution: StreamResolution = StreamResolution.UNKNOWN,
+	val hasDolbyVision: Boolean = false,
+	val hasHdr: Boolean = false
 )
 
@@ -0,0 +1,113 @@
+package org.jellyfin.androidtv.data.scraper
+
+import kotlinx.coroutines.CancellationException
+import kotlinx.coroutines.flow.Flow
+import kotlinx.coroutines.flow.channelFlow
+import kotlinx.coroutines.launch
+import kotlinx.coroutines.sync.Mutex
+import kotlinx.coroutines.sync.withLock
+import kotlinx.coroutines.withTimeoutOrNull
+import timber.log.Timber
+import java.util.concurrent.ConcurrentHashMap
+import kotlin.time.Duration
+import kotlin.time.Duration.Companion.minutes
+
+/**
+ * Queries multiple [StreamProvider] endpoints concurrently. Every query runs with the deadline
+ * of its provider and behind a per-provider circuit breaker, so a slow or broken addon never
+ * holds back the results of the others.
+ */
+class StreamFanOut {
+	companion object {
+		private const val FAILURE_THRESHOLD = 3
+		private val OPEN_DURATION = 1.minutes
+	}
+
+	/**
+	 * A single endpoint to query.
+	 */
+	data class Query(
+		val provider: StreamProvider,
+		val isAnime: Boolean,
+	)
+
+	/**
+	 * Stops querying a provider after [FAILURE_THRESHOLD] consecutive failures. After
+	 * [OPEN_DURATION] a single trial request is let through again.
+	 */
+	private class CircuitBreaker {
+		private var consecutiveFailures = 0
+		private var openedAt = 0L
+
+		@Synchronized
+		fun allowRequest(): Boolean {
+			if (consecutiveFailures < FAILURE_THRESHOLD) return true
+			if (System.currentTimeMillis() - openedAt < OPEN_DURATION.inWholeMilliseconds) return false
+
+			// Half-open: let one request through, the next failure opens the breaker again
+			openedAt = System.currentTimeMillis()
+			return true
+		}
+
+		@Synchronized
+		fun recordSuccess() {
+			consecutiveFailures = 0
+		}
+
+		@Synchronized
+		fun recordFailure() {
+			consecutiveFailures++
+			if (consecutiveFailures >= FAILURE_THRESHOLD) openedAt = System.currentTimeMillis()
+		}
+	}
+
+	private val breakers = ConcurrentHashMap<String, CircuitBreaker>()
+
+	/**
+	 * Run all [queries] concurrently.
+	 * @param fetch Performs a single query, returning null on failure
+	 * @return Flow emitting the combined results every time a query returns new streams. The
+	 * flow completes when all queries have finished or were abandoned.
+	 */
+	fun query(
+		queries: List<Query>,
+		fetch: suspend (Query) -> List<StreamData>?,
+	): Flow<List<StreamData>> = channelFlow {
+		val collected = mutableListOf<StreamData>()
+		val lock = Mutex()
+
+		for (query in queries) launch {
+			val name = query.provider.name
+			val endpoint = if (query.isAnime) "anime" else "default"
+			val breaker = breakers.getOrPut(name) { CircuitBreaker() }
+
+			if (!breaker.allowRequest()) {
+				Timber.w("[StreamFanOut] Skipping $name ($endpoint), circuit breaker is open")
+				return@launch
+			}
+
+			val result = try {
+				withTimeoutOrNull(query.provider.deadline) { fetch(query) }
+					.also { if (it == null) Timber.w("[StreamFanOut] $name ($endpoint) failed or exceeded ${query.provider.deadline}") }
+			} catch (e: CancellationException) {
+				throw e
+			} catch (e: Exception) {
+				Timber.e(e, "[StreamFanOut] Error querying $name ($endpoint)")
+				null
+			}
+
+			if (result == null) {
+				breaker.recordFailure()
+				return@launch
+			}
+
+			breaker.recordSuccess()
+			Timber.d("[StreamFanOut] $name ($endpoint) returned ${result.size} streams")
+
+			if (result.isNotEmpty()) lock.withLock {
+				collected.addAll(result)
+				send(collected.toList())
+			}
+		}
+	}
+}
@@ -0,0 +1,47 @@
+package org.jellyfin.androidtv.data.scraper
+
+import kotlin.time.Duration
+import kotlin.time.Duration.Companion.seconds
+
+/**
+ * A source of stream links, queried by [StreamFanOut].
+ */
+interface StreamProvider {
+	/**
+	 * Display name, also used as the provider value of returned [StreamData].
+	 */
+	val name: String
+
+	/**
+	 * Maximum time a single query may take before it is abandoned.
+	 */
+	val deadline: Duration get() = 20.seconds
+
+	/**
+	 * Settings the returned streams depend on. Cached results are only reused for the same
+	 * configuration.
+	 */
+	val configuration: String get() = ""
+
+	/**
+	 * Whether the provider is enabled and configured in the user preferences.
+	 */
+	fun isEnabled(): Boolean
+
+	/**
+	 * Get streams for a movie or TV episode
+	 * @param imdbId IMDB ID (e.g., "tt1234567")
+	 * @param isMovie true for movies, false for TV shows
+	 * @param seasonNumber Season number (only for TV shows)
+	 * @param episodeNumber Episode number (only for TV shows)
+	 * @param isAnime true to use the anime endpoint instead of series (only applies to TV shows)
+	 * @return List of parsed stream data, or null when the provider could not be reached
+	 */
+	suspend fun getStreams(
+		imdbId: String,
+		isMovie: Boolean,
+		seasonNumber: Int = 0,
+		episodeNumber: Int = 0,
+		isAnime: Boolean = false
+	): List<StreamData>?
+}
@@ -0,0 +1,27 @@
+package org.jellyfin.androidtv.data.scraper
+
+/**
+ * Video resolution of a stream as parsed from its release name.
+ */
+enum class StreamResolution(val height: Int) {
+	UHD_2160P(2160),
+	FHD_1080P(1080),
+	HD_720P(720),
+	SD_576P(576),
+	SD_480P(480),
+	UNKNOWN(0);
+
+	companion object {
+		/**
+		 * Map a quality string like "1080p" or "4k" to a resolution.
+		 */
+		fun fromQuality(quality: String): StreamResolution = when (quality.lowercase()) {
+			"4k", "2160p" -> UHD_2160P
+			"1080p" -> FHD_1080P
+			"720p" -> HD_720P
+			"576p" -> SD_576P
+			"480p" -> SD_480P
+			else -> UNKNOWN
+		}
+	}
+}
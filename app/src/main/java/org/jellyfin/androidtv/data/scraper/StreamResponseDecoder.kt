@@ -0,0 +1,108 @@
+package org.jellyfin.androidtv.data.scraper
+
+import kotlinx.serialization.DeserializationStrategy
+import kotlinx.serialization.ExperimentalSerializationApi
+import kotlinx.serialization.KSerializer
+import kotlinx.serialization.SerializationException
+import kotlinx.serialization.builtins.ListSerializer
+import kotlinx.serialization.descriptors.SerialDescriptor
+import kotlinx.serialization.descriptors.buildClassSerialDescriptor
+import kotlinx.serialization.descriptors.nullable
+import kotlinx.serialization.encoding.CompositeDecoder
+import kotlinx.serialization.encoding.Decoder
+import kotlinx.serialization.encoding.decodeStructure
+import kotlinx.serialization.json.Json
+import kotlinx.serialization.json.decodeFromStream
+import java.io.InputStream
+
+/**
+ * Streaming decoder for Stremio addon responses (`{"streams": [...]}`).
+ *
+ * Elements are decoded straight from the response stream and mapped to [StreamData] one by one,
+ * so the full body is never buffered. Decoding stops as soon as [maxResults] streams are mapped.
+ */
+object StreamResponseDecoder {
+	/**
+	 * Shared JSON configuration for all scraper responses.
+	 */
+	val json = Json { ignoreUnknownKeys = true }
+
+	private class LimitReached : RuntimeException() {
+		override fun fillInStackTrace() = this
+	}
+
+	/**
+	 * Decode the streams from [input].
+	 * @param elementSerializer Serializer for a single stream element of the addon
+	 * @param maxResults Maximum amount of streams to decode, 0 for no limit
+	 * @param map Maps a decoded element to [StreamData], returning null to skip it
+	 */
+	@OptIn(ExperimentalSerializationApi::class)
+	fun <E> decode(
+		input: InputStream,
+		elementSerializer: KSerializer<E>,
+		maxResults: Int,
+		map: (E) -> StreamData?,
+	): List<StreamData> {
+		val streams = mutableListOf<StreamData>()
+		val limit = if (maxResults > 0) maxResults else Int.MAX_VALUE
+
+		try {
+			json.decodeFromStream(StreamResponseStrategy(StreamArrayStrategy(elementSerializer) { element ->
+				map(element)?.let(streams::add)
+				if (streams.size >= limit) throw LimitReached()
+			}), input)
+		} catch (e: LimitReached) {
+			// Stopped early, the remainder of the body is discarded
+		}
+
+		return streams
+	}
+
+	/**
+	 * Reads the root object, skipping everything except the "streams" array.
+	 */
+	private class StreamResponseStrategy(
+		private val arrayStrategy: DeserializationStrategy<Unit?>,
+	) : DeserializationStrategy<Unit> {
+		override val descriptor: SerialDescriptor = buildClassSerialDescriptor("StreamResponse") {
+			element("streams", arrayStrategy.descriptor, isOptional = true)
+		}
+
+		override fun deserialize(decoder: Decoder) = decoder.decodeStructure(descriptor) {
+			while (true) {
+				when (val index = decodeElementIndex(descriptor)) {
+					0 -> decodeNullableSerializableElement(descriptor, 0, arrayStrategy)
+					CompositeDecoder.DECODE_DONE -> break
+					else -> throw SerializationException("Unexpected index $index")
+				}
+			}
+		}
+	}
+
+	/**
+	 * Hands every element of a nullable array to [onElement] as soon as it is read.
+	 */
+	@OptIn(ExperimentalSerializationApi::class)
+	private class StreamArrayStrategy<E>(
+		private val elementSerializer: KSerializer<E>,
+		private val onElement: (E) -> Unit,
+	) : DeserializationStrategy<Unit?> {
+		private val listDescriptor = ListSerializer(elementSerializer).descriptor
+		override val descriptor: SerialDescriptor = listDescriptor.nullable
+
+		override fun deserialize(decoder: Decoder): Unit? {
+			if (!decoder.decodeNotNullMark()) return decoder.decodeNull()
+
+			decoder.decodeStructure(listDescriptor) {
+				while (true) {
+					val index = decodeElementIndex(listDescriptor)
+					if (index == CompositeDecoder.DECODE_DONE) break
+					onElement(decodeSerializableElement(listDescriptor, index, elementSerializer))
+				}
+			}
+
+			return Unit
+		}
+	}
+}
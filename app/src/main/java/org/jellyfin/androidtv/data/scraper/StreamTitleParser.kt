@@ -0,0 +1,164 @@
+package org.jellyfin.androidtv.data.scraper
+
+import java.util.Locale
+
+/**
+ * Shared release name parser for the Stremio addon scrapers.
+ *
+ * All patterns are compiled once, and every stream is parsed a single time into the typed fields
+ * of [StreamData] so sorting and filtering never have to look at the display strings again.
+ */
+object StreamTitleParser {
+	private val HASH = Regex("[a-f0-9]{32,}")
+	private val QUALITY = Regex("(\\d+p|4K)", RegexOption.IGNORE_CASE)
+	private val QUALITY_TOKEN = Regex("\\d+p")
+	private val SEEDS = Regex("👤\\s*(\\d+)")
+	private val SIZE = Regex("💾\\s*([\\d.]+)\\s*(GB|MB|GiB|MiB)")
+	private val SOURCE = Regex("⚙️\\s*(.+)$", RegexOption.MULTILINE)
+	private val DOLBY_VISION = Regex("\\b(dolby.?vision|dv)\\b")
+	private val HDR10_PLUS = Regex("\\bhdr.?10.?\\+|\\bhdr.?10.?plus\\b")
+	private val HDR = Regex("\\bhdr\\b|\\.hdr\\.")
+	private val CODEC = Regex("(x264|x265|HEVC|AVC|AV1|H\\.?265|H\\.?264)", RegexOption.IGNORE_CASE)
+	private val RELEASE = Regex("(BluRay|WEB-DL|HDTV|REMUX|WEBRip|BDRip|BRRip|DVDRip|HDRip|BDMUX|TeleSync)", RegexOption.IGNORE_CASE)
+	// Channel layouts like 2.0, 5.1 or 7.1, not part of a larger number or followed by a size unit
+	private val AUDIO_CHANNELS = Regex("(?<!\\d)([1-9])\\.([0-2])(?!\\d)(?!\\s*[KMGT]i?B\\b)", RegexOption.IGNORE_CASE)
+
+	private val CODEC_TOKENS = setOf("hevc", "x265", "avc", "x264", "av1", "h265", "h264")
+	private val RELEASE_TOKENS = mapOf(
+		"bluray" to "BLURAY",
+		"blu-ray" to "BLURAY",
+		"bluray remux" to "REMUX",
+		"remux" to "REMUX",
+		"web-dl" to "WEB-DL",
+		"webdl" to "WEB-DL",
+		"webrip" to "WEBRIP",
+		"hdtv" to "HDTV",
+		"bdrip" to "BDRIP",
+		"brrip" to "BRRIP",
+		"dvdrip" to "DVDRIP",
+		"hdrip" to "HDRIP",
+		"bdmux" to "BDMUX",
+		"telesync" to "TS"
+	)
+
+	private const val BYTES_PER_MB = 1024L * 1024
+	private const val BYTES_PER_GB = 1024L * 1024 * 1024
+
+	/**
+	 * Parse a single addon stream into [StreamData].
+	 * @param url The playback URL, also used as id
+	 * @param name The stream name, usually containing the quality
+	 * @param title The stream title or description, containing seeds, size and source
+	 * @param filename The filename from the behavior hints
+	 * @param bingeGroup The binge group from the behavior hints
+	 * @param provider The provider name
+	 * @param videoSize The size in bytes from the behavior hints, or 0 when unknown
+	 * @param requireBingeMetadata Only trust the binge group when it contains more than a hash
+	 */
+	fun parse(
+		url: String,
+		name: String,
+		title: String,
+		filename: String,
+		bingeGroup: String,
+		provider: String,
+		videoSize: Long = 0,
+		requireBingeMetadata: Boolean = false,
+	): StreamData {
+		// Movies: "torrentio|4k|BluRay REMUX|hevc|DV" - rich metadata
+		// TV Episodes: "torrentio|hash" - often just a hash, less useful
+		// AIOStreams: "com.aiostreams.viren070|premiumize|false|1080p|BluRay|HEVC|DTS-HD MA|HDR10|DV|..."
+		val bingeTokens = bingeGroup.split('|').map { it.trim().lowercase(Locale.ROOT) }
+		val hasBingeMetadata = !requireBingeMetadata || (bingeTokens.size > 2 && !HASH.matches(bingeTokens[1]))
+		val metadataTokens = if (hasBingeMetadata) bingeTokens else emptyList()
+
+		val combinedText = buildString {
+			append(name.lowercase(Locale.ROOT))
+			append(' ')
+			append(filename.lowercase(Locale.ROOT))
+			for (token in bingeTokens) {
+				append(' ')
+				append(token)
+			}
+		}
+		val filenameAndTitle = "$filename $title"
+
+		val quality = parseQuality(name, metadataTokens)
+		val (fileSize, sizeBytes) = parseSize(title, videoSize)
+		val hdrFormats = parseHdrFormats(combinedText, bingeTokens)
+
+		return StreamData(
+			id = url,
+			url = url,
+			title = title,
+			name = name,
+			filename = filename,
+			quality = quality,
+			seeds = SEEDS.find(title)?.groupValues?.get(1)?.toIntOrNull() ?: 0,
+			fileSize = fileSize,
+			source = SOURCE.find(title)?.groupValues?.get(1)?.trim() ?: provider,
+			provider = provider,
+			hdrFormats = hdrFormats,
+			codec = metadataTokens.firstOrNull { it in CODEC_TOKENS }
+				?: CODEC.find(filename)?.groupValues?.get(1)
+				?: "unknown",
+			isAtmos = "atmos" in combinedText,
+			release = metadataTokens.firstNotNullOfOrNull { RELEASE_TOKENS[it] }
+				?: RELEASE.find(filenameAndTitle)?.groupValues?.get(1)?.uppercase(Locale.ROOT)
+				?: "unknown",
+			audioChannels = parseAudioChannels(filenameAndTitle, bingeTokens),
+			sizeBytes = sizeBytes,
+			resolution = StreamResolution.fromQuality(quality),
+			hasDolbyVision = "Dolby Vision" in hdrFormats,
+			hasHdr = hdrFormats.any { it != "SDR" },
+		)
+	}
+
+	private fun parseQuality(name: String, metadataTokens: List<String>): String {
+		QUALITY.find(name)?.let { return it.groupValues[1].lowercase(Locale.ROOT) }
+		return metadataTokens.firstOrNull { it == "4k" || QUALITY_TOKEN.matches(it) } ?: "unknown"
+	}
+
+	private fun parseSize(title: String, videoSize: Long): Pair<String, Long> {
+		if (videoSize > 0) {
+			val display = if (videoSize >= BYTES_PER_GB) "%.2f GB".format(Locale.ROOT, videoSize.toDouble() / BYTES_PER_GB)
+			else "%.2f MB".format(Locale.ROOT, videoSize.toDouble() / BYTES_PER_MB)
+			return display to videoSize
+		}
+
+		val match = SIZE.find(title) ?: return "Unknown" to 0L
+		val (size, unit) = match.destructured
+		return "$size $unit" to toBytes(size, unit)
+	}
+
+	private fun toBytes(size: String, unit: String): Long {
+		val value = size.toDoubleOrNull() ?: return 0L
+		return when (unit.uppercase(Locale.ROOT)) {
+			"GB", "GIB" -> (value * BYTES_PER_GB).toLong()
+			"MB", "MIB" -> (value * BYTES_PER_MB).toLong()
+			else -> 0L
+		}
+	}
+
+	private fun parseHdrFormats(combinedText: String, bingeTokens: List<String>): List<String> {
+		val hdrFormats = mutableListOf<String>()
+
+		if (DOLBY_VISION.containsMatchIn(combinedText) || "dv" in bingeTokens) hdrFormats.add("Dolby Vision")
+		if (HDR10_PLUS.containsMatchIn(combinedText)) hdrFormats.add("HDR10+")
+		if (("hdr10" in bingeTokens || "hdr10" in combinedText) && "HDR10+" !in hdrFormats) hdrFormats.add("HDR10")
+		if (hdrFormats.isEmpty() && ("hdr" in bingeTokens || HDR.containsMatchIn(combinedText))) hdrFormats.add("HDR")
+		if (hdrFormats.isEmpty()) hdrFormats.add("SDR")
+
+		return hdrFormats
+	}
+
+	private fun parseAudioChannels(text: String, bingeTokens: List<String>): Int {
+		AUDIO_CHANNELS.find(text)?.let { return it.groupValues[1].toInt() }
+
+		return when {
+			bingeTokens.any { "7.1" in it } -> 7
+			bingeTokens.any { "5.1" in it } -> 5
+			else -> 2
+		}
+	}
+}
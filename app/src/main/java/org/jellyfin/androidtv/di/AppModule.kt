@@ -8,6 +8,7 @@ import coil3.annotation.ExperimentalCoilApi
 import coil3.gif.AnimatedImageDecoder
 import coil3.gif.GifDecoder
 import coil3.network.okhttp.OkHttpNetworkFetcherFactory
+import coil3.request.allowRgb565
 import coil3.serviceLoaderEnabled
 import coil3.svg.SvgDecoder
 import coil3.util.Logger
@@ -16,21 +17,34 @@ import org.jellyfin.androidtv.BuildConfig
 import org.jellyfin.androidtv.auth.repository.ServerRepository
 import org.jellyfin.androidtv.auth.repository.UserRepository
 import org.jellyfin.androidtv.auth.repository.UserRepositoryImpl
+import org.jellyfin.androidtv.data.eventhandling.LibraryChangeBus
 import org.jellyfin.androidtv.data.eventhandling.SocketHandler
 import org.jellyfin.androidtv.data.model.DataRefreshService
 import org.jellyfin.androidtv.data.repository.CustomMessageRepository
 import org.jellyfin.androidtv.data.repository.CustomMessageRepositoryImpl
 import org.jellyfin.androidtv.data.repository.ItemMutationRepository
 import org.jellyfin.androidtv.data.repository.ItemMutationRepositoryImpl
+import org.jellyfin.androidtv.data.repository.LibraryIndexRepository
+import org.jellyfin.androidtv.data.repository.LibraryIndexRepositoryImpl
+import org.jellyfin.androidtv.data.repository.LibraryMembershipRepository
+import org.jellyfin.androidtv.data.repository.LibraryMembershipRepositoryImpl
 import org.jellyfin.androidtv.data.repository.NotificationsRepository
 import org.jellyfin.androidtv.data.repository.NotificationsRepositoryImpl
 import org.jellyfin.androidtv.data.repository.UserViewsRepository
 import org.jellyfin.androidtv.data.repository.UserViewsRepositoryImpl
+import org.jellyfin.androidtv.data.scraper.AioStreamsApi
+import org.jellyfin.androidtv.data.scraper.ScraperHttpClient
+import org.jellyfin.androidtv.data.scraper.StreamCache
+import org.jellyfin.androidtv.data.scraper.StreamFanOut
+import org.jellyfin.androidtv.data.scraper.StreamProvider
+import org.jellyfin.androidtv.data.scraper.TorrentioApi
 import org.jellyfin.androidtv.data.service.BackgroundService
 import org.jellyfin.androidtv.integration.dream.DreamViewModel
+import org.jellyfin.androidtv.integration.provider.ImageProviderCache
 import org.jellyfin.androidtv.preference.UserPreferences
 import org.jellyfin.androidtv.ui.ScreensaverViewModel
 import org.jellyfin.androidtv.ui.itemhandling.ItemLauncher
+import org.jellyfin.androidtv.ui.livetv.EpgStore
 import org.jellyfin.androidtv.ui.navigation.Destinations
 import org.jellyfin.androidtv.ui.navigation.NavigationRepository
 import org.jellyfin.androidtv.ui.navigation.NavigationRepositoryImpl
@@ -47,11 +61,13 @@ import org.jellyfin.androidtv.ui.startup.ServerAddViewModel
 import org.jellyfin.androidtv.ui.startup.StartupViewModel
 import org.jellyfin.androidtv.ui.startup.UserLoginViewModel
 import org.jellyfin.androidtv.ui.home.carousel.CarouselViewModel
+import org.jellyfin.androidtv.util.ImagePrefetcher
 import org.jellyfin.androidtv.util.KeyProcessor
 import org.jellyfin.androidtv.util.MarkdownRenderer
 import org.jellyfin.androidtv.util.PlaybackHelper
 import org.jellyfin.androidtv.util.apiclient.ReportingHelper
 import org.jellyfin.androidtv.util.coil.CoilTimberLogger
+import org.jellyfin.androidtv.util.coil.ImageCachePolicy
 import org.jellyfin.androidtv.util.coil.createCoilConnectivityChecker
 import org.jellyfin.androidtv.util.sdk.SdkPlaybackHelper
 import org.jellyfin.sdk.android.androidDevice
@@ -61,6 +77,7 @@ import org.jellyfin.sdk.model.ClientInfo
 import org.koin.android.ext.koin.androidContext
 import org.koin.core.module.dsl.viewModel
 import org.koin.core.qualifier.named
+import org.koin.dsl.bind
 import org.koin.dsl.module
 import timber.log.Timber
 import org.jellyfin.sdk.Jellyfin as JellyfinSdk
@@ -104,16 +121,15 @@ val appModule = module {
 	}
 
 	single {
-		SocketHandler(get(), get(), get(), get(), get(), get(), get(), get(), get())
+		SocketHandler(get(), get(), get(), get(), get(), get(), get(), get(), get(), get())
 	}
 
 	// Coil (images)
+	single { ImageCachePolicy(androidContext()) }
 	single<ImageLoader> {
 		val context = androidContext()
 		val userPreferences: UserPreferences = get()
-
-		// Memory cache size (in bytes)
-		val memoryCacheSize = 700L * 1024 * 1024
+		val cachePolicy: ImageCachePolicy = get()
 		val diskCacheSizeMb = userPreferences[UserPreferences.diskCacheSizeMb]
 		val diskCacheDir = File(context.cacheDir, "image_cache")
 		if (!diskCacheDir.exists()) {
@@ -127,9 +143,11 @@ val appModule = module {
 			// Configure memory cache
 			memoryCache {
 				coil3.memory.MemoryCache.Builder()
-					.maxSizeBytes(memoryCacheSize)
+					.maxSizeBytes(cachePolicy.memoryCacheSize)
 					.build()
 			}
+			allowRgb565(cachePolicy.allowRgb565)
+			eventListener(cachePolicy.metrics)
 
 			if (diskCacheSizeMb > 0) {
 				val diskCache = coil3.disk.DiskCache.Builder()
@@ -155,19 +173,31 @@ val appModule = module {
 		}.build()
 	}
 
+	single { ImagePrefetcher(androidContext(), get(), get()) }
+	single { ImageProviderCache(androidContext(), get()) }
+
 	// Non API related
 	single { DataRefreshService() }
+	single { LibraryChangeBus() }
 	single { PlaybackControllerContainer() }
 
 	single<UserRepository> { UserRepositoryImpl() }
 	single<UserViewsRepository> { UserViewsRepositoryImpl(get()) }
+	single<LibraryMembershipRepository> { LibraryMembershipRepositoryImpl(get(), get(), get()) }
+	single<LibraryIndexRepository> { LibraryIndexRepositoryImpl(androidContext(), get(), get(), get(), get()) }
 	single<NotificationsRepository> { NotificationsRepositoryImpl(get(), get()) }
 	single<ItemMutationRepository> { ItemMutationRepositoryImpl(get(), get()) }
 	single<CustomMessageRepository> { CustomMessageRepositoryImpl() }
 	single<NavigationRepository> { NavigationRepositoryImpl(Destinations.home, get<UserPreferences>()) }
-	single<SearchRepository> { SearchRepositoryImpl(get()) }
+	single<SearchRepository> { SearchRepositoryImpl(get(), get(), get()) }
 	single<MediaSegmentRepository> { MediaSegmentRepositoryImpl(get(), get()) }
 	single { org.jellyfin.androidtv.ui.itemdetail.ThemeSongs(androidContext()) }
+	single { ScraperHttpClient() }
+	single { StreamCache(androidContext()) }
+	single { EpgStore(androidContext(), get(), get()) }
+	single { StreamFanOut() }
+	single { TorrentioApi(get(), get()) } bind StreamProvider::class
+	single { AioStreamsApi(get(), get()) } bind StreamProvider::class
 
 	viewModel { StartupViewModel(get(), get(), get(), get()) }
 	viewModel { UserLoginViewModel(get(), get(), get(), get(defaultDeviceInfo)) }
@@ -14,13 +14,18 @@ import org.jellyfin.androidtv.preference.UserPreferences
 import org.jellyfin.androidtv.preference.UserSettingPreferences
 import org.jellyfin.androidtv.ui.browsing.MainActivity
 import org.jellyfin.androidtv.ui.playback.MediaManager
+import org.jellyfin.androidtv.ui.playback.PlaybackCache
 import org.jellyfin.androidtv.ui.playback.PlaybackLauncher
+import org.jellyfin.androidtv.ui.playback.StreamWarmUp
 import org.jellyfin.androidtv.ui.playback.VideoQueueManager
 import org.jellyfin.androidtv.ui.playback.rewrite.RewriteMediaManager
-import org.jellyfin.androidtv.util.profile.createDeviceProfile
+import org.jellyfin.androidtv.util.DeviceMemoryUtils
+import org.jellyfin.androidtv.util.profile.DeviceProfileProvider
+import org.jellyfin.androidtv.util.profile.MediaCodecCapabilitiesStore
 import org.jellyfin.playback.core.playbackManager
 import org.jellyfin.playback.jellyfin.jellyfinPlugin
 import org.jellyfin.playback.media3.exoplayer.ExoPlayerOptions
+import org.jellyfin.playback.media3.exoplayer.SegmentedHttpDataSource
 import org.jellyfin.playback.media3.exoplayer.exoPlayerPlugin
 import org.jellyfin.playback.media3.session.MediaSessionOptions
 import org.jellyfin.playback.media3.session.media3SessionPlugin
@@ -34,8 +39,10 @@ import kotlin.time.toJavaDuration
 import org.jellyfin.androidtv.ui.playback.PlaybackManager as LegacyPlaybackManager
 
 val playbackModule = module {
-	single { LegacyPlaybackManager(get()) }
+	single { LegacyPlaybackManager(get(), get()) }
 	single { VideoQueueManager() }
+	single { MediaCodecCapabilitiesStore(androidContext()) }
+	single { DeviceProfileProvider(get(), get()) }
 	single<MediaManager> { RewriteMediaManager(get(), get(), get(), get()) }
 
 	single { PlaybackLauncher(get(), get(), get(), get()) }
@@ -53,6 +60,11 @@ val playbackModule = module {
 		}.build())
 	}
 
+	// Loads large direct play streams with multiple connections
+	single { SegmentedHttpDataSource.Factory(get<HttpDataSource.Factory>()) }
+	single { PlaybackCache(androidContext(), get(), get(), get<SegmentedHttpDataSource.Factory>()) }
+	single { StreamWarmUp(get(), get(), get<HttpDataSource.Factory>(), get<PlaybackCache>()) }
+
 	single { createPlaybackManager() }
 }
 
@@ -75,7 +87,8 @@ fun Scope.createPlaybackManager() = playbackManager(androidContext()) {
 		enableLibass = userPreferences[UserPreferences.assDirectPlay],
 		preferFfmpeg = userPreferences[UserPreferences.preferExoPlayerFfmpeg],
 		enableDebugLogging = userPreferences[UserPreferences.debuggingEnabled],
-		baseDataSourceFactory = get<HttpDataSource.Factory>(),
+		baseDataSourceFactory = get<PlaybackCache>(),
+		maxBufferBytes = DeviceMemoryUtils.getPlaybackBufferBytes(get()),
 	)
 	install(exoPlayerPlugin(get(), exoPlayerOptions))
 
@@ -87,7 +100,8 @@ fun Scope.createPlaybackManager() = playbackManager(androidContext()) {
 	)
 	install(media3SessionPlugin(get(), mediaSessionOptions))
 
-	val deviceProfileBuilder = { createDeviceProfile(userPreferences, false) }
+	val deviceProfileProvider = get<DeviceProfileProvider>()
+	val deviceProfileBuilder = { deviceProfileProvider.getDeviceProfile(false) }
 	install(jellyfinPlugin(get(), deviceProfileBuilder))
 
 	// Options
@@ -1,12 +1,17 @@
 package org.jellyfin.androidtv.integration
 
 import android.annotation.SuppressLint
+import android.content.ContentProviderOperation
 import android.content.ContentUris
 import android.content.ContentValues
 import android.content.Context
 import android.content.Intent
+import android.content.OperationApplicationException
+import android.database.DatabaseUtils
 import android.net.Uri
 import android.os.Build
+import android.os.RemoteException
+import android.provider.BaseColumns
 import androidx.core.content.edit
 import androidx.core.content.res.ResourcesCompat
 import androidx.core.graphics.drawable.toBitmap
@@ -23,9 +28,11 @@ import kotlinx.coroutines.Dispatchers
 import kotlinx.coroutines.async
 import kotlinx.coroutines.withContext
 import org.jellyfin.androidtv.R
-import org.jellyfin.androidtv.data.repository.ItemRepository
+import org.jellyfin.androidtv.auth.repository.UserRepository
+import org.jellyfin.androidtv.data.model.DataRefreshService
 import org.jellyfin.androidtv.data.repository.UserViewsRepository
 import org.jellyfin.androidtv.integration.provider.ImageProvider
+import org.jellyfin.androidtv.integration.provider.ImageProviderCache
 import org.jellyfin.androidtv.preference.UserPreferences
 import org.jellyfin.androidtv.ui.startup.StartupActivity
 import org.jellyfin.androidtv.util.ImageHelper
@@ -45,6 +52,7 @@ import org.jellyfin.sdk.api.client.extensions.userViewsApi
 import org.jellyfin.sdk.model.api.BaseItemDto
 import org.jellyfin.sdk.model.api.BaseItemKind
 import org.jellyfin.sdk.model.api.ImageType
+import org.jellyfin.sdk.model.api.ItemFields
 import org.jellyfin.sdk.model.api.MediaType
 import org.jellyfin.sdk.model.extensions.ticks
 import org.koin.core.component.KoinComponent
@@ -54,6 +62,7 @@ import java.time.Instant
 import java.time.ZoneId
 import java.time.format.DateTimeFormatter
 import kotlin.time.Duration
+import kotlin.time.Duration.Companion.hours
 
 /**
  * Manages channels on the android tv home screen.
@@ -66,12 +75,41 @@ class LeanbackChannelWorker(
 ) : CoroutineWorker(context, workerParams), KoinComponent {
 	companion object {
 		const val PERIODIC_UPDATE_REQUEST_NAME = "LeanbackChannelPeriodicUpdateRequest"
+
+		/**
+		 * Maximum amount of programs in a channel.
+		 */
+		private const val CHANNEL_LIMIT = 50
+
+		/**
+		 * Changes made by other clients are not reported to [DataRefreshService], sync at least this
+		 * often to pick them up.
+		 */
+		private val MAX_SYNC_AGE = 4.hours
+
+		private const val KEY_LAST_SYNC = "last_sync"
+		private const val KEY_SYNC_STATE = "sync_state"
+
+		/**
+		 * Fields used by preview and watch next programs, other fields are not requested.
+		 */
+		private val programFields = setOf(
+			ItemFields.DATE_CREATED,
+			ItemFields.OVERVIEW,
+		)
+
+		private val programImageTypes = setOf(ImageType.PRIMARY, ImageType.THUMB)
 	}
 
 	private val api by inject<ApiClient>()
 	private val userPreferences by inject<UserPreferences>()
+	private val userRepository by inject<UserRepository>()
 	private val userViewsRepository by inject<UserViewsRepository>()
 	private val imageHelper by inject<ImageHelper>()
+	private val dataRefreshService by inject<DataRefreshService>()
+	private val imageProviderCache by inject<ImageProviderCache>()
+
+	private val syncStore by lazy { context.getSharedPreferences("leanback_sync", Context.MODE_PRIVATE) }
 
 	/**
 	 * Check if the app can use Leanback features and is API level 26 or higher.
@@ -95,9 +133,16 @@ class LeanbackChannelWorker(
 			// Delete all existing channels and programs when disabled
 			context.contentResolver.delete(TvContractCompat.PreviewPrograms.CONTENT_URI, null, null)
 			context.contentResolver.delete(TvContractCompat.Channels.CONTENT_URI, null, null)
+			syncStore.edit { clear() }
+			Result.success()
+		}
+		// Skip when nothing changed since the last sync
+		isUpToDate() -> {
+			Timber.d("Launcher channels are up to date")
 			Result.success()
 		}
 		else -> try {
+			val syncStart = Instant.now()
 			// Get next up episodes
 			val (resumeItems, nextUpItems) = getNextUpItems()
 			// Get latest media
@@ -106,8 +151,6 @@ class LeanbackChannelWorker(
 			val movies = getMovies()
 			val movieCollections = getMovieCollections()
 			val shows = getShows()
-			// Delete current items from the channels
-			context.contentResolver.delete(TvContractCompat.PreviewPrograms.CONTENT_URI, null, null)
 
 			// Get channel URIs
 			val latestMediaChannel = getChannelUri(
@@ -169,7 +212,7 @@ class LeanbackChannelWorker(
 			)
 			val preferParentThumb = userPreferences[UserPreferences.seriesThumbnailsEnabled]
 			val preferLauncherThumb = userPreferences[UserPreferences.launcherThumbnailsEnabled]
-
+			val changedImages = mutableListOf<Uri>()
 
 			// Add new items
 			arrayOf(
@@ -185,24 +228,28 @@ class LeanbackChannelWorker(
 				if (channel == null) {
 					Timber.e("Skipping channel because it was not available")
 				} else {
-					items.map { item ->
+					val channelItems = items.distinctBy { it.id }
+					channelItems.mapIndexed { index, item ->
 						createPreviewProgram(
 							channel,
 							item,
+							channelItems.size - index,
 							preferParentThumb,
 							preferLauncherThumb
 						)
-					}.let {
-						context.contentResolver.bulkInsert(
-							TvContractCompat.PreviewPrograms.CONTENT_URI,
-							it.toTypedArray()
-						)
-					}
+					}.let { changedImages += syncPreviewPrograms(channel, it) }
 				}
 			}
-			updateWatchNext(resumeItems + nextUpItems, preferLauncherThumb)
+			changedImages += updateWatchNext(resumeItems + nextUpItems, preferLauncherThumb)
+
+			// Encode the images of new programs before the launcher requests them
+			imageProviderCache.prefetch(changedImages)
 
 			// Success!
+			syncStore.edit {
+				putLong(KEY_LAST_SYNC, syncStart.toEpochMilli())
+				putString(KEY_SYNC_STATE, getSyncState())
+			}
 			Result.success()
 		} catch (err: TimeoutException) {
 			Timber.w(err, "Server unreachable, trying again later")
@@ -215,6 +262,35 @@ class LeanbackChannelWorker(
 		}
 	}
 
+	/**
+	 * The user and preferences the channels were created with, a sync is needed when they change.
+	 */
+	private fun getSyncState() = listOf(
+		api.baseUrl,
+		userRepository.currentUser.value?.id,
+		userPreferences[UserPreferences.seriesThumbnailsEnabled],
+		userPreferences[UserPreferences.launcherThumbnailsEnabled],
+	).joinToString("|")
+
+	/**
+	 * Check if the channels were synced after the last library change, playback or favorite
+	 * update. [DataRefreshService] only knows about changes made in this process so the channels
+	 * are considered outdated after [MAX_SYNC_AGE].
+	 */
+	private fun isUpToDate(): Boolean {
+		val lastSync = syncStore.getLong(KEY_LAST_SYNC, 0)
+		if (lastSync == 0L || syncStore.getString(KEY_SYNC_STATE, null) != getSyncState()) return false
+		if (System.currentTimeMillis() - lastSync > MAX_SYNC_AGE.inWholeMilliseconds) return false
+
+		val lastChange = listOfNotNull(
+			dataRefreshService.lastLibraryChange,
+			dataRefreshService.lastPlayback,
+			dataRefreshService.lastFavoriteUpdate,
+		).maxOrNull() ?: return true
+
+		return lastChange.toEpochMilli() < lastSync
+	}
+
 	/**
 	 * Get the uri for a channel or create it if it doesn't exist. Uses the [settings] parameter to
 	 * update or create the channel. The [name] parameter is used to store the id and should be
@@ -249,22 +325,24 @@ class LeanbackChannelWorker(
 
 			// Save uri to shared preferences
 			store.edit { putString(name, uri?.toString()) }
-		}
 
-		// Update logo
-		if (uri != null) {
-			ResourcesCompat.getDrawable(context.resources, R.mipmap.app_icon, context.theme)?.let {
-				ChannelLogoUtils.storeChannelLogo(
-					context,
-					ContentUris.parseId(uri),
-					it.toBitmap(80.dp(context), 80.dp(context))
-				)
-			}
+			// Store logo, it never changes so existing channels keep theirs
+			if (uri != null) storeChannelLogo(uri)
 		}
 
 		return uri
 	}
 
+	private fun storeChannelLogo(uri: Uri) {
+		ResourcesCompat.getDrawable(context.resources, R.mipmap.app_icon, context.theme)?.let {
+			ChannelLogoUtils.storeChannelLogo(
+				context,
+				ContentUris.parseId(uri),
+				it.toBitmap(80.dp(context), 80.dp(context))
+			)
+		}
+	}
+
 	/**
 	 * Updates the "my media" row with current media libraries.
 	 */
@@ -314,7 +392,8 @@ class LeanbackChannelWorker(
 		withContext(Dispatchers.IO) {
 			val resume = async {
 				api.itemsApi.getResumeItems(
-					fields = ItemRepository.itemFields,
+					fields = programFields,
+					enableImageTypes = programImageTypes,
 					imageTypeLimit = 1,
 					limit = 10,
 					mediaTypes = listOf(MediaType.VIDEO),
@@ -328,7 +407,8 @@ class LeanbackChannelWorker(
 					imageTypeLimit = 1,
 					limit = 10,
 					enableResumable = false,
-					fields = ItemRepository.itemFields,
+					fields = programFields,
+					enableImageTypes = programImageTypes,
 				).content.items
 			}
 
@@ -340,8 +420,10 @@ class LeanbackChannelWorker(
 		withContext(Dispatchers.IO) {
 			val latestEpisodes = async {
 				api.userLibraryApi.getLatestMedia(
-					fields = ItemRepository.itemFields,
-					limit = 50,
+					fields = programFields,
+					enableImageTypes = programImageTypes,
+					imageTypeLimit = 1,
+					limit = CHANNEL_LIMIT,
 					includeItemTypes = listOf(BaseItemKind.EPISODE),
 					isPlayed = false
 				).content
@@ -349,8 +431,10 @@ class LeanbackChannelWorker(
 
 			val latestMovies = async {
 				api.userLibraryApi.getLatestMedia(
-					fields = ItemRepository.itemFields,
-					limit = 50,
+					fields = programFields,
+					enableImageTypes = programImageTypes,
+					imageTypeLimit = 1,
+					limit = CHANNEL_LIMIT,
 					includeItemTypes = listOf(BaseItemKind.MOVIE),
 					isPlayed = false
 				).content
@@ -358,8 +442,10 @@ class LeanbackChannelWorker(
 
 			val latestMedia = async {
 				api.userLibraryApi.getLatestMedia(
-					fields = ItemRepository.itemFields,
-					limit = 50,
+					fields = programFields,
+					enableImageTypes = programImageTypes,
+					imageTypeLimit = 1,
+					limit = CHANNEL_LIMIT,
 					includeItemTypes = listOf(BaseItemKind.MOVIE, BaseItemKind.SERIES),
 					isPlayed = false
 				).content
@@ -375,8 +461,10 @@ class LeanbackChannelWorker(
 				api.itemsApi.getItems(
 					includeItemTypes = listOf(BaseItemKind.MOVIE),
 					recursive = true,
-					limit = 50,
-					fields = ItemRepository.itemFields
+					limit = CHANNEL_LIMIT,
+					fields = programFields,
+					enableImageTypes = programImageTypes,
+					imageTypeLimit = 1,
 				).content.items
 			} catch (e: Exception) {
 				Timber.e(e, "Error getting movies")
@@ -390,8 +478,10 @@ class LeanbackChannelWorker(
 				api.itemsApi.getItems(
 					includeItemTypes = listOf(BaseItemKind.BOX_SET),
 					recursive = true,
-					limit = 50,
-					fields = ItemRepository.itemFields
+					limit = CHANNEL_LIMIT,
+					fields = programFields,
+					enableImageTypes = programImageTypes,
+					imageTypeLimit = 1,
 				).content.items
 			} catch (e: Exception) {
 				Timber.e(e, "Error getting collections")
@@ -405,7 +495,10 @@ class LeanbackChannelWorker(
 				api.itemsApi.getItems(
 					includeItemTypes = listOf(BaseItemKind.SERIES),
 					recursive = true,
-					fields = ItemRepository.itemFields
+					limit = CHANNEL_LIMIT,
+					fields = programFields,
+					enableImageTypes = programImageTypes,
+					imageTypeLimit = 1,
 				).content.items
 			} catch (e: Exception) {
 				Timber.e(e, "Error getting shows")
@@ -417,6 +510,7 @@ class LeanbackChannelWorker(
 	private fun createPreviewProgram(
 		channelUri: Uri,
 		item: BaseItemDto,
+		weight: Int,
 		preferParentThumb: Boolean,
 		preferLauncherThumb: Boolean
 	): ContentValues {
@@ -432,6 +526,9 @@ class LeanbackChannelWorker(
 
 		return PreviewProgram.Builder()
 			.setChannelId(ContentUris.parseId(channelUri))
+			.setInternalProviderId(item.id.toString())
+			// Keeps the order of the row when only some programs are inserted
+			.setWeight(weight)
 			.setType(
 				when (item.type) {
 					BaseItemKind.SERIES -> WatchNextPrograms.TYPE_TV_SERIES
@@ -496,62 +593,128 @@ class LeanbackChannelWorker(
 			}.build().toContentValues()
 	}
 
+	/**
+	 * Update the programs of [channelUri] to [programs]. Only programs that were added, removed
+	 * or changed are written to the provider. Returns the poster art of the written programs.
+	 */
+	@SuppressLint("RestrictedApi")
+	private fun syncPreviewPrograms(channelUri: Uri, programs: List<ContentValues>): List<Uri> {
+		val channelId = ContentUris.parseId(channelUri)
+		val current = queryPrograms(TvContractCompat.buildPreviewProgramsUriForChannel(channelId), PreviewProgram.PROJECTION)
+			.groupBy { it.getAsString(TvContractCompat.PreviewPrograms.COLUMN_INTERNAL_PROVIDER_ID) }
+		val programIds = programs.mapTo(mutableSetOf()) { it.getAsString(TvContractCompat.PreviewPrograms.COLUMN_INTERNAL_PROVIDER_ID) }
+		val operations = ArrayList<ContentProviderOperation>()
+		val written = mutableListOf<ContentValues>()
+
+		// Delete programs no longer in the channel and duplicates
+		for ((providerId, rows) in current) {
+			val stale = if (providerId in programIds) rows.drop(1) else rows
+			stale.forEach { row ->
+				operations.add(ContentProviderOperation.newDelete(TvContractCompat.buildPreviewProgramUri(row.getAsLong(BaseColumns._ID))).build())
+			}
+		}
+
+		for (values in programs) {
+			val existing = current[values.getAsString(TvContractCompat.PreviewPrograms.COLUMN_INTERNAL_PROVIDER_ID)]?.first()
+
+			val operation = when {
+				existing == null -> ContentProviderOperation.newInsert(TvContractCompat.PreviewPrograms.CONTENT_URI)
+				!existing.matches(values) -> ContentProviderOperation.newUpdate(TvContractCompat.buildPreviewProgramUri(existing.getAsLong(BaseColumns._ID)))
+				else -> continue
+			}
+
+			operations.add(operation.withValues(values).build())
+			written.add(values)
+		}
+
+		applyOperations(operations)
+		return written.mapNotNull { it.getAsString(TvContractCompat.PreviewPrograms.COLUMN_POSTER_ART_URI)?.toUri() }
+	}
+
 	/**
 	 * Updates the "watch next" row with new and unfinished episodes. Does not include movies, music
 	 * or other types of media. Uses the [nextUpItems] parameter to store items returned by a
 	 * NextUpQuery().
+	 *
+	 * Stale programs are deleted and programs that don't need to be touched are kept as is, so they
+	 * keep their ordering in the watch next row. Continue watching programs are updated when their
+	 * playback position changed. Returns the poster art of the written programs.
 	 */
 	@SuppressLint("RestrictedApi")
-	private fun updateWatchNext(nextUpItems: List<BaseItemDto>, preferLauncherThumb: Boolean) {
-		deletePrograms(nextUpItems)
-
-		// Get current watch next state
-		val currentWatchNextPrograms = getCurrentWatchNext()
-
-		// Create all programs in nextUpItems but not in watch next
-		val programsToAdd = nextUpItems
-			.filter { next -> currentWatchNextPrograms.none { it.internalProviderId == next.id.toString() } }
-		context.contentResolver.bulkInsert(
-			WatchNextPrograms.CONTENT_URI,
-			programsToAdd.map { item -> getBaseItemAsWatchNextProgram(item, preferLauncherThumb).toContentValues() }
-				.toTypedArray())
+	private fun updateWatchNext(nextUpItems: List<BaseItemDto>, preferLauncherThumb: Boolean): List<Uri> {
+		val items = nextUpItems.distinctBy { it.id }
+		val itemIds = items.mapTo(mutableSetOf()) { it.id.toString() }
+		val operations = ArrayList<ContentProviderOperation>()
+		val written = mutableListOf<ContentValues>()
+
+		// Find all stale programs to delete, programs removed by the user are added again when still up next
+		val (stale, kept) = queryPrograms(WatchNextPrograms.CONTENT_URI, WatchNextProgram.PROJECTION).partition { row ->
+			row.getAsInteger(WatchNextPrograms.COLUMN_BROWSABLE) == 0 ||
+				row.getAsString(WatchNextPrograms.COLUMN_INTERNAL_PROVIDER_ID) !in itemIds
+		}
+		val current = kept.groupBy { it.getAsString(WatchNextPrograms.COLUMN_INTERNAL_PROVIDER_ID) }
+		val duplicates = current.values.flatMap { it.drop(1) }
+
+		(stale + duplicates).forEach { row ->
+			operations.add(ContentProviderOperation.newDelete(TvContractCompat.buildWatchNextProgramUri(row.getAsLong(BaseColumns._ID))).build())
+		}
+
+		for (item in items) {
+			val existing = current[item.id.toString()]?.first()
+			val values = getBaseItemAsWatchNextProgram(item, preferLauncherThumb).toContentValues()
+
+			val operation = when {
+				existing == null -> ContentProviderOperation.newInsert(WatchNextPrograms.CONTENT_URI)
+				(existing.isContinueWatching || values.isContinueWatching) && !existing.matches(values) ->
+					ContentProviderOperation.newUpdate(TvContractCompat.buildWatchNextProgramUri(existing.getAsLong(BaseColumns._ID)))
+				else -> continue
+			}
+
+			operations.add(operation.withValues(values).build())
+			written.add(values)
+		}
+
+		applyOperations(operations)
+		return written.mapNotNull { it.getAsString(TvContractCompat.PreviewPrograms.COLUMN_POSTER_ART_URI)?.toUri() }
 	}
 
+	private val ContentValues.isContinueWatching
+		get() = getAsInteger(WatchNextPrograms.COLUMN_WATCH_NEXT_TYPE) == WatchNextPrograms.WATCH_NEXT_TYPE_CONTINUE
+
 	/**
-	 * Delete stale programs from the watch next row. Items that don't need to be touched are
-	 * kept as is, so they keep their ordering in the watch next row.
+	 * Check if all columns in [values] have the same value in this row. Rows read from the
+	 * provider contain every column as string.
 	 */
-	@SuppressLint("RestrictedApi")
-	private fun deletePrograms(nextUpItems: List<BaseItemDto>) {
-		// Retrieve current watch next row
-		val currentWatchNextPrograms = getCurrentWatchNext()
-
-		// Find all stale programs to delete
-		val deletedByUser = currentWatchNextPrograms.filter { !it.isBrowsable }
-		val noLongerInWatchNext =
-			currentWatchNextPrograms.filter { (nextUpItems).none { next -> it.internalProviderId == next.id.toString() } }
-		val continueWatching = currentWatchNextPrograms.filter { it.watchNextType == WatchNextPrograms.WATCH_NEXT_TYPE_CONTINUE }
-
-		// Delete the programs
-		(deletedByUser + noLongerInWatchNext + continueWatching)
-			.forEach { context.contentResolver.delete(TvContractCompat.buildWatchNextProgramUri(it.id), null, null) }
+	private fun ContentValues.matches(values: ContentValues) = values.keySet().all { key ->
+		getAsString(key) == values.getAsString(key)
 	}
 
 	/**
-	 * Retrieves the current watch next row state.
+	 * Retrieves the rows of [uri] with the columns in [projection].
 	 */
-	@SuppressLint("RestrictedApi")
-	private fun getCurrentWatchNext(): MutableList<WatchNextProgram> {
-		val currentWatchNextPrograms: MutableList<WatchNextProgram> = mutableListOf()
-		context.contentResolver.query(WatchNextPrograms.CONTENT_URI, WatchNextProgram.PROJECTION, null, null, null)
-			.use { cursor ->
-				if (cursor != null && cursor.moveToFirst()) {
-					do {
-						currentWatchNextPrograms.add(WatchNextProgram.fromCursor(cursor))
-					} while (cursor.moveToNext())
-				}
+	private fun queryPrograms(uri: Uri, projection: Array<String>): List<ContentValues> {
+		val rows = mutableListOf<ContentValues>()
+		context.contentResolver.query(uri, projection, null, null, null)?.use { cursor ->
+			while (cursor.moveToNext()) {
+				rows.add(ContentValues().also { DatabaseUtils.cursorRowToContentValues(cursor, it) })
 			}
-		return currentWatchNextPrograms
+		}
+		return rows
+	}
+
+	/**
+	 * Apply [operations] to the tv provider in a single transaction.
+	 */
+	private fun applyOperations(operations: ArrayList<ContentProviderOperation>) {
+		if (operations.isEmpty()) return
+
+		try {
+			context.contentResolver.applyBatch(TvContractCompat.AUTHORITY, operations)
+		} catch (err: OperationApplicationException) {
+			Timber.e(err, "Unable to update launcher programs")
+		} catch (err: RemoteException) {
+			Timber.e(err, "Unable to update launcher programs")
+		}
 	}
 
 	/**
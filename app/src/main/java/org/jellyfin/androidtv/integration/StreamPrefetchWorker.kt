@@ -0,0 +1,149 @@
+package org.jellyfin.androidtv.integration
+
+import android.app.ActivityManager
+import android.content.Context
+import androidx.core.content.getSystemService
+import androidx.work.Constraints
+import androidx.work.CoroutineWorker
+import androidx.work.ExistingWorkPolicy
+import androidx.work.NetworkType
+import androidx.work.OneTimeWorkRequestBuilder
+import androidx.work.WorkManager
+import androidx.work.WorkerParameters
+import kotlinx.coroutines.Dispatchers
+import kotlinx.coroutines.async
+import kotlinx.coroutines.coroutineScope
+import kotlinx.coroutines.withContext
+import org.jellyfin.androidtv.preference.UserPreferences
+import org.jellyfin.androidtv.preference.constant.StreamCacheDuration
+import org.jellyfin.androidtv.ui.itemdetail.StreamScraperHelper
+import org.jellyfin.androidtv.util.DeviceMemoryUtils
+import org.jellyfin.androidtv.util.sdk.isUsable
+import org.jellyfin.sdk.api.client.ApiClient
+import org.jellyfin.sdk.api.client.exception.ApiClientException
+import org.jellyfin.sdk.api.client.extensions.itemsApi
+import org.jellyfin.sdk.api.client.extensions.tvShowsApi
+import org.jellyfin.sdk.model.api.BaseItemDto
+import org.jellyfin.sdk.model.api.BaseItemKind
+import org.jellyfin.sdk.model.api.ItemFields
+import org.jellyfin.sdk.model.api.MediaType
+import org.koin.core.component.KoinComponent
+import org.koin.core.component.inject
+import timber.log.Timber
+import java.util.concurrent.TimeUnit
+
+/**
+ * Resolves scraper results for the first Continue Watching and Next Up items and stores them in
+ * the stream cache, so opening the stream selection for those items does not wait on the
+ * providers. Only runs on unmetered networks and is skipped on low memory devices.
+ */
+class StreamPrefetchWorker(
+	context: Context,
+	workerParams: WorkerParameters,
+) : CoroutineWorker(context, workerParams), KoinComponent {
+	companion object {
+		const val REQUEST_NAME = "StreamPrefetchRequest"
+
+		/**
+		 * Amount of items to prefetch, resume items first.
+		 */
+		private const val MAX_ITEMS = 5
+
+		/**
+		 * Delay before prefetching so the home screen can load first.
+		 */
+		private const val INITIAL_DELAY_SECONDS = 15L
+
+		/**
+		 * Enqueue a prefetch unless one is already pending.
+		 */
+		fun enqueue(workManager: WorkManager) {
+			workManager.enqueueUniqueWork(
+				REQUEST_NAME,
+				ExistingWorkPolicy.KEEP,
+				OneTimeWorkRequestBuilder<StreamPrefetchWorker>()
+					.setConstraints(
+						Constraints.Builder()
+							.setRequiredNetworkType(NetworkType.UNMETERED)
+							.setRequiresStorageNotLow(true)
+							.build()
+					)
+					.setInitialDelay(INITIAL_DELAY_SECONDS, TimeUnit.SECONDS)
+					.build()
+			)
+		}
+	}
+
+	private val api by inject<ApiClient>()
+	private val userPreferences by inject<UserPreferences>()
+
+	private val isLowMemory: Boolean
+		get() {
+			if (DeviceMemoryUtils.isLowEndDevice(applicationContext)) return true
+
+			val activityManager = applicationContext.getSystemService<ActivityManager>() ?: return false
+			val memoryInfo = ActivityManager.MemoryInfo()
+			activityManager.getMemoryInfo(memoryInfo)
+			return activityManager.isLowRamDevice || memoryInfo.lowMemory
+		}
+
+	override suspend fun doWork(): Result = when {
+		// Prefetching only makes sense when results are cached
+		!userPreferences[UserPreferences.streamPrefetchEnabled] -> Result.success()
+		userPreferences[UserPreferences.streamCacheDuration] == StreamCacheDuration.DISABLED -> Result.success()
+		// Leave the memory to the foreground app
+		isLowMemory -> {
+			Timber.d("[StreamPrefetchWorker] Skipping prefetch on low memory device")
+			Result.success()
+		}
+		// Nothing to prefetch without an authenticated user
+		!api.isUsable -> Result.success()
+		else -> try {
+			val items = getItems()
+			Timber.d("[StreamPrefetchWorker] Prefetching streams for ${items.size} items")
+
+			coroutineScope {
+				val helper = StreamScraperHelper(userPreferences, this, api)
+				// One item at a time, this work is not time critical
+				for (item in items) {
+					val count = helper.prefetch(item)
+					Timber.d("[StreamPrefetchWorker] Cached $count streams for ${item.name}")
+				}
+			}
+
+			Result.success()
+		} catch (err: ApiClientException) {
+			Timber.e(err, "[StreamPrefetchWorker] Unable to retrieve items")
+			Result.retry()
+		}
+	}
+
+	private suspend fun getItems(): List<BaseItemDto> = withContext(Dispatchers.IO) {
+		val fields = listOf(ItemFields.PROVIDER_IDS)
+
+		val resume = async {
+			api.itemsApi.getResumeItems(
+				fields = fields,
+				limit = MAX_ITEMS,
+				mediaTypes = listOf(MediaType.VIDEO),
+				includeItemTypes = listOf(BaseItemKind.EPISODE, BaseItemKind.MOVIE),
+				enableImages = false,
+				enableTotalRecordCount = false,
+			).content.items
+		}
+
+		val nextUp = async {
+			api.tvShowsApi.getNextUp(
+				fields = fields,
+				limit = MAX_ITEMS,
+				enableResumable = false,
+				enableImages = false,
+				enableTotalRecordCount = false,
+			).content.items
+		}
+
+		(resume.await() + nextUp.await())
+			.distinctBy { it.id }
+			.take(MAX_ITEMS)
+	}
+}
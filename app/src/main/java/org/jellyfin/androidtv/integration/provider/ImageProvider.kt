@@ -2,24 +2,22 @@ package org.jellyfin.androidtv.integration.provider
 
 import android.content.ContentProvider
 import android.content.ContentValues
-import android.graphics.Bitmap
-import android.graphics.drawable.Drawable
 import android.net.Uri
-import android.os.Build
 import android.os.ParcelFileDescriptor
-import androidx.core.graphics.drawable.toBitmap
-import androidx.core.net.toUri
-import coil3.ImageLoader
-import coil3.asDrawable
-import coil3.request.ImageRequest
-import coil3.request.error
+import androidx.core.content.ContextCompat
+import kotlinx.coroutines.CoroutineScope
+import kotlinx.coroutines.Dispatchers
+import kotlinx.coroutines.SupervisorJob
+import kotlinx.coroutines.launch
 import org.jellyfin.androidtv.BuildConfig
 import org.jellyfin.androidtv.R
 import org.koin.android.ext.android.inject
+import java.io.FileNotFoundException
 import java.io.IOException
 
 class ImageProvider : ContentProvider() {
-	private val imageLoader by inject<ImageLoader>()
+	private val imageProviderCache by inject<ImageProviderCache>()
+	private val scope = CoroutineScope(Dispatchers.IO + SupervisorJob())
 
 	override fun onCreate(): Boolean = true
 
@@ -30,45 +28,41 @@ class ImageProvider : ContentProvider() {
 	override fun delete(uri: Uri, selection: String?, selectionArgs: Array<out String>?) = 0
 
 	override fun openFile(uri: Uri, mode: String): ParcelFileDescriptor? {
-		val src = requireNotNull(uri.getQueryParameter("src")).toUri()
+		val src = requireNotNull(uri.getQueryParameter("src"))
+
+		// Serve cached images directly from disk
+		imageProviderCache.getCachedFile(src)?.let { file ->
+			try {
+				return ParcelFileDescriptor.open(file, ParcelFileDescriptor.MODE_READ_ONLY)
+			} catch (_: FileNotFoundException) {
+				// Removed from the cache in the meantime, load it again
+			}
+		}
 
 		val (read, write) = ParcelFileDescriptor.createPipe()
 		val outputStream = ParcelFileDescriptor.AutoCloseOutputStream(write)
 
-		imageLoader.enqueue(ImageRequest.Builder(context!!).apply {
-			data(src)
-			error(R.drawable.placeholder_icon)
-			target(
-				onSuccess = { image -> writeDrawable(image.asDrawable(context!!.resources), outputStream) },
-				onError = { image -> writeDrawable(requireNotNull(image?.asDrawable(context!!.resources)), outputStream) }
-			)
-		}.build())
+		scope.launch {
+			val file = imageProviderCache.getFile(src)
 
-		return read
-	}
+			try {
+				outputStream.use {
+					if (file != null) file.inputStream().use { input -> input.copyTo(outputStream) }
+					else ContextCompat.getDrawable(context!!, R.drawable.placeholder_icon)?.let { drawable ->
+						imageProviderCache.encode(drawable, outputStream)
+					}
+				}
+			} catch (_: IOException) {
+				// Ignore IOException as this is commonly thrown when the load request is cancelled
+			}
 
-	private fun writeDrawable(
-		drawable: Drawable,
-		outputStream: ParcelFileDescriptor.AutoCloseOutputStream
-	) {
-		@Suppress("DEPRECATION")
-		val format = when {
-			Build.VERSION.SDK_INT >= Build.VERSION_CODES.R -> Bitmap.CompressFormat.WEBP_LOSSY
-			else -> Bitmap.CompressFormat.WEBP
+			imageProviderCache.trim()
 		}
 
-		try {
-			outputStream.use {
-				drawable.toBitmap().compress(format, COMPRESSION_QUALITY, outputStream)
-			}
-		} catch (_: IOException) {
-			// Ignore IOException as this is commonly thrown when the load request is cancelled
-		}
+		return read
 	}
 
 	companion object {
-		private const val COMPRESSION_QUALITY = 95
-
 		/**
 		 * Get a [Uri] that uses the [ImageProvider] to load an image. The input should be a valid
 		 * Jellyfin image URL created using the SDK.
@@ -0,0 +1,162 @@
+package org.jellyfin.androidtv.integration.provider
+
+import android.content.Context
+import android.graphics.Bitmap
+import android.graphics.drawable.Drawable
+import android.net.Uri
+import android.os.Build
+import androidx.core.graphics.drawable.toBitmap
+import coil3.ImageLoader
+import coil3.asDrawable
+import coil3.request.ImageRequest
+import coil3.request.SuccessResult
+import kotlinx.coroutines.CoroutineScope
+import kotlinx.coroutines.CoroutineStart
+import kotlinx.coroutines.Deferred
+import kotlinx.coroutines.Dispatchers
+import kotlinx.coroutines.SupervisorJob
+import kotlinx.coroutines.async
+import kotlinx.coroutines.sync.Semaphore
+import kotlinx.coroutines.sync.withPermit
+import kotlinx.coroutines.withContext
+import timber.log.Timber
+import java.io.File
+import java.io.IOException
+import java.io.OutputStream
+import java.security.MessageDigest
+
+/**
+ * Disk cache of encoded launcher images for the [ImageProvider].
+ *
+ * Images are stored at launcher size and keyed by their source url and size. Cached images are
+ * served as is, a launcher request for a cached image does not decode or encode anything.
+ */
+class ImageProviderCache(
+	private val context: Context,
+	private val imageLoader: ImageLoader,
+) {
+	companion object {
+		/**
+		 * Maximum width and height of an image, launcher cards are never larger.
+		 */
+		const val IMAGE_SIZE = 720
+
+		private const val COMPRESSION_QUALITY = 95
+		private const val MAX_CACHE_SIZE = 64L * 1024 * 1024
+		private const val MAX_CONCURRENT_LOADS = 3
+	}
+
+	private val directory = File(context.cacheDir, "launcher_images")
+	private val loads = Semaphore(MAX_CONCURRENT_LOADS)
+	private val scope = CoroutineScope(Dispatchers.IO + SupervisorJob())
+	private val inFlight = mutableMapOf<String, Deferred<File?>>()
+
+	@Suppress("DEPRECATION")
+	private val format = when {
+		Build.VERSION.SDK_INT >= Build.VERSION_CODES.R -> Bitmap.CompressFormat.WEBP_LOSSY
+		else -> Bitmap.CompressFormat.WEBP
+	}
+
+	private fun fileOf(src: String): File {
+		val digest = MessageDigest.getInstance("SHA-256").digest("$src@$IMAGE_SIZE".toByteArray())
+		return File(directory, digest.joinToString("") { "%02x".format(it) })
+	}
+
+	/**
+	 * Get the cached image for [src] without loading it.
+	 */
+	fun getCachedFile(src: String): File? {
+		val file = fileOf(src)
+		if (!file.exists()) return null
+
+		// Used as access time when trimming the cache
+		file.setLastModified(System.currentTimeMillis())
+		return file
+	}
+
+	/**
+	 * Get the cached image for [src], loading and encoding it when missing. Returns null when the
+	 * image could not be loaded.
+	 */
+	suspend fun getFile(src: String): File? {
+		getCachedFile(src)?.let { return it }
+
+		// Concurrent requests for the same image share a single load
+		val load = synchronized(inFlight) {
+			inFlight.getOrPut(src) {
+				scope.async(start = CoroutineStart.LAZY) {
+					try {
+						load(src)
+					} finally {
+						synchronized(inFlight) { inFlight.remove(src) }
+					}
+				}
+			}
+		}
+
+		return load.await()
+	}
+
+	private suspend fun load(src: String): File? {
+		return loads.withPermit {
+			// Another request might have stored the image while waiting
+			getCachedFile(src)?.let { return@withPermit it }
+
+			val result = imageLoader.execute(ImageRequest.Builder(context).apply {
+				data(src)
+				size(IMAGE_SIZE)
+			}.build())
+			if (result !is SuccessResult) return@withPermit null
+
+			withContext(Dispatchers.IO) {
+				store(src, result.image.asDrawable(context.resources))
+			}
+		}
+	}
+
+	/**
+	 * Store the images of the [ImageProvider] uris in [uris] so they are cached before the launcher
+	 * requests them.
+	 */
+	suspend fun prefetch(uris: Collection<Uri>) {
+		val sources = uris.mapNotNullTo(mutableSetOf()) { it.getQueryParameter("src") }
+		val missing = sources.filter { fileOf(it).exists().not() }
+		if (missing.isEmpty()) return
+
+		Timber.d("Prefetching ${missing.size} launcher images")
+		missing.forEach { getFile(it) }
+		withContext(Dispatchers.IO) { trim() }
+	}
+
+	fun encode(drawable: Drawable, outputStream: OutputStream) {
+		drawable.toBitmap().compress(format, COMPRESSION_QUALITY, outputStream)
+	}
+
+	private fun store(src: String, drawable: Drawable): File? = try {
+		directory.mkdirs()
+		// Write to a temporary file first so a partial image is never served
+		val file = fileOf(src)
+		val tmp = File.createTempFile(file.name, ".tmp", directory)
+		tmp.outputStream().use { encode(drawable, it) }
+		if (tmp.renameTo(file)) file else {
+			tmp.delete()
+			null
+		}
+	} catch (err: IOException) {
+		Timber.w(err, "Unable to store launcher image")
+		null
+	}
+
+	/**
+	 * Remove the least recently used images until the cache fits in [MAX_CACHE_SIZE]. Images that
+	 * are still being written are skipped.
+	 */
+	fun trim() {
+		val files = directory.listFiles { file -> !file.name.endsWith(".tmp") }?.sortedByDescending { it.lastModified() } ?: return
+		var size = 0L
+		for (file in files) {
+			size += file.length()
+			if (size > MAX_CACHE_SIZE) file.delete()
+		}
+	}
+}
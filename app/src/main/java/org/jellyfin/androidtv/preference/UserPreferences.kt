@@ -14,6 +14,7 @@ import org.jellyfin.androidtv.preference.constant.NextUpBehavior
 import org.jellyfin.androidtv.preference.constant.RatingType
 import org.jellyfin.androidtv.preference.constant.RefreshRateSwitchingBehavior
 import org.jellyfin.androidtv.preference.constant.StreamSortBy
+import org.jellyfin.androidtv.preference.constant.StreamCacheDuration
 import org.jellyfin.androidtv.preference.constant.StreamMinSizeMovies
 import org.jellyfin.androidtv.preference.constant.StreamMaxSizeMovies
 import org.jellyfin.androidtv.preference.constant.StreamMinSizeEpisodes
@@ -106,6 +107,11 @@ class UserPreferences(context: Context) : SharedPreferenceStore(
 		 */
 		var maxBitrate = stringPreference("pref_max_bitrate", "200")
 
+		/**
+		 * Size of the media disk cache in megabytes, 0 to disable the cache.
+		 */
+		var mediaCacheSize = stringPreference("pref_media_cache_size", "0")
+
 		/**
 		 * Auto-play next item
 		 */
@@ -437,6 +443,26 @@ class UserPreferences(context: Context) : SharedPreferenceStore(
 		 */
 		var streamRemoveDuplicates = booleanPreference("stream_remove_duplicates", true)
 
+		/**
+		 * Maximum amount of streams to read from a single provider response, 0 for no limit
+		 */
+		var streamMaxResults = intPreference("stream_max_results", 0)
+
+		/**
+		 * How long scraper results are considered fresh before they are fetched again
+		 */
+		var streamCacheDuration = enumPreference("stream_cache_duration", StreamCacheDuration.HOUR_1)
+
+		/**
+		 * Show expired scraper results immediately while fresh results are fetched in the background
+		 */
+		var streamCacheStaleWhileRevalidate = booleanPreference("stream_cache_stale_while_revalidate", true)
+
+		/**
+		 * Fetch streams for the upcoming Next Up and Continue Watching items in the background
+		 */
+		var streamPrefetchEnabled = booleanPreference("stream_prefetch_enabled", true)
+
 		/* Anime Library Setup */
 		/**
 		 * Enable anime endpoint searching (uses both anime and series endpoints for anime content)
@@ -0,0 +1,18 @@
+package org.jellyfin.androidtv.preference.constant
+
+import org.jellyfin.androidtv.R
+import org.jellyfin.preference.PreferenceEnum
+import kotlin.time.Duration
+import kotlin.time.Duration.Companion.hours
+import kotlin.time.Duration.Companion.minutes
+
+enum class StreamCacheDuration(
+    override val nameRes: Int,
+    val duration: Duration
+) : PreferenceEnum {
+    DISABLED(R.string.pref_stream_cache_disabled, Duration.ZERO),
+    MINUTES_15(R.string.pref_stream_cache_15_minutes, 15.minutes),
+    HOUR_1(R.string.pref_stream_cache_1_hour, 1.hours),
+    HOURS_6(R.string.pref_stream_cache_6_hours, 6.hours),
+    HOURS_24(R.string.pref_stream_cache_24_hours, 24.hours),
+}
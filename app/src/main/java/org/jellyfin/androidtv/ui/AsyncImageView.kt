@@ -226,13 +226,14 @@ class AsyncImageView @JvmOverloads constructor(
 	}
 
 	/**
-	 * Load a single BlurHash with specified resolution
+	 * Load a single BlurHash with specified resolution. Decoded placeholders are cached by
+	 * [BlurHashDecoder] so cards sharing a hash only decode once.
 	 */
 	private suspend fun loadSingleBlurHash(
 		blurHash: String,
 		aspectRatio: Double,
 		resolution: Int
-	): Drawable? = withContext(Dispatchers.IO) {
+	): Drawable? = withContext(Dispatchers.Default) {
 		try {
 			val blurHashBitmap = BlurHashDecoder.decode(
 				blurHash,
@@ -247,26 +248,16 @@ class AsyncImageView @JvmOverloads constructor(
 	}
 
 	/**
-	 * Load progressive BlurHash with multiple resolutions
+	 * Load progressive BlurHash. Only the final resolution is shown, so the lower resolutions are
+	 * only decoded when the final one fails.
 	 */
 	private suspend fun loadProgressiveBlurHash(
 		blurHash: String,
 		aspectRatio: Double,
 		resolution: Int
-	): Drawable? = withContext(Dispatchers.IO) {
-		try {
-			// Load multiple resolutions for progressive effect
-			val lowRes = loadSingleBlurHash(blurHash, aspectRatio, 8)
-			val mediumRes = loadSingleBlurHash(blurHash, aspectRatio, 16)
-			val highRes = loadSingleBlurHash(blurHash, aspectRatio, resolution)
-
-			// Return the highest resolution available
-			highRes ?: mediumRes ?: lowRes
-		} catch (e: Exception) {
-			Timber.w(e, "Failed to load progressive BlurHash")
-			null
-		}
-	}
+	): Drawable? = loadSingleBlurHash(blurHash, aspectRatio, resolution)
+		?: loadSingleBlurHash(blurHash, aspectRatio, 16)
+		?: loadSingleBlurHash(blurHash, aspectRatio, 8)
 
 	/**
 	 * Load placeholder image
@@ -320,7 +311,11 @@ class AsyncImageView @JvmOverloads constructor(
 			// Apply optimizations
 			applyQualityOptimizations()
 			applyNetworkOptimizations(context)
-			applySmartSizing(context)
+			// Cards have a fixed size, request exactly that so prefetched images are reused
+			val fixedWidth = layoutParams?.width ?: 0
+			val fixedHeight = layoutParams?.height ?: 0
+			if (fixedWidth > 0 && fixedHeight > 0) size(fixedWidth, fixedHeight)
+			else applySmartSizing(context)
 			applySmartCaching(context)
 			applyPerformanceMonitoring()
 
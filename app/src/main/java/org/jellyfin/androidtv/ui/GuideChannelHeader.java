@@ -20,6 +20,8 @@ import org.jellyfin.sdk.model.api.BaseItemDto;
 import org.koin.java.KoinJavaComponent;
 
 public class GuideChannelHeader extends RelativeLayout {
+    private TextView mChannelName;
+    private TextView mChannelNumber;
     private AsyncImageView mChannelImage;
     private ImageView mFavImage;
     private BaseItemDto mChannel;
@@ -27,13 +29,16 @@ public class GuideChannelHeader extends RelativeLayout {
     private LiveTvGuide mTvGuide;
 
     public GuideChannelHeader(Context context, LiveTvGuide tvGuide, BaseItemDto channel) {
-        super(context);
-        initComponent(context, tvGuide, channel);
+        this(context, tvGuide);
+        setChannel(channel);
     }
 
-    private void initComponent(Context context, LiveTvGuide tvGuide, BaseItemDto channel) {
+    /**
+     * Create an unbound header, used by the guide to recycle headers with {@link #setChannel(BaseItemDto)}.
+     */
+    public GuideChannelHeader(Context context, LiveTvGuide tvGuide) {
+        super(context);
         mContext = context;
-        mChannel = channel;
         mTvGuide = tvGuide;
         LayoutInflater inflater = LayoutInflater.from(context);
         View v = inflater.inflate(R.layout.channel_header, this, false);
@@ -44,13 +49,10 @@ public class GuideChannelHeader extends RelativeLayout {
         ));
         this.addView(v);
         this.setFocusable(true);
-        ((TextView) findViewById(R.id.channelName)).setText(channel.getName());
-        ((TextView) findViewById(R.id.channelNumber)).setText(channel.getNumber());
+        mChannelName = findViewById(R.id.channelName);
+        mChannelNumber = findViewById(R.id.channelNumber);
         mChannelImage = findViewById(R.id.channelImage);
         mFavImage = findViewById(R.id.favImage);
-
-        if (mChannel.getUserData() != null && mChannel.getUserData().isFavorite())
-            mFavImage.setVisibility(View.VISIBLE);
     }
 
     public void loadImage() {
@@ -65,7 +67,12 @@ public class GuideChannelHeader extends RelativeLayout {
     }
 
     public BaseItemDto getChannel() { return mChannel; }
-    public void setChannel(BaseItemDto channel) { mChannel = channel; }
+    public void setChannel(BaseItemDto channel) {
+        mChannel = channel;
+        mChannelName.setText(channel.getName());
+        mChannelNumber.setText(channel.getNumber());
+        refreshFavorite();
+    }
 
     public void refreshFavorite() {
         if (mChannel.getUserData() != null && mChannel.getUserData().isFavorite())
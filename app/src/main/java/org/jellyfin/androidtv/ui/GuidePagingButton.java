@@ -13,24 +13,37 @@ import org.jellyfin.androidtv.ui.livetv.LiveTvGuideFragment;
 import org.jellyfin.androidtv.util.Utils;
 
 public class GuidePagingButton extends RelativeLayout {
+    private ProgramGridCellBinding binding;
 
     public GuidePagingButton(Context context) {
         super(context);
+        initComponent(context);
     }
 
     public GuidePagingButton(Context context, AttributeSet attrs) {
         super(context, attrs);
+        initComponent(context);
     }
 
     public GuidePagingButton(Context context, final LiveTvGuide guide, int start, String label) {
         super(context);
+        initComponent(context);
+        setPage(guide, start, label);
+    }
 
+    private void initComponent(Context context) {
         LayoutInflater inflater = LayoutInflater.from(context);
-        ProgramGridCellBinding binding = ProgramGridCellBinding.inflate(inflater, this, true);
-        binding.programName.setText(label);
+        binding = ProgramGridCellBinding.inflate(inflater, this, true);
 
         setBackgroundColor(Utils.getThemeColor(context, R.attr.buttonDefaultNormalBackground));
         setFocusable(true);
+    }
+
+    /**
+     * Point this button to the page of channels starting at {@code start}.
+     */
+    public void setPage(final LiveTvGuide guide, int start, String label) {
+        binding.programName.setText(label);
         setOnClickListener(v -> guide.displayChannels(start, LiveTvGuideFragment.PAGE_SIZE));
     }
 
@@ -2,7 +2,6 @@ package org.jellyfin.androidtv.ui;
 
 import static org.koin.java.KoinJavaComponent.get;
 
-import android.app.Activity;
 import android.content.Context;
 import android.graphics.Color;
 import android.graphics.Rect;
@@ -14,6 +13,8 @@ import android.widget.LinearLayout;
 import android.widget.RelativeLayout;
 import android.widget.TextView;
 
+import androidx.annotation.Nullable;
+
 import org.jellyfin.androidtv.R;
 import org.jellyfin.androidtv.preference.LiveTvPreferences;
 import org.jellyfin.androidtv.ui.livetv.LiveTvGuide;
@@ -30,17 +31,32 @@ public class ProgramGridCell extends RelativeLayout implements RecordingIndicato
     private TextView mProgramName;
     private LinearLayout mInfoRow;
     private BaseItemDto mProgram;
+    @Nullable
+    private OnProgramChangedListener programChangedListener;
     private ImageView mRecIndicator;
     private int mBackgroundColor = 0;
     private boolean isLast;
     private boolean isFirst;
 
     public ProgramGridCell(Context context, LiveTvGuide activity, BaseItemDto program, boolean keyListen) {
-        super(context);
-        initComponent((Activity) context, activity, program, keyListen);
+        this(context, activity);
+        setProgram(program);
+
+        if (keyListen) {
+            setOnClickListener(new OnClickListener() {
+                @Override
+                public void onClick(View v) {
+                    mActivity.showProgramOptions();
+                }
+            });
+        }
     }
 
-    private void initComponent(Activity context, LiveTvGuide activity, BaseItemDto program, boolean keyListen) {
+    /**
+     * Create an unbound cell, used by the guide to recycle cells with {@link #setProgram(BaseItemDto)}.
+     */
+    public ProgramGridCell(Context context, LiveTvGuide activity) {
+        super(context);
         mActivity = activity;
 
         LayoutInflater inflater = LayoutInflater.from(context);
@@ -51,15 +67,30 @@ public class ProgramGridCell extends RelativeLayout implements RecordingIndicato
 
         mProgramName = findViewById(R.id.programName);
         mInfoRow = findViewById(R.id.infoRow);
-        mProgramName.setText(program.getName());
-        mProgram = program;
         mRecIndicator = findViewById(R.id.recIndicator);
+    }
+
+    /**
+     * Bind {@code program} to this cell, resetting everything set for a previous program.
+     */
+    public void setProgram(BaseItemDto program) {
+        Context context = getContext();
+
+        mProgram = program;
+        isFirst = false;
+        isLast = false;
+        mProgramName.setText(program.getName());
+        mInfoRow.removeAllViews();
+        mRecIndicator.setImageResource(R.drawable.blank10x10);
 
+        mBackgroundColor = 0;
+        if (hasFocus()) setBackgroundResource(R.drawable.channel_guide_focused_background);
+        else setBackground(null);
         setCellBackground();
 
         if (program.getStartDate() != null && program.getEndDate() != null) {
             LocalDateTime localStart = program.getStartDate();
-            if (localStart.plusMinutes(1).isBefore(activity.getCurrentLocalStartDate())) {
+            if (localStart.plusMinutes(1).isBefore(mActivity.getCurrentLocalStartDate())) {
                 mProgramName.setText("<< "+mProgramName.getText());
                 TextView time = new TextView(context);
                 time.setTypeface(Typeface.create("sans-serif-light", Typeface.NORMAL));
@@ -96,17 +127,6 @@ public class ProgramGridCell extends RelativeLayout implements RecordingIndicato
         } else if (program.getTimerId() != null) {
             mRecIndicator.setImageResource(R.drawable.ic_record_red);
         }
-
-
-        if (keyListen) {
-            setOnClickListener(new OnClickListener() {
-                @Override
-                public void onClick(View v) {
-                    mActivity.showProgramOptions();
-                }
-            });
-        }
-
     }
 
     private void addBlockText(String text, float size, int textColor, int backgroundRes) {
@@ -135,7 +155,7 @@ public class ProgramGridCell extends RelativeLayout implements RecordingIndicato
                 mBackgroundColor = getResources().getColor(R.color.guide_kids_bg);
             }
 
-            setBackgroundColor(mBackgroundColor);
+            if (!hasFocus()) setBackgroundColor(mBackgroundColor);
         }
     }
 
@@ -158,14 +178,27 @@ public class ProgramGridCell extends RelativeLayout implements RecordingIndicato
     public void setFirst() { isFirst = true; }
     public boolean isFirst() { return isFirst; }
 
+    /**
+     * Listen for changes to the program made by this cell, like a created or cancelled recording.
+     */
+    public void setOnProgramChangedListener(@Nullable OnProgramChangedListener listener) {
+        programChangedListener = listener;
+    }
+
     public void setRecTimer(String id) {
         if (mProgram == null) return;
         mProgram = LiveProgramDetailPopupHelperKt.copyWithTimerId(mProgram, id);
         mRecIndicator.setImageResource(id != null ? (mProgram.getSeriesTimerId() != null ? R.drawable.ic_record_series_red : R.drawable.ic_record_red) : mProgram.getSeriesTimerId() != null ? R.drawable.ic_record_series : R.drawable.blank10x10);
+        if (programChangedListener != null) programChangedListener.onProgramChanged(mProgram);
     }
     public void setRecSeriesTimer(String id) {
         if (mProgram == null) return;
         mProgram = LiveProgramDetailPopupHelperKt.copyWithSeriesTimerId(mProgram, id);
         mRecIndicator.setImageResource(id != null ? R.drawable.ic_record_series_red : R.drawable.blank10x10);
+        if (programChangedListener != null) programChangedListener.onProgramChanged(mProgram);
+    }
+
+    public interface OnProgramChangedListener {
+        void onProgramChanged(BaseItemDto program);
     }
 }
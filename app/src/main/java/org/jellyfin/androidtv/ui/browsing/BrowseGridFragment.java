@@ -2,6 +2,8 @@ package org.jellyfin.androidtv.ui.browsing;
 
 import static org.koin.java.KoinJavaComponent.inject;
 
+import android.content.ComponentCallbacks2;
+import android.content.res.Configuration;
 import android.os.Bundle;
 import android.os.Handler;
 import android.util.DisplayMetrics;
@@ -57,12 +59,14 @@ import org.jellyfin.androidtv.ui.itemhandling.BaseRowItem;
 import org.jellyfin.androidtv.ui.itemhandling.ItemLauncher;
 import org.jellyfin.androidtv.ui.itemhandling.ItemRowAdapter;
 import org.jellyfin.androidtv.ui.itemhandling.ItemRowAdapterHelperKt;
+import org.jellyfin.androidtv.ui.itemhandling.ItemRowPlaceholder;
 import org.jellyfin.androidtv.ui.navigation.ActivityDestinations;
 import org.jellyfin.androidtv.ui.navigation.NavigationRepository;
 import org.jellyfin.androidtv.ui.presentation.CardPresenter;
 import org.jellyfin.androidtv.ui.presentation.HorizontalGridPresenter;
 import org.jellyfin.androidtv.util.CoroutineUtils;
 import org.jellyfin.androidtv.util.ImageHelper;
+import org.jellyfin.androidtv.util.ImagePrefetcher;
 import org.jellyfin.androidtv.util.KeyProcessor;
 import org.jellyfin.androidtv.util.Utils;
 import org.jellyfin.androidtv.util.apiclient.EmptyResponse;
@@ -179,6 +183,7 @@ public class BrowseGridFragment extends Fragment implements View.OnKeyListener {
     private final Lazy<ItemLauncher> itemLauncher = inject(ItemLauncher.class);
     private final Lazy<KeyProcessor> keyProcessor = inject(KeyProcessor.class);
     private final Lazy<ApiClient> api = inject(ApiClient.class);
+    private final Lazy<ImagePrefetcher> imagePrefetcher = inject(ImagePrefetcher.class);
 
     private int mCardsScreenEst = 0;
     private int mCardsScreenStride = 0;
@@ -226,8 +231,34 @@ public class BrowseGridFragment extends Fragment implements View.OnKeyListener {
         setAutoCardGridValues();
         setupQueries();
         setupEventListeners();
+        requireContext().registerComponentCallbacks(trimMemoryCallbacks);
     }
 
+    @Override
+    public void onDestroy() {
+        super.onDestroy();
+        requireContext().unregisterComponentCallbacks(trimMemoryCallbacks);
+    }
+
+    private final ComponentCallbacks2 trimMemoryCallbacks = new ComponentCallbacks2() {
+        @Override
+        public void onTrimMemory(int level) {
+            // Drop pages far from the visible range, they are loaded again when scrolled to
+            if (level >= ComponentCallbacks2.TRIM_MEMORY_RUNNING_LOW && mAdapter != null) {
+                mAdapter.evictDistantItems();
+            }
+        }
+
+        @Override
+        public void onConfigurationChanged(@NonNull Configuration newConfig) {
+        }
+
+        @Override
+        public void onLowMemory() {
+            onTrimMemory(ComponentCallbacks2.TRIM_MEMORY_COMPLETE);
+        }
+    };
+
     private void initializeGridPresenter() {
         if (mGridDirection.equals(GridDirection.VERTICAL))
             setGridPresenter(new CustomVerticalGridPresenter());
@@ -320,6 +351,7 @@ public class BrowseGridFragment extends Fragment implements View.OnKeyListener {
         super.onPause();
         backgroundService.getValue().clearBackgrounds();
         mHandler.removeCallbacksAndMessages(null);
+        imagePrefetcher.getValue().cancelAll();
     }
 
     @Override
@@ -367,11 +399,23 @@ public class BrowseGridFragment extends Fragment implements View.OnKeyListener {
                 mIsScrolling = (newState != RecyclerView.SCROLL_STATE_IDLE);
                 if (wasScrolling != mIsScrolling && mAdapter != null) {
                     mAdapter.setScrollState(mIsScrolling);
-                    if (!mIsScrolling && mAdapter.size() < mAdapter.getTotalItems()) {
-                        mAdapter.loadMoreItemsIfNeeded(mAdapter.size() - 1);
+                    if (!mIsScrolling && mAdapter.getItemsLoaded() < mAdapter.getTotalItems()) {
+                        mAdapter.loadMoreItemsIfNeeded(mAdapter.getItemsLoaded() - 1);
                     }
                 }
             }
+
+            @Override
+            public void onScrolled(@NonNull RecyclerView recyclerView, int dx, int dy) {
+                int childCount = recyclerView.getChildCount();
+                if (mAdapter == null || childCount == 0) return;
+
+                int first = recyclerView.getChildAdapterPosition(recyclerView.getChildAt(0));
+                int last = recyclerView.getChildAdapterPosition(recyclerView.getChildAt(childCount - 1));
+                if (first != RecyclerView.NO_POSITION && last != RecyclerView.NO_POSITION) {
+                    mAdapter.setVisibleRange(first, last);
+                }
+            }
         });
     }
 
@@ -553,6 +597,7 @@ public class BrowseGridFragment extends Fragment implements View.OnKeyListener {
             }
             if (position >= 0) {
                 updateCounter(position + 1);
+                imagePrefetcher.getValue().onCardFocused(itemViewHolder, mAdapter, position);
 
                 if (libraryPreferences != null && libraryPreferences.getShowItemTitlesOnFocus()) {
                     if (itemViewHolder != null && item instanceof BaseRowItem) {
@@ -860,6 +905,7 @@ public class BrowseGridFragment extends Fragment implements View.OnKeyListener {
             case AlbumArtists: mAdapter = new ItemRowAdapter(requireContext(), mRowDef.getAlbumArtistsQuery(), chunkSize, mCardPresenter, null); break;
             default: mAdapter = new ItemRowAdapter(requireContext(), mRowDef.getQuery(), chunkSize, mRowDef.getPreferParentThumb(), mRowDef.isStaticHeight(), mCardPresenter, null); break;
         }
+        mAdapter.setPlaceholdersEnabled(true);
         mDirty = false;
         FilterOptions filters = new FilterOptions();
         filters.setFavoriteOnly(libraryPreferences.get(LibraryPreferences.Companion.getFilterFavoritesOnly()));
@@ -1011,8 +1057,7 @@ public class BrowseGridFragment extends Fragment implements View.OnKeyListener {
     private void setupAlphabetSidebar() {
         mAlphabetSidebar = new VerticalAlphaPickerView(requireContext());
         mAlphabetSidebar.setOnAlphaSelected(letter -> {
-            mAdapter.setStartLetter(letter.toString());
-            loadGrid();
+            jumpToLetter(letter.toString());
             return null;
         });
         LinearLayout.LayoutParams params = new LinearLayout.LayoutParams(LinearLayout.LayoutParams.WRAP_CONTENT, LinearLayout.LayoutParams.WRAP_CONTENT);
@@ -1020,6 +1065,20 @@ public class BrowseGridFragment extends Fragment implements View.OnKeyListener {
         innerLayout.addView(mAlphabetSidebar, params);
     }
 
+    private void jumpToLetter(String letter) {
+        // Scroll to the letter when the position can be found, only the pages around it are loaded
+        mAdapter.findStartLetterPosition(this, letter, position -> {
+            if (position == null) {
+                mAdapter.setStartLetter(letter);
+                loadGrid();
+            } else if (mGridView != null) {
+                mGridView.setSelectedPosition(position);
+                mGridView.requestFocus();
+            }
+            return null;
+        });
+    }
+
     private String normalizeGenreName(String genre) {
         if (genre == null) return null;
         String normalized = genre.trim().toLowerCase();
@@ -1038,8 +1097,7 @@ public class BrowseGridFragment extends Fragment implements View.OnKeyListener {
             popupWindow.setAnimationStyle(R.style.WindowAnimation_SlideTop);
             alphaPicker = new AlphaPickerView(requireContext(), null);
             alphaPicker.setOnAlphaSelected(letter -> {
-                mAdapter.setStartLetter(letter.toString());
-                loadGrid();
+                jumpToLetter(letter.toString());
                 dismiss();
                 return null;
             });
@@ -1111,13 +1169,16 @@ public class BrowseGridFragment extends Fragment implements View.OnKeyListener {
         @Override
         public void onItemSelected(Presenter.ViewHolder itemViewHolder, Object item, RowPresenter.ViewHolder rowViewHolder, Row row) {
             mHandler.removeCallbacks(mDelayedSetItem);
-            if (!(item instanceof BaseRowItem)) {
+            if (item == ItemRowPlaceholder.INSTANCE) {
+                mCurrentItem = null;
+                if (mGridView != null) mAdapter.loadMoreItemsIfNeeded(mGridView.getSelectedPosition());
+            } else if (!(item instanceof BaseRowItem)) {
                 mCurrentItem = null;
                 backgroundService.getValue().clearBackgrounds();
             } else {
                 mCurrentItem = (BaseRowItem) item;
                 if (!determiningPosterSize) {
-                    int currentIndex = mAdapter.indexOf(mCurrentItem);
+                    int currentIndex = mGridView != null ? mGridView.getSelectedPosition() : mAdapter.indexOf(mCurrentItem);
                     if (currentIndex >= 0) {
                         mAdapter.loadMoreItemsIfNeeded(currentIndex);
                     }
@@ -47,6 +47,7 @@ import org.jellyfin.sdk.model.api.MediaType
 import org.jellyfin.sdk.api.client.ApiClient
 import org.jellyfin.sdk.api.client.extensions.userLibraryApi
 import org.jellyfin.androidtv.util.LocaleUtils
+import org.jellyfin.preference.store.SharedPreferenceStore
 import android.content.Context
 import kotlinx.coroutines.withContext
 import org.koin.android.ext.android.inject
@@ -344,6 +345,7 @@ class MainActivity : FragmentActivity() {
 			setPositiveButton(R.string.yes) { _, _ ->
 				// Force close the app completely
 				finishAffinity()
+				SharedPreferenceStore.flushAll()
 				android.os.Process.killProcess(android.os.Process.myPid())
 				System.exit(0)
 			}
@@ -1,7 +1,5 @@
 package org.jellyfin.androidtv.ui.home
 
-import android.app.ActivityManager
-import android.content.Context
 import android.content.Intent
 import android.os.Bundle
 import android.view.LayoutInflater
@@ -53,7 +51,6 @@ import org.jellyfin.androidtv.ui.playback.MediaManager
 import org.jellyfin.androidtv.ui.playback.PlaybackLauncher
 import org.jellyfin.androidtv.ui.startup.StartupActivity
 import org.jellyfin.androidtv.util.ImageHelper
-import org.jellyfin.androidtv.util.ImagePreloader
 import org.jellyfin.sdk.api.client.ApiClient
 import org.jellyfin.sdk.api.client.extensions.liveTvApi
 import org.jellyfin.sdk.model.api.BaseItemDto
@@ -135,7 +132,6 @@ class HomeFragment : Fragment() {
     private val playbackLauncher: PlaybackLauncher by inject()
     private val userSettingPreferences: UserSettingPreferences by inject()
     private val userPreferences: UserPreferences by inject()
-    private val imagePreloader: ImagePreloader by inject()
     private val backgroundService by inject<org.jellyfin.androidtv.data.service.BackgroundService>()
 
     override fun onCreateView(
@@ -160,8 +156,6 @@ class HomeFragment : Fragment() {
 
         _isCarouselPaused.value = false
 
-        preloadHomeScreenImages()
-
         refreshBackgroundState()
     }
 
@@ -259,53 +253,6 @@ class HomeFragment : Fragment() {
         }
     }
 
-    private fun preloadHomeScreenImages() {
-        if (!userPreferences[UserPreferences.preloadImages]) return
-
-        if (!isAdded || view == null || activity == null) return
-
-        viewLifecycleOwner.lifecycleScope.launch {
-            try {
-                if (!isReadyForInteraction) return@launch
-
-                if (!isAdded || view == null || activity == null) return@launch
-
-                val urls = mutableListOf<String>()
-
-                val visibleFragments = try {
-                    childFragmentManager.fragments.take(3)
-                } catch (e: Exception) {
-                    return@launch
-                }
-
-                visibleFragments.forEach { fragment ->
-                    try {
-                        if (fragment::class.java.simpleName.contains("Row")) {
-                            return@forEach
-                        }
-                    } catch (e: Exception) {
-                    }
-                }
-
-                if (urls.isNotEmpty()) {
-                    try {
-                        val activityManager = requireContext().getSystemService(Context.ACTIVITY_SERVICE) as ActivityManager
-                        val memoryInfo = ActivityManager.MemoryInfo()
-                        activityManager.getMemoryInfo(memoryInfo)
-
-                        if (memoryInfo.availMem > memoryInfo.totalMem * 0.3) {
-                            if (isAdded && context != null) {
-                                imagePreloader.preloadImages(requireContext(), urls)
-                            }
-                        }
-                    } catch (e: Exception) {
-                    }
-                }
-            } catch (e: Exception) {
-            }
-        }
-    }
-
     override fun onViewCreated(view: View, savedInstanceState: Bundle?) {
         super.onViewCreated(view, savedInstanceState)
 
@@ -15,10 +15,13 @@ import androidx.lifecycle.Lifecycle
 import androidx.lifecycle.flowWithLifecycle
 import androidx.lifecycle.lifecycleScope
 import androidx.lifecycle.repeatOnLifecycle
+import androidx.work.WorkManager
 import kotlinx.coroutines.Dispatchers
 import kotlinx.coroutines.async
 import kotlinx.coroutines.awaitAll
 import kotlinx.coroutines.delay
+import kotlinx.coroutines.flow.collectLatest
+import kotlinx.coroutines.flow.filter
 import kotlinx.coroutines.flow.filterNotNull
 import kotlinx.coroutines.flow.first
 import kotlinx.coroutines.flow.launchIn
@@ -29,14 +32,19 @@ import kotlinx.coroutines.withContext
 import kotlinx.coroutines.withTimeout
 import org.jellyfin.androidtv.R
 import org.jellyfin.androidtv.auth.repository.UserRepository
+import org.jellyfin.androidtv.constant.ChangeTriggerType
 import org.jellyfin.androidtv.constant.CustomMessage
 import org.jellyfin.androidtv.constant.HomeSectionType
 import org.jellyfin.androidtv.constant.QueryType
+import org.jellyfin.androidtv.data.eventhandling.LibraryChangeBus
+import org.jellyfin.androidtv.data.eventhandling.LibraryChangeKind
 import org.jellyfin.androidtv.data.model.DataRefreshService
 import org.jellyfin.androidtv.data.repository.CustomMessageRepository
+import org.jellyfin.androidtv.data.repository.LibraryIndexRepository
 import org.jellyfin.androidtv.data.repository.NotificationsRepository
 import org.jellyfin.androidtv.data.repository.UserViewsRepository
 import org.jellyfin.androidtv.data.service.BackgroundService
+import org.jellyfin.androidtv.integration.StreamPrefetchWorker
 import org.jellyfin.androidtv.preference.UserPreferences
 import org.jellyfin.androidtv.preference.UserSettingPreferences
 import org.jellyfin.androidtv.ui.browsing.CompositeClickedListener
@@ -51,15 +59,13 @@ import org.jellyfin.androidtv.ui.playback.MediaManager
 import org.jellyfin.androidtv.ui.presentation.CardPresenter
 import org.jellyfin.androidtv.ui.presentation.MutableObjectAdapter
 import org.jellyfin.androidtv.ui.presentation.PositionableListRowPresenter
+import org.jellyfin.androidtv.util.ImagePrefetcher
 import org.jellyfin.androidtv.util.KeyProcessor
 import org.jellyfin.androidtv.util.apiclient.getUrl
 import org.jellyfin.androidtv.util.apiclient.itemImages
 import org.jellyfin.androidtv.util.apiclient.parentImages
 import org.jellyfin.sdk.api.client.ApiClient
 import org.jellyfin.sdk.api.client.extensions.liveTvApi
-import org.jellyfin.sdk.api.sockets.subscribe
-import org.jellyfin.sdk.model.api.LibraryChangedMessage
-import org.jellyfin.sdk.model.api.UserDataChangedMessage
 import org.koin.android.ext.android.inject
 import timber.log.Timber
 import kotlin.time.Duration.Companion.seconds
@@ -77,6 +83,10 @@ class HomeRowsFragment : RowsSupportFragment(), AudioEventListener, View.OnKeyLi
 	private val navigationRepository by inject<NavigationRepository>()
 	private val itemLauncher by inject<ItemLauncher>()
 	private val keyProcessor by inject<KeyProcessor>()
+	private val workManager by inject<WorkManager>()
+	private val imagePrefetcher by inject<ImagePrefetcher>()
+	private val libraryIndexRepository by inject<LibraryIndexRepository>()
+	private val libraryChangeBus by inject<LibraryChangeBus>()
 
 	private val userPreferences by inject<UserPreferences>()
 	private val helper by lazy { HomeFragmentHelper(requireContext(), userRepository, userPreferences) }
@@ -250,16 +260,18 @@ class HomeRowsFragment : RowsSupportFragment(), AudioEventListener, View.OnKeyLi
 
 		lifecycleScope.launch {
 			lifecycle.repeatOnLifecycle(Lifecycle.State.RESUMED) {
-				api.webSocket.subscribe<UserDataChangedMessage>()
-					.onEach { refreshRows(force = true, delayed = false) }
+				libraryChangeBus.changes
+					.filter { it.kind != LibraryChangeKind.USER_DATA }
+					.onEach { genreManager.refreshEnabledGenres() }
 					.launchIn(this)
 
-				api.webSocket.subscribe<LibraryChangedMessage>()
-				.onEach {
-					genreManager.refreshEnabledGenres()
-					refreshRows(force = true, delayed = false)
+				launch {
+					libraryChangeBus.changes.collectLatest {
+						// Changes arrive in bursts during a library scan
+						delay(1.5.seconds)
+						refreshChangedRows()
+					}
 				}
-				.launchIn(this)
 			}
 		}
 
@@ -291,6 +303,10 @@ class HomeRowsFragment : RowsSupportFragment(), AudioEventListener, View.OnKeyLi
 		}
 		// Ensure views are updated when fragment is resumed
 		ensureViewsInitialized()
+		// Warm the stream cache for whatever is likely to be played next
+		StreamPrefetchWorker.enqueue(workManager)
+		// Pick up library changes made while the app was not connected
+		libraryIndexRepository.sync()
 		// Update audio queue
 		Timber.i("Updating audio queue in HomeFragment (onResume)")
 		@Suppress("UNCHECKED_CAST")
@@ -339,6 +355,27 @@ class HomeRowsFragment : RowsSupportFragment(), AudioEventListener, View.OnKeyLi
 		}
 	}
 
+	/**
+	 * Update the rows after library changes. Rows only patch the changed items, library rows are
+	 * retrieved again when items were added to their folder.
+	 */
+	private fun refreshChangedRows() {
+		repeat(adapter.size()) { i ->
+			val rowAdapter = (adapter[i] as? ListRow)?.adapter as? ItemRowAdapter ?: return@repeat
+
+			try {
+				when {
+					rowAdapter.queryType == QueryType.Views -> Unit
+					rowAdapter.hasReRetrieveTrigger(ChangeTriggerType.LibraryUpdated) -> rowAdapter.ReRetrieveIfNeeded()
+					// Playback changes are handled by the re-retrieve triggers when resumed
+					else -> rowAdapter.applyLibraryChanges()
+				}
+			} catch (e: Exception) {
+				Timber.e(e, "Error refreshing row at position $i")
+			}
+		}
+	}
+
 	private fun refreshCurrentItem() {
 		val adapter = currentRow?.adapter as? ItemRowAdapter ?: return
 		val item = currentItem ?: return
@@ -348,6 +385,7 @@ class HomeRowsFragment : RowsSupportFragment(), AudioEventListener, View.OnKeyLi
 	}
 
 	override fun onDestroyView() {
+        imagePrefetcher.cancelAll()
         // Clear references to views to prevent leaks
         titleView = null
         infoRowView = null
@@ -495,6 +533,7 @@ private inner class ItemViewSelectedListener : OnItemViewSelectedListener {
             (row as? ListRow)?.let { listRow ->
                 val itemRowAdapter = listRow.adapter as? ItemRowAdapter
                 itemRowAdapter?.loadMoreItemsIfNeeded(itemRowAdapter.indexOf(item))
+                itemRowAdapter?.let { imagePrefetcher.onCardFocused(itemViewHolder, it, it.indexOf(item)) }
             }
 
             updateLogoAndTitle(item)
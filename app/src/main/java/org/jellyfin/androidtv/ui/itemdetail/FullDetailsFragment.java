@@ -66,6 +66,7 @@ import org.jellyfin.androidtv.ui.navigation.Destinations;
 import org.jellyfin.androidtv.ui.navigation.NavigationRepository;
 import org.jellyfin.androidtv.ui.playback.MediaManager;
 import org.jellyfin.androidtv.ui.playback.PlaybackLauncher;
+import org.jellyfin.androidtv.ui.playback.StreamWarmUp;
 import org.jellyfin.androidtv.ui.presentation.CardPresenter;
 import org.jellyfin.androidtv.ui.presentation.CustomListRowPresenter;
 import org.jellyfin.androidtv.ui.presentation.InfoCardPresenter;
@@ -81,6 +82,7 @@ import org.jellyfin.androidtv.util.TimeUtils;
 import org.jellyfin.androidtv.util.Utils;
 import org.jellyfin.androidtv.util.apiclient.BaseItemUtils;
 import org.jellyfin.androidtv.util.apiclient.Response;
+import org.jellyfin.androidtv.util.profile.DeviceProfileProvider;
 import org.jellyfin.androidtv.util.sdk.BaseItemExtensionsKt;
 import org.jellyfin.androidtv.util.sdk.TrailerUtils;
 import org.jellyfin.androidtv.util.sdk.compat.JavaCompat;
@@ -160,6 +162,7 @@ public class FullDetailsFragment extends Fragment implements RecordingIndicatorV
     private final Lazy<ItemLauncher> itemLauncher = inject(ItemLauncher.class);
     private final Lazy<KeyProcessor> keyProcessor = inject(KeyProcessor.class);
     final Lazy<PlaybackHelper> playbackHelper = inject(PlaybackHelper.class);
+    private final Lazy<StreamWarmUp> streamWarmUp = inject(StreamWarmUp.class);
     private final Lazy<ImageHelper> imageHelper = inject(ImageHelper.class);
 
     @Nullable
@@ -241,6 +244,8 @@ public class FullDetailsFragment extends Fragment implements RecordingIndicatorV
             startClock();
         }
 
+        if (playButton != null) warmUpPlayback();
+
         //Update information that may have changed - delay slightly to allow changes to take on the server
         new Handler().postDelayed(new Runnable() {
             @Override
@@ -279,6 +284,7 @@ public class FullDetailsFragment extends Fragment implements RecordingIndicatorV
     public void onPause() {
         super.onPause();
         stopClock();
+        streamWarmUp.getValue().cancel();
         themeSongs.getValue().fadeOutAndStop();
     }
 
@@ -443,10 +449,8 @@ public class FullDetailsFragment extends Fragment implements RecordingIndicatorV
     }
     private void probeMediaSource(String mediaSourceId, java.util.function.Consumer<org.jellyfin.sdk.model.api.MediaSourceInfo> callback) {
         try {
-            UserPreferences userPreferences = KoinJavaComponent.get(UserPreferences.class);
-
-            // Create device profile for probing
-            DeviceProfile deviceProfile = org.jellyfin.androidtv.util.profile.DeviceProfileKt.createDeviceProfile(userPreferences, false);
+            // Device profile for probing
+            DeviceProfile deviceProfile = KoinJavaComponent.<DeviceProfileProvider>get(DeviceProfileProvider.class).getDeviceProfile(false);
 
             FullDetailsFragmentHelperKt.getPostedPlaybackInfo(this, mBaseItem.getId(), mediaSourceId, deviceProfile, response -> {
                 if (response != null) {
@@ -929,6 +933,7 @@ public class FullDetailsFragment extends Fragment implements RecordingIndicatorV
             });
 
             mDetailsOverviewRow.addAction(playButton);
+            warmUpPlayback();
 
             // Removed: Resume button visibility check (no longer needed)
 
@@ -1354,6 +1359,17 @@ public class FullDetailsFragment extends Fragment implements RecordingIndicatorV
         }
     };
 
+    private void warmUpPlayback() {
+        if (mBaseItem == null || !getLifecycle().getCurrentState().isAtLeast(Lifecycle.State.RESUMED)) return;
+
+        // Scrapers choose the stream after pressing play
+        boolean torrentioEnabled = userPreferences.getValue().get(UserPreferences.Companion.getTorrentioEnabled());
+        boolean aiostreamsEnabled = userPreferences.getValue().get(UserPreferences.Companion.getAiostreamsEnabled());
+        if (torrentioEnabled || aiostreamsEnabled) return;
+
+        streamWarmUp.getValue().warmUp(mBaseItem);
+    }
+
     void shufflePlay() {
         play(mBaseItem, 0, true);
     }
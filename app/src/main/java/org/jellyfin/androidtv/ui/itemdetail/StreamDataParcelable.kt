@@ -3,6 +3,7 @@ package org.jellyfin.androidtv.ui.itemdetail
 import android.os.Parcelable
 import kotlinx.parcelize.Parcelize
 import org.jellyfin.androidtv.data.scraper.StreamData
+import org.jellyfin.androidtv.data.scraper.StreamResolution
 
 @Parcelize
 data class StreamDataParcelable(
@@ -20,7 +21,11 @@ data class StreamDataParcelable(
 	val codec: String,
 	val isAtmos: Boolean,
 	val release: String,
-	val audioChannels: Int
+	val audioChannels: Int,
+	val sizeBytes: Long,
+	val resolution: StreamResolution,
+	val hasDolbyVision: Boolean,
+	val hasHdr: Boolean
 ) : Parcelable {
 	fun toStreamData(): StreamData {
 		return StreamData(
@@ -38,7 +43,11 @@ data class StreamDataParcelable(
 			codec = codec,
 			isAtmos = isAtmos,
 			release = release,
-			audioChannels = audioChannels
+			audioChannels = audioChannels,
+			sizeBytes = sizeBytes,
+			resolution = resolution,
+			hasDolbyVision = hasDolbyVision,
+			hasHdr = hasHdr
 		)
 	}
 
@@ -59,7 +68,11 @@ data class StreamDataParcelable(
 				codec = streamData.codec,
 				isAtmos = streamData.isAtmos,
 				release = streamData.release,
-				audioChannels = streamData.audioChannels
+				audioChannels = streamData.audioChannels,
+				sizeBytes = streamData.sizeBytes,
+				resolution = streamData.resolution,
+				hasDolbyVision = streamData.hasDolbyVision,
+				hasHdr = streamData.hasHdr
 			)
 		}
 	}
@@ -35,6 +35,7 @@ import java.util.UUID
 import org.koin.android.ext.android.inject
 import org.jellyfin.androidtv.ui.navigation.NavigationRepository
 import timber.log.Timber
+import kotlinx.coroutines.CancellationException
 import kotlinx.coroutines.Dispatchers
 import kotlinx.coroutines.launch
 import kotlinx.coroutines.withContext
@@ -126,19 +127,26 @@ class StreamSelectionFragment : Fragment(), StreamItemClickListener {
 		rowsAdapter = MutableObjectAdapter(presenterSelector)
 		rowsFragment?.adapter = rowsAdapter
 
-		if (streams.isEmpty()) {
+		updateRows(isLoading)
+	}
+
+	/**
+	 * Update the rows in place so streams arriving from a slower provider do not reset the focus.
+	 */
+	private fun updateRows(isLoading: Boolean = false) {
+		val rows = if (streams.isEmpty()) {
 			// Show loading state or empty state
 			val message = if (isLoading) getString(R.string.loading) else getString(R.string.no_streams_found)
-			val emptyItem = StreamRow(StreamItem(message, ""))
-			rowsAdapter?.add(emptyItem)
+			listOf(StreamRow(StreamItem(message, "")))
 		} else {
 			// Create individual rows for each stream
-			for ((index, stream) in streams.withIndex()) {
-				val streamItem = StreamItem.fromStreamData(stream)
-				val streamRow = StreamRow(streamItem)
-				rowsAdapter?.add(streamRow)
-			}
+			streams.map { stream -> StreamRow(StreamItem.fromStreamData(stream)) }
 		}
+
+		rowsAdapter?.replaceAll(
+			rows,
+			areItemsTheSame = { old, new -> old.streamItem.streamData?.id == new.streamItem.streamData?.id && old.streamItem.title == new.streamItem.title },
+		)
 	}
 
 	override fun onStreamItemClicked(streamData: StreamData?) {
@@ -297,18 +305,26 @@ class StreamSelectionFragment : Fragment(), StreamItemClickListener {
 
 				val item = itemResponse.content
 
-				// Now query streams
+				// Now query streams, rendering results as soon as each provider returns
 				val scope = viewLifecycleOwner.lifecycleScope
 				val helper = StreamScraperHelper(userPreferences, scope, api)
 
-				helper.queryStreams(item) { streamsResult ->
-					if (!isAdded) return@queryStreams
+				helper.streams(item).collect { streamsResult ->
+					if (!isAdded) return@collect
 
 					streams = streamsResult
 					updateStreamCounter()
-					setupRows() // Refresh UI with actual streams
+					updateRows(isLoading = true)
+				}
+
+				// All providers finished
+				if (isAdded) {
+					updateStreamCounter()
+					updateRows()
 				}
 
+			} catch (e: CancellationException) {
+				throw e
 			} catch (e: Exception) {
 				Utils.showToast(requireContext(), "Failed to load streams")
 			}
@@ -106,6 +106,20 @@ public class ItemLauncher {
         }
     }
 
+    /**
+     * Index of {@code rowItem} among the loaded items with a base item, placeholders of unloaded or
+     * evicted items are not counted.
+     */
+    private static int indexOfPlayableItem(ItemRowAdapter adapter, BaseRowItem rowItem) {
+        int index = 0;
+        for (Object item : adapter) {
+            if (!(item instanceof BaseRowItem) || ((BaseRowItem) item).getBaseItem() == null) continue;
+            if (item.equals(rowItem)) return index;
+            index++;
+        }
+        return -1;
+    }
+
     public void launch(final BaseRowItem rowItem, ItemRowAdapter adapter, final Context context) {
         // Prevent multiple clicks in quick succession
         long currentClickTime = SystemClock.elapsedRealtime();
@@ -158,7 +172,7 @@ public class ItemLauncher {
                         // if the song currently playing is selected (and is the exact item - this only happens in the nowPlayingRow), open AudioNowPlayingActivity
                         if (mediaManager.getValue().hasAudioQueueItems() && rowItem instanceof AudioQueueBaseRowItem && rowItem.getBaseItem().getId().equals(mediaManager.getValue().getCurrentAudioItem().getId())) {
                             navigationRepository.getValue().navigate(Destinations.INSTANCE.getNowPlaying());
-                        } else if (mediaManager.getValue().hasAudioQueueItems() && rowItem instanceof AudioQueueBaseRowItem && adapter.indexOf(rowItem) < mediaManager.getValue().getCurrentAudioQueueSize()) {
+                        } else if (mediaManager.getValue().hasAudioQueueItems() && rowItem instanceof AudioQueueBaseRowItem && indexOfPlayableItem(adapter, rowItem) < mediaManager.getValue().getCurrentAudioQueueSize()) {
                             Timber.d("playing audio queue item");
                             mediaManager.getValue().playFrom(rowItem.getBaseItem());
                         } else if (adapter.getQueryType() == QueryType.Search) {
@@ -172,7 +186,7 @@ public class ItemLauncher {
                                     audioItemsAsList.add(((BaseRowItem) item).getBaseItem());
                             }
 
-                            playbackLauncher.getValue().launch(context, audioItemsAsList, 0, false, adapter.indexOf(rowItem));
+                            playbackLauncher.getValue().launch(context, audioItemsAsList, 0, false, indexOfPlayableItem(adapter, rowItem));
                         }
 
                         return;
@@ -11,11 +11,14 @@ import androidx.leanback.widget.ListRow;
 import androidx.leanback.widget.Presenter;
 import androidx.leanback.widget.PresenterSelector;
 import androidx.leanback.widget.Row;
+import androidx.lifecycle.LifecycleOwner;
 
 import org.jellyfin.androidtv.R;
 import org.jellyfin.androidtv.auth.repository.UserRepository;
 import org.jellyfin.androidtv.constant.ChangeTriggerType;
 import org.jellyfin.androidtv.constant.QueryType;
+import org.jellyfin.androidtv.data.eventhandling.LibraryChange;
+import org.jellyfin.androidtv.data.eventhandling.LibraryChangeBus;
 import org.jellyfin.androidtv.data.model.ChapterItemInfo;
 import org.jellyfin.androidtv.data.model.DataRefreshService;
 import org.jellyfin.androidtv.data.model.FilterOptions;
@@ -51,9 +54,13 @@ import org.jellyfin.sdk.model.api.request.GetUpcomingEpisodesRequest;
 import org.koin.java.KoinJavaComponent;
 
 import java.time.Instant;
+import java.util.Collections;
 import java.util.List;
+import java.util.UUID;
 
 import kotlin.Lazy;
+import kotlin.Unit;
+import kotlin.jvm.functions.Function1;
 import timber.log.Timber;
 
 public class ItemRowAdapter extends MutableObjectAdapter<Object> {
@@ -82,6 +89,8 @@ public class ItemRowAdapter extends MutableObjectAdapter<Object> {
 
     private ChangeTriggerType[] reRetrieveTriggers = new ChangeTriggerType[]{};
     private Instant lastFullRetrieve;
+    // Library changes up to this time are applied to the loaded items
+    private Instant libraryChangesApplied;
 
     private BaseItemPerson[] mPersons;
     private List<ChapterItemInfo> mChapters;
@@ -93,6 +102,10 @@ public class ItemRowAdapter extends MutableObjectAdapter<Object> {
     private int itemsLoaded = 0;
     private int totalItems = 0;
     private boolean fullyLoaded = false;
+    private boolean placeholdersEnabled = false;
+    private int pageStartIndex = -1;
+    // Pages kept on each side of the visible range when evicting
+    private static final int RETAINED_PAGES = 2;
 
     private final Object currentlyRetrievingSemaphore = new Object();
     private boolean currentlyRetrieving = false;
@@ -100,8 +113,6 @@ public class ItemRowAdapter extends MutableObjectAdapter<Object> {
     private int mFirstVisiblePosition = 0;
     private int mLastVisiblePosition = Integer.MAX_VALUE;
     private final int VISIBLE_BUFFER_SIZE = 20;
-    private long mLastVirtualUpdate = 0;
-    private final long VIRTUAL_UPDATE_THROTTLE_MS = 200;
     private boolean preferParentThumb = false;
     private String mGenreFilter;
     private boolean staticHeight = false;
@@ -142,6 +153,31 @@ public class ItemRowAdapter extends MutableObjectAdapter<Object> {
         this.reRetrieveTriggers = reRetrieveTriggers;
     }
 
+    public boolean hasReRetrieveTrigger(ChangeTriggerType trigger) {
+        if (reRetrieveTriggers == null) return false;
+        for (ChangeTriggerType reRetrieveTrigger : reRetrieveTriggers) {
+            if (reRetrieveTrigger == trigger) return true;
+        }
+        return false;
+    }
+
+    /**
+     * The folder or library the row shows items of, null when the row is not limited to one.
+     */
+    @Nullable
+    public UUID getParentId() {
+        if (mQuery != null) return mQuery.getParentId();
+        if (mLatestQuery != null) return mLatestQuery.getParentId();
+        return null;
+    }
+
+    /**
+     * Whether the row is loaded in chunks, removing items would shift the following chunks.
+     */
+    public boolean isChunked() {
+        return chunkSize > 0;
+    }
+
     public ItemRowAdapter(Context context, GetItemsRequest query, int chunkSize, boolean preferParentThumb, Presenter presenter, MutableObjectAdapter<Row> parent) {
         this(context, query, chunkSize, preferParentThumb, false, presenter, parent);
     }
@@ -365,6 +401,26 @@ public class ItemRowAdapter extends MutableObjectAdapter<Object> {
         return totalItems;
     }
 
+    /**
+     * Fill the adapter up to the total item count with {@link ItemRowPlaceholder} items so the grid
+     * has its final size while pages are loaded. Pages are then loaded in any order, only the pages
+     * around the visible range are requested. Required to evict pages with {@link #evictDistantItems()}.
+     */
+    public void setPlaceholdersEnabled(boolean placeholdersEnabled) {
+        this.placeholdersEnabled = placeholdersEnabled;
+    }
+
+    public boolean isPlaceholdersEnabled() {
+        return placeholdersEnabled;
+    }
+
+    /**
+     * @return The start position of the page that is currently being loaded out of order, or -1 when loading sequentially
+     */
+    public int getPageStartIndex() {
+        return pageStartIndex;
+    }
+
     public String getGenreFilter() {
         return mGenreFilter;
     }
@@ -439,6 +495,34 @@ public class ItemRowAdapter extends MutableObjectAdapter<Object> {
         }
     }
 
+    /**
+     * Find the position of the first item starting with {@code letter} so the grid can jump to it
+     * instead of filtering. Only possible when sorted by name and placeholders are enabled.
+     *
+     * @param callback Receives the position, or null when {@link #setStartLetter(String)} should be used instead
+     */
+    public void findStartLetterPosition(LifecycleOwner lifecycleOwner, String letter, Function1<Integer, Unit> callback) {
+        if (!isSparse() || totalItems == 0 || getStartLetter() != null || !ItemSortBy.SORT_NAME.equals(mSortBy)) {
+            callback.invoke(null);
+            return;
+        }
+
+        switch (queryType) {
+            case Artists:
+                ItemRowAdapterHelperKt.retrieveStartLetterPosition(this, api.getValue(), lifecycleOwner, mArtistsQuery, letter, callback);
+                break;
+            case AlbumArtists:
+                ItemRowAdapterHelperKt.retrieveStartLetterPosition(this, api.getValue(), lifecycleOwner, mAlbumArtistsQuery, letter, callback);
+                break;
+            case Items:
+                ItemRowAdapterHelperKt.retrieveStartLetterPosition(this, api.getValue(), lifecycleOwner, mQuery, letter, callback);
+                break;
+            default:
+                callback.invoke(null);
+                break;
+        }
+    }
+
     public void setStartLetter(String value) {
         switch (queryType) {
             case Artists:
@@ -517,18 +601,32 @@ public class ItemRowAdapter extends MutableObjectAdapter<Object> {
             return;
         }
 
-        if (fullyLoaded || isCurrentlyRetrieving()) {
-            Timber.d("Not loading more because fully loaded or currently retrieving");
+        if (isCurrentlyRetrieving()) {
+            Timber.d("Not loading more because currently retrieving");
             return;
         }
 
-        if (mLastVisiblePosition != Integer.MAX_VALUE) {
-            if (pos >= mFirstVisiblePosition - VISIBLE_BUFFER_SIZE && pos <= mLastVisiblePosition + VISIBLE_BUFFER_SIZE) {
-                Timber.d("Virtual loading: pos %d is within range %d-%d", pos, mFirstVisiblePosition, mLastVisiblePosition);
-                retrieveNext();
+        if (isSparse()) {
+            // Load the page at pos directly instead of every page before it
+            if (pos < size() && get(pos) == ItemRowPlaceholder.INSTANCE) {
+                Timber.d("Loading page for pos <%s>", pos);
+                retrievePage(getPageStart(pos));
+            } else {
+                updateVisibleItemLoading();
             }
             return;
         }
+
+        if (fullyLoaded) {
+            Timber.d("Not loading more because fully loaded");
+            return;
+        }
+
+        if (mLastVisiblePosition != Integer.MAX_VALUE && mLastVisiblePosition >= itemsLoaded) {
+            Timber.d("Virtual loading: range %d-%d reaches past %d loaded items", mFirstVisiblePosition, mLastVisiblePosition, itemsLoaded);
+            retrieveNext();
+            return;
+        }
         if (chunkSize > 0) {
             // we can use chunkSize as indicator on when to load
             if (pos >= (itemsLoaded - (chunkSize / 1.7))) {
@@ -546,6 +644,27 @@ public class ItemRowAdapter extends MutableObjectAdapter<Object> {
             return;
         }
 
+        retrieveChunk(itemsLoaded);
+    }
+
+    private boolean isSparse() {
+        return placeholdersEnabled && chunkSize > 0;
+    }
+
+    private int getPageStart(int pos) {
+        return pos - (pos % chunkSize);
+    }
+
+    private void retrievePage(int startIndex) {
+        if (isCurrentlyRetrieving() || chunkSize == 0) {
+            return;
+        }
+
+        pageStartIndex = startIndex;
+        retrieveChunk(startIndex);
+    }
+
+    private void retrieveChunk(int startIndex) {
         switch (queryType) {
             case LiveTvChannel:
                 if (mTvChannelQuery == null) {
@@ -553,7 +672,7 @@ public class ItemRowAdapter extends MutableObjectAdapter<Object> {
                 }
                 notifyRetrieveStarted();
 
-                ItemRowAdapterHelperKt.retrieveLiveTvChannels(this, api.getValue(), mTvChannelQuery, itemsLoaded, chunkSize);
+                ItemRowAdapterHelperKt.retrieveLiveTvChannels(this, api.getValue(), mTvChannelQuery, startIndex, chunkSize);
                 break;
 
             case Artists:
@@ -562,7 +681,7 @@ public class ItemRowAdapter extends MutableObjectAdapter<Object> {
                 }
                 notifyRetrieveStarted();
 
-                ItemRowAdapterHelperKt.retrieveArtists(this, api.getValue(), mArtistsQuery, itemsLoaded, chunkSize);
+                ItemRowAdapterHelperKt.retrieveArtists(this, api.getValue(), mArtistsQuery, startIndex, chunkSize);
                 break;
 
             case AlbumArtists:
@@ -571,7 +690,7 @@ public class ItemRowAdapter extends MutableObjectAdapter<Object> {
                 }
                 notifyRetrieveStarted();
 
-                ItemRowAdapterHelperKt.retrieveAlbumArtists(this, api.getValue(), mAlbumArtistsQuery, itemsLoaded, chunkSize);
+                ItemRowAdapterHelperKt.retrieveAlbumArtists(this, api.getValue(), mAlbumArtistsQuery, startIndex, chunkSize);
                 break;
 
             default:
@@ -580,7 +699,7 @@ public class ItemRowAdapter extends MutableObjectAdapter<Object> {
                 }
                 notifyRetrieveStarted();
 
-                ItemRowAdapterHelperKt.retrieveItems(this, api.getValue(), mQuery, itemsLoaded, chunkSize);
+                ItemRowAdapterHelperKt.retrieveItems(this, api.getValue(), mQuery, startIndex, chunkSize);
                 break;
         }
     }
@@ -595,7 +714,7 @@ public class ItemRowAdapter extends MutableObjectAdapter<Object> {
         for (ChangeTriggerType trigger : reRetrieveTriggers) {
             switch (trigger) {
                 case LibraryUpdated:
-                    retrieve |= dataRefreshService.getLastLibraryChange() != null && lastFullRetrieve.isBefore(dataRefreshService.getLastLibraryChange());
+                    retrieve |= applyLibraryChanges();
                     break;
                 case MoviePlayback:
                     retrieve |= dataRefreshService.getLastMoviePlayback() != null && lastFullRetrieve.isBefore(dataRefreshService.getLastMoviePlayback());
@@ -616,6 +735,22 @@ public class ItemRowAdapter extends MutableObjectAdapter<Object> {
 
         return retrieve;
     }
+    /**
+     * Apply the library changes published since the last check to the loaded items.
+     * @return true when the row has to be retrieved again
+     */
+    public boolean applyLibraryChanges() {
+        if (lastFullRetrieve == null) return false;
+
+        LibraryChangeBus libraryChangeBus = KoinJavaComponent.get(LibraryChangeBus.class);
+        List<LibraryChange> changes = libraryChangeBus.getChangesSince(libraryChangesApplied);
+        if (changes == null) return true;
+        if (changes.isEmpty()) return false;
+
+        libraryChangesApplied = changes.get(changes.size() - 1).getTime();
+        return ItemRowAdapterHelperKt.applyLibraryChanges(this, api.getValue(), changes);
+    }
+
     /**
      * Sets scroll state for performance optimization
      * @param isScrolling true if scrolling, false if idle
@@ -651,12 +786,6 @@ public class ItemRowAdapter extends MutableObjectAdapter<Object> {
             lastVisible = temp;
         }
 
-        long currentTime = System.currentTimeMillis();
-        if (currentTime - mLastVirtualUpdate < VIRTUAL_UPDATE_THROTTLE_MS) {
-            return;
-        }
-        mLastVirtualUpdate = currentTime;
-
         if (Math.abs(firstVisible - mFirstVisiblePosition) > 10 || Math.abs(lastVisible - mLastVisiblePosition) > 10) {
             int oldFirst = mFirstVisiblePosition;
             int oldLast = mLastVisiblePosition;
@@ -672,25 +801,59 @@ public class ItemRowAdapter extends MutableObjectAdapter<Object> {
     }
 
     private void updateVisibleItemLoading() {
-        if (mFirstVisiblePosition >= itemsLoaded && !fullyLoaded && !isCurrentlyRetrieving()) {
-            int targetSize = Math.min(mLastVisiblePosition + (VISIBLE_BUFFER_SIZE / 2), totalItems);
-            if (targetSize > itemsLoaded + (chunkSize / 2)) { // Load half-chunk at a time
-                Timber.d("Virtual loading: need items %d-%d, currently have %d",
-                    mFirstVisiblePosition, mLastVisiblePosition, itemsLoaded);
-                retrieveNext();
+        if (mLastVisiblePosition == Integer.MAX_VALUE || chunkSize == 0 || isCurrentlyRetrieving()) return;
+
+        if (isSparse()) {
+            // Load the first missing page in the visible range, the next one follows when it finished
+            int end = Math.min(mLastVisiblePosition + 1, size());
+            for (int pos = mFirstVisiblePosition; pos < end; pos++) {
+                if (get(pos) == ItemRowPlaceholder.INSTANCE) {
+                    Timber.d("Virtual loading: loading page at %d", getPageStart(pos));
+                    retrievePage(getPageStart(pos));
+                    return;
+                }
             }
+            return;
+        }
+
+        if (!fullyLoaded && mLastVisiblePosition >= itemsLoaded) {
+            Timber.d("Virtual loading: need items %d-%d, currently have %d",
+                mFirstVisiblePosition, mLastVisiblePosition, itemsLoaded);
+            retrieveNext();
         }
-        unbindInvisibleItems();
     }
-    private void unbindInvisibleItems() {
-        // This would require custom implementation in the presenter
-        // For now, we'll rely on RecyclerView's built-in recycling
+
+    /**
+     * Replace loaded pages far from the visible range with placeholders so their items and
+     * images can be released. Evicted pages are loaded again when they are scrolled into view.
+     * Only applies when placeholders are enabled.
+     */
+    public void evictDistantItems() {
+        if (!placeholdersEnabled || chunkSize == 0 || mLastVisiblePosition == Integer.MAX_VALUE) return;
+        if (isCurrentlyRetrieving()) return;
+
+        int keepStart = mFirstVisiblePosition - chunkSize * RETAINED_PAGES;
+        int keepEnd = mLastVisiblePosition + chunkSize * RETAINED_PAGES;
+        int evicted = 0;
+
+        for (int start = 0; start < size(); start += chunkSize) {
+            int end = Math.min(start + chunkSize, size());
+            if (end > keepStart && start < keepEnd) continue;
+            if (get(start) == ItemRowPlaceholder.INSTANCE) continue;
+
+            setAll(start, Collections.nCopies(end - start, ItemRowPlaceholder.INSTANCE));
+            evicted += end - start;
+        }
+
+        if (evicted > 0) Timber.d("Evicted %d items outside of %d-%d", evicted, keepStart, keepEnd);
     }
 
     public void Retrieve() {
         notifyRetrieveStarted();
         lastFullRetrieve = Instant.now();
+        libraryChangesApplied = lastFullRetrieve;
         itemsLoaded = 0;
+        pageStartIndex = -1;
         switch (queryType) {
             case Items:
                 if (mQuery.getStartIndex() != null && mQuery.getLimit() != null) {
@@ -849,10 +1012,14 @@ public class ItemRowAdapter extends MutableObjectAdapter<Object> {
         if (exception != null) Timber.w(exception, "Failed to retrieve items");
 
         setCurrentlyRetrieving(false);
+        pageStartIndex = -1;
         if (mRetrieveFinishedListener != null) {
             if (exception == null) mRetrieveFinishedListener.onResponse();
             else mRetrieveFinishedListener.onError(exception);
         }
+
+        // Keep loading while the visible range is not filled
+        if (exception == null && placeholdersEnabled) updateVisibleItemLoading();
     }
 
     public void setRetrieveFinishedListener(EmptyResponse response) {
@@ -9,9 +9,14 @@ import kotlinx.coroutines.launch
 import kotlinx.coroutines.withContext
 import org.jellyfin.androidtv.R
 import org.jellyfin.androidtv.constant.LiveTvOption
+import org.jellyfin.androidtv.data.eventhandling.LibraryChange
+import org.jellyfin.androidtv.data.eventhandling.LibraryChangeKind
 import org.jellyfin.androidtv.data.querying.GetAdditionalPartsRequest
 import org.jellyfin.androidtv.data.querying.GetSpecialsRequest
 import org.jellyfin.androidtv.data.querying.GetTrailersRequest
+import org.jellyfin.androidtv.data.repository.ItemRepository
+import org.jellyfin.androidtv.data.repository.LibraryIndexRepository
+import org.jellyfin.androidtv.data.repository.LibraryMembershipRepository
 import org.jellyfin.androidtv.data.repository.UserViewsRepository
 import org.jellyfin.androidtv.preference.UserSettingPreferences
 import org.jellyfin.sdk.model.api.BaseItemDto
@@ -22,6 +27,7 @@ import java.util.UUID
 import org.jellyfin.androidtv.ui.GridButton
 import org.jellyfin.androidtv.ui.browsing.BrowseGridFragment.SortOption
 import org.jellyfin.sdk.api.client.ApiClient
+import org.jellyfin.sdk.api.client.exception.ApiClientException
 import org.jellyfin.sdk.api.client.exception.InvalidStatusException
 import org.jellyfin.sdk.api.client.extensions.artistsApi
 import org.jellyfin.sdk.api.client.extensions.itemsApi
@@ -34,6 +40,8 @@ import org.jellyfin.sdk.api.client.extensions.videosApi
 import org.jellyfin.sdk.model.api.ItemFilter
 import org.jellyfin.sdk.model.api.ItemSortBy
 import org.jellyfin.sdk.model.api.SeriesTimerInfoDto
+import org.jellyfin.sdk.model.api.SortOrder
+import org.jellyfin.sdk.model.api.UserItemDataDto
 import org.jellyfin.sdk.model.api.request.GetAlbumArtistsRequest
 import org.jellyfin.sdk.model.api.request.GetArtistsRequest
 import org.jellyfin.sdk.model.api.request.GetItemsRequest
@@ -46,35 +54,59 @@ import org.jellyfin.sdk.model.api.request.GetResumeItemsRequest
 import org.jellyfin.sdk.model.api.request.GetSeasonsRequest
 import org.jellyfin.sdk.model.api.request.GetSimilarItemsRequest
 import org.jellyfin.sdk.model.api.request.GetUpcomingEpisodesRequest
+import org.koin.java.KoinJavaComponent.inject
 import timber.log.Timber
+import kotlin.math.max
 import kotlin.math.min
 
 fun <T : Any> ItemRowAdapter.setItems(
 	items: Collection<T>,
 	transform: (T, Int) -> BaseRowItem?,
 ) {
-	Timber.d("Creating items from $itemsLoaded existing and ${items.size} new, adapter size is ${size()}")
+	// Pages loaded out of order are set at their own position, other pages follow the loaded items
+	val isPage = pageStartIndex >= 0
+	val offset = if (isPage) pageStartIndex else itemsLoaded
+	Timber.d("Setting ${items.size} items at $offset, adapter size is ${size()}")
 
-	val allItems = buildList {
-		// Add current items before loaded items
-		repeat(itemsLoaded) {
-			add(this@setItems.get(it))
-		}
+	val mappedItems = items.mapIndexedNotNull { index, item ->
+		transform(item, offset + index)
+	}
 
-		// Add loaded items
-		val mappedItems = items.mapIndexedNotNull { index, item ->
-			transform(item, itemsLoaded + index)
-		}
-		mappedItems.forEach { add(it) }
+	if (itemsLoaded == 0 && !isPage) {
+		// First page or a refresh, diff against the current items so unchanged cards keep their views
+		val allItems = buildList {
+			addAll(mappedItems)
 
-		// Add current items after loaded items
-		repeat(min(totalItems, size()) - itemsLoaded - mappedItems.size) {
-			add(this@setItems.get(it + itemsLoaded + mappedItems.size))
+			// Add current items after loaded items
+			for (index in mappedItems.size until min(totalItems, size())) {
+				add(this@setItems.get(index))
+			}
 		}
+
+		if (size() == 0) addAll(0, allItems)
+		else replaceAll(allItems)
+	} else {
+		// Following pages only notify the range they fill in
+		val replaced = (size() - offset).coerceIn(0, mappedItems.size)
+		setAll(offset, mappedItems.subList(0, replaced))
+		addAll(offset + replaced, mappedItems.subList(replaced, mappedItems.size))
+
+		// Drop items past the end of the result
+		val end = max(totalItems, offset + mappedItems.size)
+		if (size() > end) removeAt(end, size() - end)
 	}
 
-	replaceAll(allItems)
-	itemsLoaded = allItems.size
+	// Reserve a slot for every item in the result so the grid has its final size
+	if (isPlaceholdersEnabled && size() < totalItems) {
+		addAll(size(), List(totalItems - size()) { ItemRowPlaceholder })
+	}
+
+	// Loaded items are the items before the first gap
+	if (offset <= itemsLoaded) {
+		var end = max(itemsLoaded, offset + mappedItems.size)
+		while (end < size() && get(end) !== ItemRowPlaceholder) end++
+		itemsLoaded = end
+	}
 }
 
 fun ItemRowAdapter.retrieveResumeItems(api: ApiClient, query: GetResumeItemsRequest) {
@@ -252,7 +284,7 @@ fun ItemRowAdapter.retrieveAdditionalParts(api: ApiClient, query: GetAdditionalP
 }
 
 fun ItemRowAdapter.retrieveUserViews(api: ApiClient, userViewsRepository: UserViewsRepository) {
-	val userSettingPreferences by org.koin.java.KoinJavaComponent.inject<UserSettingPreferences>(UserSettingPreferences::class.java)
+	val userSettingPreferences by inject<UserSettingPreferences>(UserSettingPreferences::class.java)
 
 	ProcessLifecycleOwner.get().lifecycleScope.launch {
 		runCatching {
@@ -659,19 +691,24 @@ fun ItemRowAdapter.retrieveItems(
 	startIndex: Int,
 	batchSize: Int
 ) {
-	if (this.isScrolling && startIndex == 0) {
+	if (this.isScrolling && startIndex == 0 && pageStartIndex < 0) {
 		return
 	}
+	val libraryIndexRepository by inject<LibraryIndexRepository>(LibraryIndexRepository::class.java)
+	val libraryMembershipRepository by inject<LibraryMembershipRepository>(LibraryMembershipRepository::class.java)
+
 	ProcessLifecycleOwner.get().lifecycleScope.launch {
 		runCatching {
-			val response = withContext(Dispatchers.IO) {
-				api.itemsApi.getItems(
-					query.copy(
-						startIndex = startIndex,
-						limit = batchSize,
-					)
-				).content
-			}
+			val pageQuery = query.copy(
+				startIndex = startIndex,
+				limit = batchSize,
+			)
+
+			// Library grids are resolved from the on-device index when possible
+			val response = libraryIndexRepository.getItems(pageQuery)
+				?: withContext(Dispatchers.IO) {
+					api.itemsApi.getItems(pageQuery).content
+				}
 
 			totalItems = response.totalRecordCount
 			setItems(
@@ -685,6 +722,8 @@ fun ItemRowAdapter.retrieveItems(
 				},
 			)
 
+			libraryMembershipRepository.index(response.items)
+
 			if (itemsLoaded == 0) removeRow()
 		}.fold(
 			onSuccess = { notifyRetrieveFinished() },
@@ -790,6 +829,104 @@ fun setItemsStartLetter(
 	nameStartsWith = startLetter,
 )
 
+/**
+ * Find the position of the first item starting with [letter] in the name sorted result of [query]
+ * without loading the items before it. Only the amount of items sorting before the letter is
+ * requested. Grids resolved from the library index are counted in the same order they are shown.
+ * @param callback Receives the position, or null when it could not be determined
+ */
+fun ItemRowAdapter.retrieveStartLetterPosition(
+	api: ApiClient,
+	lifecycleOwner: LifecycleOwner,
+	query: GetItemsRequest,
+	letter: String,
+	callback: (Int?) -> Unit,
+) = retrieveStartLetterPosition(lifecycleOwner, letter, callback) { nameLessThan ->
+	val libraryIndexRepository by inject<LibraryIndexRepository>(LibraryIndexRepository::class.java)
+
+	libraryIndexRepository.countNameLessThan(query, nameLessThan) ?: api.itemsApi.getItems(
+		query.copy(
+			startIndex = 0,
+			limit = 0,
+			nameStartsWith = null,
+			nameLessThan = nameLessThan,
+			enableImages = false,
+			enableTotalRecordCount = true,
+		)
+	).content.totalRecordCount
+}
+
+fun ItemRowAdapter.retrieveStartLetterPosition(
+	api: ApiClient,
+	lifecycleOwner: LifecycleOwner,
+	query: GetArtistsRequest,
+	letter: String,
+	callback: (Int?) -> Unit,
+) = retrieveStartLetterPosition(lifecycleOwner, letter, callback) { nameLessThan ->
+	api.artistsApi.getArtists(
+		query.copy(
+			startIndex = 0,
+			limit = 0,
+			nameStartsWith = null,
+			nameLessThan = nameLessThan,
+			enableImages = false,
+			enableTotalRecordCount = true,
+		)
+	).content.totalRecordCount
+}
+
+fun ItemRowAdapter.retrieveStartLetterPosition(
+	api: ApiClient,
+	lifecycleOwner: LifecycleOwner,
+	query: GetAlbumArtistsRequest,
+	letter: String,
+	callback: (Int?) -> Unit,
+) = retrieveStartLetterPosition(lifecycleOwner, letter, callback) { nameLessThan ->
+	api.artistsApi.getAlbumArtists(
+		query.copy(
+			startIndex = 0,
+			limit = 0,
+			nameStartsWith = null,
+			nameLessThan = nameLessThan,
+			enableImages = false,
+			enableTotalRecordCount = true,
+		)
+	).content.totalRecordCount
+}
+
+private fun ItemRowAdapter.retrieveStartLetterPosition(
+	lifecycleOwner: LifecycleOwner,
+	letter: String,
+	callback: (Int?) -> Unit,
+	countBefore: suspend (nameLessThan: String) -> Int,
+) {
+	val descending = sortOrder == SortOrder.DESCENDING
+	// "#" covers everything sorting before the alphabet
+	if (letter == "#" && !descending) return callback(0)
+
+	// Sort names are lower case
+	val bound = when {
+		letter == "#" -> "a"
+		descending -> (letter.lowercase()[0] + 1).toString()
+		else -> letter.lowercase()
+	}
+
+	lifecycleOwner.lifecycleScope.launch {
+		runCatching {
+			withContext(Dispatchers.IO) { countBefore(bound) }
+		}.fold(
+			onSuccess = { count ->
+				val position = if (descending) totalItems - count else count
+				callback(position.coerceIn(0, max(totalItems - 1, 0)))
+			},
+			onFailure = { err ->
+				Timber.w(err, "Failed to find position of letter $letter")
+				callback(null)
+			}
+		)
+	}
+}
+
 /**
  * Updates the genres filter in a GetItemsRequest
  * @param request The original request
@@ -824,21 +961,7 @@ fun ItemRowAdapter.refreshItem(
 				// Item could be removed while API was loading, check if the index is valid first
 				if (index == -1) return@fold
 
-				// Strip number prefix from the refreshed item name to match bulk load behavior
-				val processedItem = refreshedBaseItem.copy(name = refreshedBaseItem.name?.let { name ->
-					Regex("^\\d+(.+)").find(name)?.groupValues?.get(1)?.trim() ?: name
-				})
-
-				set(
-					index = index,
-					element = BaseItemDtoBaseRowItem(
-						item = processedItem,
-						preferParentThumb = currentBaseRowItem.preferParentThumb,
-						staticHeight = currentBaseRowItem.staticHeight,
-						selectAction = currentBaseRowItem.selectAction,
-						preferSeriesPoster = currentBaseRowItem.preferSeriesPoster
-					)
-				)
+				set(index, currentBaseRowItem.withItem(refreshedBaseItem))
 			},
 			onFailure = { err ->
 				if (err is InvalidStatusException && err.status == 404) remove(currentBaseRowItem)
@@ -849,3 +972,83 @@ fun ItemRowAdapter.refreshItem(
 		callback()
 	}
 }
+
+private fun BaseItemDtoBaseRowItem.withItem(item: BaseItemDto): BaseItemDtoBaseRowItem {
+	// Strip number prefix from the refreshed item name to match bulk load behavior
+	val processedItem = item.copy(name = item.name?.let { name ->
+		Regex("^\\d+(.+)").find(name)?.groupValues?.get(1)?.trim() ?: name
+	})
+
+	return withProcessedItem(processedItem)
+}
+
+private fun BaseItemDtoBaseRowItem.withProcessedItem(item: BaseItemDto) = BaseItemDtoBaseRowItem(
+	item = item,
+	preferParentThumb = preferParentThumb,
+	staticHeight = staticHeight,
+	selectAction = selectAction,
+	preferSeriesPoster = preferSeriesPoster
+)
+
+/**
+ * Apply library [changes] to the loaded items. Removed items are dropped, updated items are
+ * retrieved again in a single request and changed user data is applied without a request.
+ * @return true when items were added to or removed from the folder of the row and it has to be
+ * retrieved again
+ */
+fun ItemRowAdapter.applyLibraryChanges(api: ApiClient, changes: List<LibraryChange>): Boolean {
+	val parentId = parentId
+	// Paged rows are retrieved again when their folder changed so later pages keep their position
+	val folderChanged = parentId != null && changes.any { change ->
+		parentId in change.parentIds && (change.kind == LibraryChangeKind.ADDED || (isChunked && change.kind == LibraryChangeKind.REMOVED))
+	}
+	if (folderChanged) return true
+
+	val removed = changes.filter { it.kind == LibraryChangeKind.REMOVED }.flatMapTo(mutableSetOf()) { it.itemIds }
+	val updated = changes.filter { it.kind == LibraryChangeKind.UPDATED }.flatMapTo(mutableSetOf()) { it.itemIds } - removed
+	val userData = changes.filter { it.kind == LibraryChangeKind.USER_DATA }
+		.fold(mutableMapOf<UUID, UserItemDataDto>()) { userData, change -> userData.apply { putAll(change.userData) } }
+
+	val rowItems = (0 until size())
+		.mapNotNull { index -> get(index) as? BaseItemDtoBaseRowItem }
+		.filterNot { it is AudioQueueBaseRowItem }
+
+	rowItems.filter { it.baseItem?.id in removed }.forEach(::remove)
+
+	// Updated items are retrieved with their user data
+	for (rowItem in rowItems) {
+		val item = rowItem.baseItem ?: continue
+		if (item.id in removed || item.id in updated) continue
+		val data = userData[item.id] ?: continue
+
+		val index = indexOf(rowItem)
+		if (index != -1) set(index, rowItem.withProcessedItem(item.copy(userData = data)))
+	}
+
+	val updatedItems = rowItems.filter { it.baseItem?.id in updated }
+	if (updatedItems.isEmpty()) return false
+
+	ProcessLifecycleOwner.get().lifecycleScope.launch {
+		val items = try {
+			withContext(Dispatchers.IO) {
+				api.itemsApi.getItems(
+					ids = updatedItems.mapNotNull { it.baseItem?.id },
+					fields = ItemRepository.itemFields,
+				).content.items
+			}
+		} catch (err: ApiClientException) {
+			Timber.w(err, "Failed to refresh changed items")
+			return@launch
+		}
+
+		val itemsById = items.associateBy { it.id }
+		for (rowItem in updatedItems) {
+			val item = itemsById[rowItem.baseItem?.id] ?: continue
+			// Item could be removed while API was loading, check if the index is valid first
+			val index = indexOf(rowItem)
+			if (index != -1) set(index, rowItem.withItem(item))
+		}
+	}
+
+	return false
+}
@@ -0,0 +1,7 @@
+package org.jellyfin.androidtv.ui.itemhandling
+
+/**
+ * Stand-in for an item of a paged [ItemRowAdapter] that is not loaded yet or was evicted to save
+ * memory. Presenters skip it and show an empty card.
+ */
+object ItemRowPlaceholder
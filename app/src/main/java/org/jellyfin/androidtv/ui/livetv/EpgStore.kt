@@ -0,0 +1,325 @@
+@file:UseSerializers(UUIDSerializer::class)
+
+package org.jellyfin.androidtv.ui.livetv
+
+import android.content.Context
+import kotlinx.coroutines.CoroutineScope
+import kotlinx.coroutines.Dispatchers
+import kotlinx.coroutines.Job
+import kotlinx.coroutines.SupervisorJob
+import kotlinx.coroutines.delay
+import kotlinx.coroutines.launch
+import kotlinx.coroutines.sync.Mutex
+import kotlinx.coroutines.sync.withLock
+import kotlinx.coroutines.withContext
+import kotlinx.serialization.Serializable
+import kotlinx.serialization.SerializationException
+import kotlinx.serialization.UseSerializers
+import kotlinx.serialization.json.Json
+import org.jellyfin.androidtv.auth.repository.UserRepository
+import org.jellyfin.sdk.api.client.ApiClient
+import org.jellyfin.sdk.api.client.exception.ApiClientException
+import org.jellyfin.sdk.api.client.extensions.itemsApi
+import org.jellyfin.sdk.api.client.extensions.liveTvApi
+import org.jellyfin.sdk.model.api.BaseItemDto
+import org.jellyfin.sdk.model.api.BaseItemKind
+import org.jellyfin.sdk.model.api.ItemSortBy
+import org.jellyfin.sdk.model.api.request.GetItemsRequest
+import org.jellyfin.sdk.model.serializer.UUIDSerializer
+import timber.log.Timber
+import java.io.File
+import java.io.IOException
+import java.time.Instant
+import java.time.LocalDateTime
+import java.time.ZoneId
+import java.time.ZoneOffset
+import java.time.temporal.ChronoUnit
+import java.util.UUID
+import kotlin.time.Duration.Companion.hours
+import kotlin.time.Duration.Companion.minutes
+import kotlin.time.Duration.Companion.seconds
+
+/**
+ * Program guide data bucketed by channel and hour.
+ *
+ * Every bucket remembers when it was fetched and is refreshed once it expires or when the server
+ * reports programs in it as changed. The store is kept on disk so the guide opens from the stored
+ * programs after an app restart.
+ */
+class EpgStore(
+	context: Context,
+	private val api: ApiClient,
+	private val userRepository: UserRepository,
+) {
+	companion object {
+		/**
+		 * Bump when the stored format changes to ignore older stores.
+		 */
+		private const val VERSION = 1
+
+		private const val CHANNEL_BATCH_SIZE = 100
+		private const val CHANGE_LIMIT = 500
+
+		private val BUCKET_TTL = 12.hours
+		private val CHANGE_CHECK_INTERVAL = 15.minutes
+		private val SAVE_DELAY = 5.seconds
+
+		private val json = Json {
+			ignoreUnknownKeys = true
+			explicitNulls = false
+		}
+	}
+
+	@Serializable
+	private data class ChannelPrograms(
+		/**
+		 * Fetch time in epoch milliseconds by bucket start in epoch hours.
+		 */
+		val buckets: MutableMap<Long, Long> = mutableMapOf(),
+		var programs: List<BaseItemDto> = emptyList(),
+	)
+
+	@Serializable
+	private data class StoredPrograms(
+		val version: Int,
+		val userId: UUID,
+		val checkedAt: Long,
+		val channels: Map<UUID, ChannelPrograms>,
+	)
+
+	private val directory = File(context.cacheDir, "epg")
+	private val scope = CoroutineScope(Dispatchers.IO + SupervisorJob())
+	private val lock = Mutex()
+
+	private var userId: UUID? = null
+	private var channels = mutableMapOf<UUID, ChannelPrograms>()
+	private var checkedAt = 0L
+	private var saveJob: Job? = null
+
+	/**
+	 * Get the programs of [channelIds] airing between [start] and [end], fetching only missing,
+	 * expired or changed buckets. Stored programs are returned when the server can't be reached.
+	 * @param invalidate Expire all buckets first, used after the recording state of programs changed
+	 */
+	suspend fun getPrograms(
+		channelIds: List<UUID>,
+		start: LocalDateTime,
+		end: LocalDateTime,
+		invalidate: Boolean = false,
+	): Map<UUID, List<BaseItemDto>> = withContext(Dispatchers.IO) {
+		lock.withLock {
+			load()
+			if (invalidate) {
+				// Stored programs are kept as fallback when the refetch fails
+				channels.values.forEach { it.buckets.clear() }
+			}
+			checkChanges()
+			fill(channelIds, start, end)
+
+			channelIds.associateWith { channelId ->
+				channels[channelId]?.programs.orEmpty().filter { it.overlaps(start, end) }
+			}
+		}
+	}
+
+	/**
+	 * Fill the buckets of [channelIds] between [start] and [end] in the background.
+	 */
+	fun prefetch(channelIds: List<UUID>, start: LocalDateTime, end: LocalDateTime) {
+		if (channelIds.isEmpty()) return
+
+		scope.launch {
+			lock.withLock {
+				load()
+				fill(channelIds, start, end)
+			}
+		}
+	}
+
+	private fun hourOf(dateTime: LocalDateTime) = dateTime.truncatedTo(ChronoUnit.HOURS).toEpochSecond(ZoneOffset.UTC) / 3600
+
+	private fun hoursBetween(start: LocalDateTime, end: LocalDateTime) = hourOf(start)..hourOf(end.minusNanos(1))
+
+	private fun startOfHour(hour: Long) = LocalDateTime.ofEpochSecond(hour * 3600, 0, ZoneOffset.UTC)
+
+	private fun BaseItemDto.overlaps(start: LocalDateTime, end: LocalDateTime): Boolean {
+		val programStart = startDate ?: return false
+		val programEnd = endDate ?: return false
+		return programStart.isBefore(end) && programEnd.isAfter(start)
+	}
+
+	private suspend fun fill(channelIds: List<UUID>, start: LocalDateTime, end: LocalDateTime) {
+		val now = System.currentTimeMillis()
+		val hours = hoursBetween(start, end)
+
+		// Channels missing the same hours share a request
+		val missing = channelIds
+			.mapNotNull { channelId ->
+				val buckets = channels[channelId]?.buckets
+				val missingHours = hours.filter { hour ->
+					val fetchedAt = buckets?.get(hour) ?: return@filter true
+					now - fetchedAt > BUCKET_TTL.inWholeMilliseconds
+				}
+				if (missingHours.isEmpty()) null
+				else channelId to missingHours.first()..missingHours.last()
+			}
+			.groupBy({ it.second }, { it.first })
+
+		if (missing.isEmpty()) return
+
+		for ((missingHours, ids) in missing) {
+			val from = startOfHour(missingHours.first)
+			val to = startOfHour(missingHours.last + 1)
+
+			for (batch in ids.chunked(CHANNEL_BATCH_SIZE)) {
+				val programs = try {
+					api.liveTvApi.getLiveTvPrograms(
+						channelIds = batch,
+						enableImages = false,
+						sortBy = setOf(ItemSortBy.START_DATE),
+						maxStartDate = to.minusSeconds(1),
+						minEndDate = from,
+					).content.items
+				} catch (err: ApiClientException) {
+					Timber.w(err, "Unable to retrieve programs")
+					continue
+				}
+
+				val programsByChannel = programs.groupBy { it.channelId }
+				for (channelId in batch) {
+					val entry = channels.getOrPut(channelId) { ChannelPrograms() }
+					// The response contains every program in the fetched hours, replace the stored ones
+					entry.programs = (entry.programs.filterNot { it.overlaps(from, to) } + programsByChannel[channelId].orEmpty())
+						.sortedBy { it.startDate }
+					missingHours.forEach { hour -> entry.buckets[hour] = now }
+				}
+			}
+		}
+
+		prune()
+		scheduleSave()
+	}
+
+	/**
+	 * Expire the buckets of programs the server saved since the last check. A guide refresh saves
+	 * all programs, in that case every bucket is expired.
+	 */
+	private suspend fun checkChanges() {
+		val now = System.currentTimeMillis()
+		if (now - checkedAt < CHANGE_CHECK_INTERVAL.inWholeMilliseconds) return
+		if (checkedAt == 0L || channels.isEmpty()) {
+			checkedAt = now
+			return
+		}
+
+		// Dates of the SDK are in local time
+		val since = LocalDateTime.ofInstant(Instant.ofEpochMilli(checkedAt), ZoneId.systemDefault())
+		val changed = try {
+			api.itemsApi.getItems(
+				GetItemsRequest(
+					includeItemTypes = setOf(BaseItemKind.LIVE_TV_PROGRAM),
+					recursive = true,
+					minDateLastSaved = since,
+					limit = CHANGE_LIMIT,
+					enableImages = false,
+					enableUserData = false,
+					enableTotalRecordCount = false,
+				)
+			).content.items
+		} catch (err: ApiClientException) {
+			Timber.w(err, "Unable to check for program changes")
+			return
+		}
+
+		checkedAt = now
+		if (changed.isEmpty()) return
+
+		if (changed.size >= CHANGE_LIMIT) {
+			Timber.i("Guide data changed, expiring all buckets")
+			channels.values.forEach { it.buckets.clear() }
+		} else {
+			for (program in changed) {
+				val buckets = channels[program.channelId]?.buckets ?: continue
+				val programStart = program.startDate ?: continue
+				val programEnd = program.endDate ?: continue
+				hoursBetween(programStart, programEnd).forEach(buckets::remove)
+			}
+			Timber.d("Expired buckets of ${changed.size} changed programs")
+		}
+
+		scheduleSave()
+	}
+
+	/**
+	 * Drop programs and buckets that ended more than an hour ago.
+	 */
+	private fun prune() {
+		val cutoff = LocalDateTime.now().minusHours(1)
+		val cutoffHour = hourOf(cutoff)
+
+		for (entry in channels.values) {
+			entry.programs = entry.programs.filter { it.endDate?.isAfter(cutoff) == true }
+			entry.buckets.keys.removeAll { it < cutoffHour }
+		}
+		channels.values.removeAll { it.buckets.isEmpty() && it.programs.isEmpty() }
+	}
+
+	private fun load() {
+		val currentUserId = userRepository.currentUser.value?.id
+		if (currentUserId == userId) return
+
+		// Programs include the recording state of the user
+		userId = currentUserId
+		channels = mutableMapOf()
+		checkedAt = 0L
+		if (currentUserId == null) return
+
+		val file = File(directory, "$currentUserId.json")
+		if (!file.exists()) return
+
+		try {
+			val stored = json.decodeFromString(StoredPrograms.serializer(), file.readText())
+			if (stored.version != VERSION || stored.userId != currentUserId) return
+
+			channels = stored.channels.toMutableMap()
+			checkedAt = stored.checkedAt
+			prune()
+			Timber.d("Loaded stored programs for ${channels.size} channels")
+		} catch (err: SerializationException) {
+			Timber.w(err, "Discarding corrupt program store")
+			file.delete()
+		} catch (err: IOException) {
+			Timber.w(err, "Unable to read program store")
+		}
+	}
+
+	private fun scheduleSave() {
+		// Write behind, fills and prefetches often follow each other
+		saveJob?.cancel()
+		saveJob = scope.launch {
+			delay(SAVE_DELAY)
+			lock.withLock { save() }
+		}
+	}
+
+	private fun save() {
+		val userId = userId ?: return
+		val stored = StoredPrograms(
+			version = VERSION,
+			userId = userId,
+			checkedAt = checkedAt,
+			channels = channels,
+		)
+
+		try {
+			directory.mkdirs()
+			// Write to a temporary file first so a partial store is never read
+			val file = File(directory, "$userId.json")
+			val tmp = File(directory, "${file.name}.tmp")
+			tmp.writeText(json.encodeToString(StoredPrograms.serializer(), stored))
+			if (!tmp.renameTo(file)) tmp.delete()
+		} catch (err: IOException) {
+			Timber.w(err, "Unable to write program store")
+		}
+	}
+}
@@ -0,0 +1,184 @@
+package org.jellyfin.androidtv.ui.livetv
+
+import android.annotation.SuppressLint
+import android.content.Context
+import android.util.SparseArray
+import android.view.View
+import android.view.ViewGroup
+import androidx.core.util.forEach
+import androidx.core.util.size
+import org.jellyfin.androidtv.ui.ProgramGridCell
+import org.jellyfin.sdk.model.api.BaseItemDto
+
+/**
+ * A program in a guide row, positioned in pixels from the start of the guide.
+ */
+data class GuideCell(
+	var program: BaseItemDto,
+	val start: Int,
+	val width: Int,
+	val isFirst: Boolean,
+	val isLast: Boolean,
+) {
+	val end get() = start + width
+}
+
+/**
+ * Program cells shared by all rows of a guide. Cells leaving the visible window of a row are
+ * returned here and rebound by the next row that needs one.
+ */
+class GuideCellPool(
+	private val guide: LiveTvGuide,
+) {
+	private val cells = ArrayDeque<ProgramGridCell>()
+
+	fun acquire(context: Context) = cells.removeLastOrNull() ?: ProgramGridCell(context, guide)
+
+	fun release(cell: ProgramGridCell) {
+		cells.addLast(cell)
+	}
+}
+
+/**
+ * A single channel row of the guide. Cells are laid out at their position in the guide and only
+ * the cells around the visible part of the row are attached, the row is scrolled horizontally with
+ * [setOffset] instead of a scroll view so all rows share the same offset.
+ */
+@SuppressLint("ViewConstructor")
+class GuideProgramRow(
+	context: Context,
+	private val pool: GuideCellPool,
+	private val rowHeight: Int,
+) : ViewGroup(context) {
+	private var cells: List<GuideCell> = emptyList()
+	private val attached = SparseArray<ProgramGridCell>()
+	private var offset = 0
+
+	/**
+	 * Called with the bounds of a cell when it receives focus so the guide can scroll it into view.
+	 */
+	var onCellFocused: ((row: GuideProgramRow, start: Int, end: Int) -> Unit)? = null
+
+	/**
+	 * Called when a cell changes its program, for example after scheduling a recording.
+	 */
+	var onProgramChanged: ((program: BaseItemDto) -> Unit)? = null
+
+	init {
+		isFocusable = false
+		clipChildren = true
+	}
+
+	fun setCells(cells: List<GuideCell>, offset: Int) {
+		attached.forEach { _, cell -> recycle(cell) }
+		attached.clear()
+
+		this.cells = cells
+		this.offset = offset
+		scrollTo(offset, 0)
+		updateWindow()
+	}
+
+	fun setOffset(offset: Int) {
+		if (offset == this.offset) return
+
+		this.offset = offset
+		scrollTo(offset, 0)
+		updateWindow()
+	}
+
+	/**
+	 * Focus the first or last cell of the row, scrolling the guide when needed.
+	 */
+	fun focusCell(last: Boolean) {
+		val index = if (last) cells.lastIndex else 0
+		val cell = cells.getOrNull(index) ?: return
+
+		onCellFocused?.invoke(this, cell.start, cell.end)
+		attached[index]?.requestFocus()
+	}
+
+	private fun updateWindow() {
+		if (cells.isEmpty()) return
+
+		// Rows are not measured yet when first bound, the screen is a safe upper bound
+		val viewport = width.takeIf { it > 0 } ?: resources.displayMetrics.widthPixels
+		val windowStart = offset - viewport
+		val windowEnd = offset + viewport * 2
+
+		// Keep one cell past each side of the window so focus can always move to the next cell
+		val first = (cells.indexOfFirst { it.end > windowStart }.takeIf { it >= 0 } ?: cells.lastIndex) - 1
+		val last = (cells.indexOfLast { it.start < windowEnd }.takeIf { it >= 0 } ?: 0) + 1
+		val range = first.coerceAtLeast(0)..last.coerceAtMost(cells.lastIndex)
+
+		for (i in attached.size - 1 downTo 0) {
+			val index = attached.keyAt(i)
+			val cell = attached.valueAt(i)
+			// Never detach the focused cell, it would move focus out of the guide
+			if (index in range || cell.hasFocus()) continue
+
+			attached.removeAt(i)
+			recycle(cell)
+		}
+
+		for (index in range) {
+			if (attached[index] != null) continue
+
+			val cell = pool.acquire(context)
+			bind(cell, cells[index])
+			attached.put(index, cell)
+			addView(cell)
+		}
+	}
+
+	private fun bind(view: ProgramGridCell, cell: GuideCell) {
+		view.setProgram(cell.program)
+		if (cell.isFirst) view.setFirst()
+		if (cell.isLast) view.setLast()
+
+		// Keep the change when the cell is rebound later
+		view.setOnProgramChangedListener { program ->
+			cell.program = program
+			onProgramChanged?.invoke(program)
+		}
+	}
+
+	private fun recycle(cell: ProgramGridCell) {
+		cell.setOnProgramChangedListener(null)
+		removeView(cell)
+		pool.release(cell)
+	}
+
+	override fun requestChildFocus(child: View?, focused: View?) {
+		super.requestChildFocus(child, focused)
+
+		val index = attached.indexOfValue(child as? ProgramGridCell ?: return)
+		if (index < 0) return
+		val cell = cells[attached.keyAt(index)]
+		onCellFocused?.invoke(this, cell.start, cell.end)
+	}
+
+	override fun onMeasure(widthMeasureSpec: Int, heightMeasureSpec: Int) {
+		setMeasuredDimension(MeasureSpec.getSize(widthMeasureSpec), rowHeight)
+
+		val childHeightSpec = MeasureSpec.makeMeasureSpec(rowHeight, MeasureSpec.EXACTLY)
+		attached.forEach { index, view ->
+			val childWidthSpec = MeasureSpec.makeMeasureSpec(cells[index].width, MeasureSpec.EXACTLY)
+			view.measure(childWidthSpec, childHeightSpec)
+		}
+	}
+
+	override fun onLayout(changed: Boolean, l: Int, t: Int, r: Int, b: Int) {
+		attached.forEach { index, view ->
+			val cell = cells[index]
+			view.layout(cell.start, 0, cell.end, rowHeight)
+		}
+	}
+
+	override fun onSizeChanged(w: Int, h: Int, oldw: Int, oldh: Int) {
+		super.onSizeChanged(w, h, oldw, oldh)
+
+		// The window was sized for the screen before the first layout, trim it after the layout pass
+		if (w != oldw) post { updateWindow() }
+	}
+}
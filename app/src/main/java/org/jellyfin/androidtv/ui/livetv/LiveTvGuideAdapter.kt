@@ -0,0 +1,233 @@
+package org.jellyfin.androidtv.ui.livetv
+
+import android.annotation.SuppressLint
+import android.content.Context
+import android.util.TypedValue
+import android.view.View
+import android.view.ViewGroup
+import android.widget.LinearLayout
+import android.widget.Space
+import androidx.recyclerview.widget.RecyclerView
+import org.jellyfin.androidtv.ui.GuideChannelHeader
+import org.jellyfin.androidtv.ui.GuidePagingButton
+import org.jellyfin.sdk.model.api.BaseItemDto
+import java.time.Duration
+import java.time.LocalDateTime
+import java.util.UUID
+
+sealed interface GuideRowItem {
+	/**
+	 * A button loading the page of channels starting at [start].
+	 */
+	data class Paging(val start: Int, val label: String) : GuideRowItem
+
+	class Channel(
+		var channel: BaseItemDto,
+		var programs: List<BaseItemDto>,
+	) : GuideRowItem {
+		// Cells are created when the row is first shown
+		var cells: List<GuideCell>? = null
+	}
+}
+
+/**
+ * Adapter for the rows of the live tv guide. Rows and program cells are recycled: paging through
+ * channels or time rebinds the existing views and only the cells around the visible part of the
+ * guide are attached.
+ */
+class LiveTvGuideAdapter(
+	private val context: Context,
+	private val guide: LiveTvGuide,
+	private val rowHeight: Int,
+	private val pixelsPerMinute: Int,
+	private val onOffsetChanged: (offset: Int) -> Unit,
+) : RecyclerView.Adapter<LiveTvGuideAdapter.ViewHolder>() {
+	companion object {
+		private const val TYPE_CHANNEL = 0
+		private const val TYPE_PAGING = 1
+		// Width of the channel column in the guide layout
+		private const val HEADER_WIDTH_SP = 160f
+	}
+
+	sealed class ViewHolder(view: View) : RecyclerView.ViewHolder(view)
+
+	class ChannelViewHolder(
+		view: View,
+		val header: GuideChannelHeader,
+		val row: GuideProgramRow,
+	) : ViewHolder(view)
+
+	class PagingViewHolder(
+		view: View,
+		val button: GuidePagingButton,
+	) : ViewHolder(view)
+
+	private val pool = GuideCellPool(guide)
+	private val attachedRows = mutableSetOf<GuideProgramRow>()
+	private var items: List<GuideRowItem> = emptyList()
+	private var guideStart = LocalDateTime.now()
+	private var guideEnd = LocalDateTime.now()
+	private var contentWidth = 0
+
+	/**
+	 * Horizontal scroll position of all rows in pixels.
+	 */
+	var offset = 0
+		private set
+
+	val channelCount get() = items.count { it is GuideRowItem.Channel }
+
+	@SuppressLint("NotifyDataSetChanged")
+	fun setRows(rows: List<GuideRowItem>, start: LocalDateTime, end: LocalDateTime) {
+		items = rows
+		guideStart = start
+		guideEnd = end
+		contentWidth = Duration.between(start, end).toMinutes().toInt() * pixelsPerMinute
+
+		// Rows are rebound, not recreated
+		offset = 0
+		notifyDataSetChanged()
+		onOffsetChanged(0)
+	}
+
+	fun getPosition(channelId: UUID) = items.indexOfFirst { it is GuideRowItem.Channel && it.channel.id == channelId }
+
+	fun getPrograms(channelId: UUID): List<BaseItemDto> = (items.getOrNull(getPosition(channelId)) as? GuideRowItem.Channel)?.programs.orEmpty()
+
+	fun updateChannel(channel: BaseItemDto) {
+		val position = getPosition(channel.id)
+		(items.getOrNull(position) as? GuideRowItem.Channel)?.channel = channel
+	}
+
+	private fun setOffset(offset: Int, viewport: Int) {
+		val clamped = offset.coerceAtMost(contentWidth - viewport).coerceAtLeast(0)
+		if (clamped == this.offset) return
+
+		this.offset = clamped
+		attachedRows.forEach { it.setOffset(clamped) }
+		onOffsetChanged(clamped)
+	}
+
+	private fun onCellFocused(row: GuideProgramRow, start: Int, end: Int) {
+		val viewport = row.width
+		if (viewport == 0) return
+
+		val newOffset = when {
+			start < offset -> start
+			end > offset + viewport -> minOf(start, end - viewport)
+			else -> return
+		}
+		setOffset(newOffset, viewport)
+	}
+
+	private fun onProgramChanged(program: BaseItemDto) {
+		val channelId = program.channelId ?: return
+		val item = items.getOrNull(getPosition(channelId)) as? GuideRowItem.Channel ?: return
+		item.programs = item.programs.map { if (it.id == program.id) program else it }
+	}
+
+	override fun getItemCount() = items.size
+
+	override fun getItemViewType(position: Int) = when (items[position]) {
+		is GuideRowItem.Channel -> TYPE_CHANNEL
+		is GuideRowItem.Paging -> TYPE_PAGING
+	}
+
+	override fun onCreateViewHolder(parent: ViewGroup, viewType: Int): ViewHolder {
+		val layout = LinearLayout(context).apply {
+			orientation = LinearLayout.HORIZONTAL
+			layoutParams = RecyclerView.LayoutParams(ViewGroup.LayoutParams.MATCH_PARENT, rowHeight)
+		}
+
+		return when (viewType) {
+			TYPE_PAGING -> {
+				val button = GuidePagingButton(context)
+				val headerWidth = TypedValue.applyDimension(TypedValue.COMPLEX_UNIT_SP, HEADER_WIDTH_SP, context.resources.displayMetrics).toInt()
+				layout.addView(Space(context), headerWidth, rowHeight)
+				layout.addView(button, LinearLayout.LayoutParams(0, rowHeight, 1f))
+				PagingViewHolder(layout, button)
+			}
+
+			else -> {
+				val header = GuideChannelHeader(context, guide)
+				val row = GuideProgramRow(context, pool, rowHeight)
+				row.onCellFocused = ::onCellFocused
+				row.onProgramChanged = ::onProgramChanged
+				layout.addView(header, LinearLayout.LayoutParams(ViewGroup.LayoutParams.WRAP_CONTENT, rowHeight))
+				layout.addView(row, LinearLayout.LayoutParams(0, rowHeight, 1f))
+				ChannelViewHolder(layout, header, row)
+			}
+		}
+	}
+
+	override fun onBindViewHolder(holder: ViewHolder, position: Int) {
+		when (holder) {
+			is PagingViewHolder -> {
+				val item = items[position] as GuideRowItem.Paging
+				holder.button.setPage(guide, item.start, item.label)
+			}
+
+			is ChannelViewHolder -> {
+				val item = items[position] as GuideRowItem.Channel
+				holder.header.channel = item.channel
+				holder.header.loadImage()
+
+				val cells = item.cells ?: createGuideCells(item).also { item.cells = it }
+				holder.row.setCells(cells, offset)
+			}
+		}
+	}
+
+	override fun onViewAttachedToWindow(holder: ViewHolder) {
+		if (holder !is ChannelViewHolder) return
+
+		attachedRows.add(holder.row)
+		holder.row.setOffset(offset)
+	}
+
+	override fun onViewDetachedFromWindow(holder: ViewHolder) {
+		if (holder is ChannelViewHolder) attachedRows.remove(holder.row)
+	}
+
+	private fun createGuideCells(item: GuideRowItem.Channel): List<GuideCell> {
+		val channelId = item.channel.id
+		val spans = mutableListOf<Triple<BaseItemDto, LocalDateTime, LocalDateTime>>()
+
+		if (item.programs.isEmpty()) {
+			// Split rows without data in half hour slots so focus moves in predictable steps
+			var slotStart = guideStart
+			while (slotStart.isBefore(guideEnd)) {
+				val slotEnd = minOf(slotStart.plusMinutes(30), guideEnd)
+				spans.add(Triple(createNoProgramDataBaseItem(context, channelId, slotStart, slotEnd), slotStart, slotEnd))
+				slotStart = slotEnd
+			}
+		} else {
+			var prevEnd = guideStart
+			for (program in item.programs) {
+				val start = maxOf(program.startDate ?: guideStart, guideStart)
+				if (start.isBefore(prevEnd)) continue
+				if (!start.isBefore(guideEnd)) break
+
+				// Fill gaps between programs
+				if (start.isAfter(prevEnd)) spans.add(Triple(createNoProgramDataBaseItem(context, channelId, prevEnd, start), prevEnd, start))
+
+				val end = minOf(program.endDate ?: guideEnd, guideEnd)
+				prevEnd = end
+				spans.add(Triple(program, start, end))
+			}
+
+			if (prevEnd.isBefore(guideEnd)) spans.add(Triple(createNoProgramDataBaseItem(context, channelId, prevEnd, guideEnd), prevEnd, guideEnd))
+		}
+
+		val visibleSpans = spans.filter { (_, start, end) -> Duration.between(start, end).toMinutes() > 0 }
+		return visibleSpans.mapIndexed { index, (program, start, end) ->
+			GuideCell(
+				program = program,
+				start = Duration.between(guideStart, start).toMinutes().toInt() * pixelsPerMinute,
+				width = Duration.between(start, end).toMinutes().toInt() * pixelsPerMinute,
+				isFirst = index == 0,
+				isLast = index == visibleSpans.lastIndex,
+			)
+		}
+	}
+}
@@ -3,10 +3,8 @@ package org.jellyfin.androidtv.ui.livetv;
 import static org.koin.java.KoinJavaComponent.inject;
 
 import android.app.AlertDialog;
-import android.content.Context;
 import android.content.DialogInterface;
 import android.graphics.Color;
-import android.os.AsyncTask;
 import android.os.Bundle;
 import android.os.Handler;
 import android.view.KeyEvent;
@@ -24,6 +22,8 @@ import androidx.annotation.Nullable;
 import androidx.core.content.ContextCompat;
 import androidx.fragment.app.Fragment;
 import androidx.lifecycle.Lifecycle;
+import androidx.recyclerview.widget.LinearLayoutManager;
+import androidx.recyclerview.widget.RecyclerView;
 
 import org.jellyfin.androidtv.R;
 import org.jellyfin.androidtv.constant.CustomMessage;
@@ -32,13 +32,8 @@ import org.jellyfin.androidtv.databinding.LiveTvGuideBinding;
 import org.jellyfin.androidtv.ui.AsyncImageView;
 import org.jellyfin.androidtv.ui.FriendlyDateButton;
 import org.jellyfin.androidtv.ui.GuideChannelHeader;
-import org.jellyfin.androidtv.ui.GuidePagingButton;
-import org.jellyfin.androidtv.ui.HorizontalScrollViewListener;
 import org.jellyfin.androidtv.ui.LiveProgramDetailPopup;
-import org.jellyfin.androidtv.ui.ObservableHorizontalScrollView;
-import org.jellyfin.androidtv.ui.ObservableScrollView;
 import org.jellyfin.androidtv.ui.ProgramGridCell;
-import org.jellyfin.androidtv.ui.ScrollViewListener;
 import org.jellyfin.androidtv.ui.navigation.ActivityDestinations;
 import org.jellyfin.androidtv.ui.navigation.NavigationRepository;
 import org.jellyfin.androidtv.util.CoroutineUtils;
@@ -54,11 +49,12 @@ import org.jellyfin.sdk.model.api.BaseItemDto;
 import org.jellyfin.androidtv.data.service.BackgroundService;
 
 import java.time.LocalDateTime;
-import java.time.ZoneOffset;
+import java.util.ArrayList;
 import java.util.List;
 import java.util.UUID;
 
 import kotlin.Lazy;
+import kotlin.Unit;
 import timber.log.Timber;
 
 public class LiveTvGuideFragment extends Fragment implements LiveTvGuide, View.OnKeyListener {
@@ -77,10 +73,9 @@ public class LiveTvGuideFragment extends Fragment implements LiveTvGuide, View.O
     private TextView mSummary;
     private AsyncImageView mImage;
     private LinearLayout mInfoRow;
-    private LinearLayout mChannels;
     private LinearLayout mTimeline;
-    private LinearLayout mProgramRows;
-    private ObservableScrollView mChannelScroller;
+    private RecyclerView mGuideRows;
+    LiveTvGuideAdapter mGuideAdapter;
     private HorizontalScrollView mTimelineScroller;
     private View mSpinner;
     private View mResetButton;
@@ -92,6 +87,8 @@ public class LiveTvGuideFragment extends Fragment implements LiveTvGuide, View.O
     private UUID mFirstFocusChannelId;
     private boolean focusAtEnd;
     private GuideFilters mFilters = new GuideFilters();
+    // Set when a settings screen was opened, the cached programs are drawn again with the new settings
+    private boolean mReloadOnResume;
 
     private LocalDateTime mCurrentGuideStart = LocalDateTime.now();
     private LocalDateTime mCurrentGuideEnd;
@@ -125,9 +122,8 @@ public class LiveTvGuideFragment extends Fragment implements LiveTvGuide, View.O
         mFilterStatus.setTextColor(Color.GRAY);
         mInfoRow = binding.infoRow;
         mImage = binding.programImage;
-        mChannels = binding.channels;
         mTimeline = binding.timeline;
-        mProgramRows = binding.programRows;
+        mGuideRows = binding.guideRows;
         mSpinner = binding.spinner;
         mSpinner.setVisibility(View.VISIBLE);
 
@@ -168,42 +164,22 @@ public class LiveTvGuideFragment extends Fragment implements LiveTvGuide, View.O
             }
         });
 
-        mProgramRows.setFocusable(false);
-        mChannelScroller = binding.channelScroller;
-        ObservableScrollView programVScroller = binding.programVScroller;
-        programVScroller.setScrollViewListener(new ScrollViewListener() {
-            @Override
-            public void onScrollChanged(ObservableScrollView scrollView, int x, int y, int oldx, int oldy) {
-                mChannelScroller.scrollTo(x, y);
-            }
-        });
-        mChannelScroller.setScrollViewListener(new ScrollViewListener() {
-            @Override
-            public void onScrollChanged(ObservableScrollView scrollView, int x, int y, int oldx, int oldy) {
-                programVScroller.scrollTo(x, y);
-            }
-        });
-
         mTimelineScroller = binding.timelineHScroller;
         mTimelineScroller.setFocusable(false);
         mTimelineScroller.setFocusableInTouchMode(false);
         mTimeline.setFocusable(false);
         mTimeline.setFocusableInTouchMode(false);
-        mChannelScroller.setFocusable(false);
-        mChannelScroller.setFocusableInTouchMode(false);
-        ObservableHorizontalScrollView programHScroller = binding.programHScroller;
-        programHScroller.setScrollViewListener(new HorizontalScrollViewListener() {
-            @Override
-            public void onScrollChanged(ObservableHorizontalScrollView scrollView, int x, int y, int oldx, int oldy) {
-                mTimelineScroller.scrollTo(x, y);
-            }
-        });
 
-        programHScroller.setFocusable(false);
-        programHScroller.setFocusableInTouchMode(false);
-
-        mChannels.setFocusable(false);
-        mChannelScroller.setFocusable(false);
+        // Only the visible rows are bound and rows only attach the cells around the visible time window,
+        // all rows share one horizontal offset that also scrolls the timeline
+        mGuideAdapter = new LiveTvGuideAdapter(requireContext(), this, guideRowHeightPx, guideRowWidthPerMinPx, offset -> {
+            mTimelineScroller.scrollTo(offset, 0);
+            return Unit.INSTANCE;
+        });
+        mGuideRows.setLayoutManager(new LinearLayoutManager(requireContext()));
+        mGuideRows.setItemAnimator(null);
+        mGuideRows.setHasFixedSize(true);
+        mGuideRows.setAdapter(mGuideAdapter);
 
         // Register to receive message from popup
         CoroutineUtils.readCustomMessagesOnLifecycle(getLifecycle(), customMessageRepository.getValue(), message -> {
@@ -239,13 +215,9 @@ public class LiveTvGuideFragment extends Fragment implements LiveTvGuide, View.O
     }
 
     public void refreshFavorite(UUID channelId){
-        for (int i = 0; i < mChannels.getChildCount(); i++) {
-            View child = mChannels.getChildAt(i);
-            if (!(child instanceof GuideChannelHeader)) continue;
-            GuideChannelHeader gch = (GuideChannelHeader) child;
-            if (gch.getChannel().getId().equals(channelId.toString()))
-                gch.refreshFavorite();
-        }
+        RecyclerView.ViewHolder holder = mGuideRows.findViewHolderForAdapterPosition(mGuideAdapter.getPosition(channelId));
+        if (holder instanceof LiveTvGuideAdapter.ChannelViewHolder)
+            ((LiveTvGuideAdapter.ChannelViewHolder) holder).getHeader().refreshFavorite();
     }
 
     @Override
@@ -257,7 +229,8 @@ public class LiveTvGuideFragment extends Fragment implements LiveTvGuide, View.O
     }
 
     protected void doLoad() {
-        if (TvManager.shouldForceReload() || mCurrentGuideStart.plusMinutes(30).isBefore(LocalDateTime.now()) || mChannels.getChildCount() == 0) {
+        if (mReloadOnResume || TvManager.shouldForceReload() || mCurrentGuideStart.plusMinutes(30).isBefore(LocalDateTime.now()) || mGuideAdapter.getItemCount() == 0) {
+            mReloadOnResume = false;
             load();
 
             mFirstFocusChannelId = TvManager.getLastLiveTvChannel();
@@ -268,23 +241,11 @@ public class LiveTvGuideFragment extends Fragment implements LiveTvGuide, View.O
     public void onPause() {
         super.onPause();
 
-        if (mDisplayProgramsTask != null) {
-            mDisplayProgramsTask.cancel(true);
-        }
         if (mDetailPopup != null) {
             mDetailPopup.dismiss();
         }
     }
 
-    @Override
-    public void onDestroy() {
-        super.onDestroy();
-
-        if (mCurrentGuideStart.isAfter(LocalDateTime.now())) {
-            TvManager.forceReload(); //we paged ahead - force a re-load if we come back in
-        }
-    }
-
     @Override
     public boolean onKey(View v, int keyCode, KeyEvent event) {
         if (event.getAction() == KeyEvent.ACTION_UP) return onKeyUp(keyCode, event);
@@ -412,7 +373,6 @@ public class LiveTvGuideFragment extends Fragment implements LiveTvGuide, View.O
     private void pageGuideTo(LocalDateTime startTime) {
         if (startTime.isBefore(LocalDateTime.now())) startTime = LocalDateTime.now();
         Timber.i("page to %s", startTime);
-        TvManager.forceReload(); // don't allow cache
         if (mSelectedProgram != null) {
             mFirstFocusChannelId = mSelectedProgram.getChannelId();
         }
@@ -445,12 +405,12 @@ public class LiveTvGuideFragment extends Fragment implements LiveTvGuide, View.O
 
     public void showFilterOptions() {
         startActivity(ActivityDestinations.INSTANCE.liveTvGuideFilterPreferences(getContext()));
-        TvManager.forceReload();
+        mReloadOnResume = true;
     }
 
     public void showOptions() {
         startActivity(ActivityDestinations.INSTANCE.liveTvGuideOptionPreferences(getContext()));
-        TvManager.forceReload();
+        mReloadOnResume = true;
     }
 
     public void displayChannels(int start, int max) {
@@ -474,230 +434,81 @@ public class LiveTvGuideFragment extends Fragment implements LiveTvGuide, View.O
     }
 
     private void loadProgramData() {
-        mProgramRows.removeAllViews();
-        mChannels.removeAllViews();
         mChannelStatus.setText("");
         mFilterStatus.setText("");
         TvManager.getProgramsAsync(this, mCurrentDisplayChannelStartNdx, mCurrentDisplayChannelEndNdx, mCurrentGuideStart, mCurrentGuideEnd, new EmptyResponse() {
             @Override
             public void onResponse() {
                 Timber.d("*** Programs response");
-                if (mDisplayProgramsTask != null) mDisplayProgramsTask.cancel(true);
-                mDisplayProgramsTask = new DisplayProgramsTask();
-                mDisplayProgramsTask.execute(mCurrentDisplayChannelStartNdx, mCurrentDisplayChannelEndNdx);
+                if (getView() == null) return;
+                displayPrograms(mCurrentDisplayChannelStartNdx, mCurrentDisplayChannelEndNdx);
             }
         });
     }
 
-    DisplayProgramsTask mDisplayProgramsTask;
-    class DisplayProgramsTask extends AsyncTask<Integer, Integer, Void> {
-
-        View firstFocusView;
-        int displayedChannels = 0;
-
-        @Override
-        protected void onPreExecute() {
-            Timber.d("*** Display programs pre-execute");
-            mChannels.removeAllViews();
-            mProgramRows.removeAllViews();
-
-            if (mCurrentDisplayChannelStartNdx > 0) {
-                // Show a paging row for channels above
-                int pageUpStart = mCurrentDisplayChannelStartNdx - PAGE_SIZE;
-                if (pageUpStart < 0) {
-                    pageUpStart = 0;
-                }
+    private void displayPrograms(int start, int end) {
+        List<GuideRowItem> rows = new ArrayList<>();
 
-                TextView placeHolder = new TextView(requireContext());
-                placeHolder.setHeight(guideRowHeightPx);
-                mChannels.addView(placeHolder);
-                displayedChannels = 0;
-
-                String label = TextUtilsKt.getLoadChannelsLabel(requireContext(), mAllChannels.get(pageUpStart).getNumber(), mAllChannels.get(mCurrentDisplayChannelStartNdx - 1).getNumber());
-                mProgramRows.addView(new GuidePagingButton(requireContext(), LiveTvGuideFragment.this, pageUpStart, label));
-            }
+        if (start > 0) {
+            // Show a paging row for channels above
+            int pageUpStart = Math.max(start - PAGE_SIZE, 0);
+            String label = TextUtilsKt.getLoadChannelsLabel(requireContext(), mAllChannels.get(pageUpStart).getNumber(), mAllChannels.get(start - 1).getNumber());
+            rows.add(new GuideRowItem.Paging(pageUpStart, label));
         }
 
-        @Override
-        protected Void doInBackground(Integer... params) {
-            int start = params[0];
-            int end = params[1];
-            boolean first = true;
-
-            Timber.d("*** About to iterate programs");
-            LinearLayout prevRow = null;
-            for (int i = start; i <= end; i++) {
-                if (isCancelled()) return null;
-                final BaseItemDto channel = TvManager.getChannel(i);
-                List<BaseItemDto> programs = TvManager.getProgramsForChannel(channel.getId(), mFilters);
-                final LinearLayout row = getProgramRow(programs, channel.getId());
-                if (row == null) continue; // no row to show
-
-                if (first) {
-                    first = false;
-                    firstFocusView = row;
-                }
-
-                // set focus parameters if we are not on first row
-                // this makes focus movements more predictable for the grid view
-                if (prevRow != null) {
-                    TvManager.setFocusParams(row, prevRow, true);
-                    TvManager.setFocusParams(prevRow, row, false);
-                }
-                prevRow = row;
-
-                requireActivity().runOnUiThread(new Runnable() {
-                    @Override
-                    public void run() {
-                        if (!getLifecycle().getCurrentState().isAtLeast(Lifecycle.State.STARTED)) return;
-
-                        GuideChannelHeader header = getChannelHeader(requireContext(), channel);
-                        mChannels.addView(header);
-                        header.loadImage();
-                        mProgramRows.addView(row);
-                        // put focus on the last tuned channel
-                        if (channel.getId().equals(mFirstFocusChannelId)) {
-                            firstFocusView = focusAtEnd ? row.getChildAt(row.getChildCount()-1) : row;
-                            focusAtEnd = false;
-                            mFirstFocusChannelId = null;
-                        }
-
-                    }
-                });
-
-                displayedChannels++;
-            }
-            return null;
+        // Only the row models are created here, cells are created when a row is first shown
+        int displayedChannels = 0;
+        int focusPosition = -1;
+        for (int i = start; i <= end; i++) {
+            BaseItemDto channel = TvManager.getChannel(i);
+            List<BaseItemDto> programs = TvManager.getProgramsForChannel(channel.getId(), mFilters);
+            if (programs.isEmpty() && mFilters.any()) continue; // don't show rows with no program data
+
+            // put focus on the last tuned channel
+            if (channel.getId().equals(mFirstFocusChannelId)) focusPosition = rows.size();
+            rows.add(new GuideRowItem.Channel(channel, programs));
+            displayedChannels++;
         }
 
-        @Override
-        protected void onPostExecute(Void aVoid) {
-            Timber.d("*** Display programs post execute");
-            if (mCurrentDisplayChannelEndNdx < mAllChannels.size()-1 && !mFilters.any()) {
-                // Show a paging row for channels below
-                int pageDnEnd = mCurrentDisplayChannelEndNdx + PAGE_SIZE;
-                if (pageDnEnd >= mAllChannels.size()) pageDnEnd = mAllChannels.size()-1;
-
-                TextView placeHolder = new TextView(requireContext());
-                placeHolder.setHeight(guideRowHeightPx);
-                mChannels.addView(placeHolder);
-
-                String label = TextUtilsKt.getLoadChannelsLabel(requireContext(), mAllChannels.get(mCurrentDisplayChannelEndNdx + 1).getNumber(), mAllChannels.get(pageDnEnd).getNumber());
-                mProgramRows.addView(new GuidePagingButton(requireContext(), LiveTvGuideFragment.this, mCurrentDisplayChannelEndNdx + 1, label));
-            }
-
-            mChannelStatus.setText(displayedChannels+" of "+mAllChannels.size()+" channels");
-            mFilterStatus.setText(mFilters.toString() + " for "+getGuideHours()+" hours");
-            mFilterStatus.setTextColor(mFilters.any() ? Color.WHITE : Color.GRAY);
-
-            mResetButton.setVisibility(mCurrentGuideStart.isAfter(LocalDateTime.now()) ? View.VISIBLE : View.GONE); // show reset button if paged ahead
-
-            mSpinner.setVisibility(View.GONE);
-            if (firstFocusView != null) {
-                firstFocusView.requestFocus();
-            }
+        if (end < mAllChannels.size()-1 && !mFilters.any()) {
+            // Show a paging row for channels below
+            int pageDnEnd = Math.min(end + PAGE_SIZE, mAllChannels.size()-1);
+            String label = TextUtilsKt.getLoadChannelsLabel(requireContext(), mAllChannels.get(end + 1).getNumber(), mAllChannels.get(pageDnEnd).getNumber());
+            rows.add(new GuideRowItem.Paging(end + 1, label));
         }
-    }
-
-    private int currentCellId = 0;
 
-    private GuideChannelHeader getChannelHeader(Context context, org.jellyfin.sdk.model.api.BaseItemDto channel){
-        return new GuideChannelHeader(context, this, channel);
-    }
+        mGuideAdapter.setRows(rows, mCurrentGuideStart, mCurrentGuideEnd);
 
-    private LinearLayout getProgramRow(List<BaseItemDto> programs, UUID channelId) {
-
-        LinearLayout programRow = new LinearLayout(requireContext());
-
-        if (programs.size() == 0) {
-            if (mFilters.any()) return null; // don't show rows with no program data
-
-            int minutes = ((Long) ((mCurrentGuideEnd.toInstant(ZoneOffset.UTC).toEpochMilli() - mCurrentGuideStart.toInstant(ZoneOffset.UTC).toEpochMilli()) / 60000)).intValue();
-            int slot = 0;
-            do {
-                BaseItemDto empty = LiveTvGuideFragmentHelperKt.createNoProgramDataBaseItem(
-                        getContext(),
-                        channelId,
-                        mCurrentGuideStart.plusMinutes(30l * slot),
-                        mCurrentGuideEnd.plusMinutes(30l * (slot + 1))
-                );
-
-                ProgramGridCell cell = new ProgramGridCell(requireContext(), this, empty, false);
-                cell.setId(currentCellId++);
-                cell.setLayoutParams(new ViewGroup.LayoutParams(30 * guideRowWidthPerMinPx, guideRowHeightPx));
-                programRow.addView(cell);
-                if (slot == 0)
-                    cell.setFirst();
-                if (slot == (minutes / 30) - 1)
-                    cell.setLast();
-                slot++;
-            } while((30*slot) < minutes);
-            return programRow;
-        }
+        mChannelStatus.setText(displayedChannels+" of "+mAllChannels.size()+" channels");
+        mFilterStatus.setText(mFilters.toString() + " for "+getGuideHours()+" hours");
+        mFilterStatus.setTextColor(mFilters.any() ? Color.WHITE : Color.GRAY);
 
-        LocalDateTime prevEnd = getCurrentLocalStartDate();
-        for (BaseItemDto item : programs) {
-            LocalDateTime start = item.getStartDate() != null ? item.getStartDate() : getCurrentLocalStartDate();
-            if (start.isBefore(getCurrentLocalStartDate())) {
-                start = getCurrentLocalStartDate();
-            }
+        mResetButton.setVisibility(mCurrentGuideStart.isAfter(LocalDateTime.now()) ? View.VISIBLE : View.GONE); // show reset button if paged ahead
 
-            if (start.isBefore(prevEnd))
-                continue;
-
-            if (start.isAfter(prevEnd)) {
-                // fill empty time slot
-                BaseItemDto empty = LiveTvGuideFragmentHelperKt.createNoProgramDataBaseItem(
-                        getContext(),
-                        channelId,
-                        prevEnd,
-                        start
-                );
-
-                ProgramGridCell cell = new ProgramGridCell(requireContext(), this, empty, false);
-                cell.setId(currentCellId++);
-                cell.setLayoutParams(new ViewGroup.LayoutParams(((Long) ((start.toInstant(ZoneOffset.UTC).toEpochMilli() - prevEnd.toInstant(ZoneOffset.UTC).toEpochMilli()) / 60000)).intValue() * guideRowWidthPerMinPx, guideRowHeightPx));
-                if (prevEnd == mCurrentGuideStart) {
-                    cell.setFirst();
-                }
-                programRow.addView(cell);
-            }
-            LocalDateTime end = item.getEndDate() != null ? item.getEndDate() : getCurrentLocalEndDate();
-            if (end.isAfter(getCurrentLocalEndDate())) end = getCurrentLocalEndDate();
-            prevEnd = end;
-            Long duration = (end.toInstant(ZoneOffset.UTC).toEpochMilli() - start.toInstant(ZoneOffset.UTC).toEpochMilli()) / 60000;
-            if (duration > 0) {
-                ProgramGridCell program = new ProgramGridCell(requireContext(), this, item, false);
-                program.setId(currentCellId++);
-                program.setLayoutParams(new ViewGroup.LayoutParams(duration.intValue() * guideRowWidthPerMinPx, guideRowHeightPx));
-                if (start == mCurrentGuideStart) {
-                    program.setFirst();
-                }
-                if (end == mCurrentGuideEnd) {
-                    program.setLast();
-                }
+        mSpinner.setVisibility(View.GONE);
 
-                programRow.addView(program);
-            }
-        }
-
-        //If not at end of time period - fill in the rest
-        if (prevEnd.isBefore(mCurrentGuideEnd)) {
-            // fill empty time slot
-            BaseItemDto empty = LiveTvGuideFragmentHelperKt.createNoProgramDataBaseItem(
-                    getContext(),
-                    channelId,
-                    prevEnd,
-                    mCurrentGuideEnd
-            );
-
-            ProgramGridCell cell = new ProgramGridCell(requireContext(), this, empty, false);
-            cell.setId(currentCellId++);
-            cell.setLayoutParams(new ViewGroup.LayoutParams(((Long)((mCurrentGuideEnd.toInstant(ZoneOffset.UTC).toEpochMilli() - prevEnd.toInstant(ZoneOffset.UTC).toEpochMilli()) / 60000)).intValue() * guideRowWidthPerMinPx, guideRowHeightPx));
-            programRow.addView(cell);
+        if (focusPosition >= 0) {
+            mFirstFocusChannelId = null;
+        } else {
+            focusPosition = start > 0 ? 1 : 0;
         }
+        focusRow(focusPosition, focusAtEnd);
+        focusAtEnd = false;
+    }
 
-        return programRow;
+    private void focusRow(int position, boolean atEnd) {
+        if (position >= mGuideAdapter.getItemCount()) return;
+
+        mGuideRows.scrollToPosition(position);
+        // The row is bound in the next layout pass
+        mGuideRows.post(() -> {
+            RecyclerView.ViewHolder holder = mGuideRows.findViewHolderForAdapterPosition(position);
+            if (holder instanceof LiveTvGuideAdapter.ChannelViewHolder) {
+                ((LiveTvGuideAdapter.ChannelViewHolder) holder).getRow().focusCell(atEnd);
+            } else if (holder != null) {
+                holder.itemView.requestFocus();
+            }
+        });
     }
 
     private void fillTimeLine(LocalDateTime start, int hours) {
@@ -763,22 +574,13 @@ public class LiveTvGuideFragment extends Fragment implements LiveTvGuide, View.O
             mHandler.removeCallbacks(detailUpdateTask);
             mHandler.postDelayed(detailUpdateTask, 500);
         } else if (mSelectedProgramView instanceof GuideChannelHeader) {
-            for (int i = 0; i < mChannels.getChildCount(); i++) {
-                if (mSelectedProgramView == mChannels.getChildAt(i)) {
-                    LinearLayout programRow = (LinearLayout)mProgramRows.getChildAt(i);
-                    if (programRow == null)
-                        return;
-                    for (int ii = 0; ii < programRow.getChildCount(); ii++) {
-                        ProgramGridCell prog = (ProgramGridCell)programRow.getChildAt(ii);
-                        if (prog.getProgram() != null && prog.getProgram().getStartDate().isBefore(LocalDateTime.now()) && prog.getProgram().getEndDate().isAfter(LocalDateTime.now())) {
-                            mSelectedProgram = prog.getProgram();
-                            if (mSelectedProgram != null) {
-                                mHandler.removeCallbacks(detailUpdateTask);
-                                mHandler.postDelayed(detailUpdateTask, 500);
-                            }
-                            return;
-                        }
-                    }
+            UUID channelId = ((GuideChannelHeader) mSelectedProgramView).getChannel().getId();
+            for (BaseItemDto program : mGuideAdapter.getPrograms(channelId)) {
+                if (program.getStartDate() != null && program.getEndDate() != null && program.getStartDate().isBefore(LocalDateTime.now()) && program.getEndDate().isAfter(LocalDateTime.now())) {
+                    mSelectedProgram = program;
+                    mHandler.removeCallbacks(detailUpdateTask);
+                    mHandler.postDelayed(detailUpdateTask, 500);
+                    return;
                 }
             }
         }
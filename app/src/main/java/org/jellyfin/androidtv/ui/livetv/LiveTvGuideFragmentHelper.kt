@@ -53,6 +53,8 @@ fun LiveTvGuideFragment.toggleFavorite() {
 
 			header.channel = header.channel.copy(userData = userData)
 			header.findViewById<View>(R.id.favImage).isVisible = userData.isFavorite
+			// Keep the state when the recycled row is bound again
+			mGuideAdapter.updateChannel(header.channel)
 			dataRefreshService.lastFavoriteUpdate = Instant.now()
 		}
 	}
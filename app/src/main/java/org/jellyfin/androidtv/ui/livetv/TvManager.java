@@ -30,7 +30,6 @@ import java.time.LocalDateTime;
 import java.time.ZoneOffset;
 import java.util.ArrayList;
 import java.util.Arrays;
-import java.util.Collection;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
@@ -43,9 +42,10 @@ public class TvManager {
     private static List<BaseItemDto> allChannels;
     private static UUID[] channelIds;
     private static HashMap<UUID, ArrayList<BaseItemDto>> mProgramsDict = new HashMap<>();
-    private static LocalDateTime needLoadTime;
     private static boolean forceReload;
 
+    private static final int PREFETCH_HOURS = 4;
+
     public static UUID getLastLiveTvChannel() {
         return Utils.uuidOrNull(KoinJavaComponent.<SystemPreferences>get(SystemPreferences.class).get(SystemPreferences.Companion.getLiveTvLastChannel()));
     }
@@ -110,11 +110,10 @@ public class TvManager {
         if (allChannels != null) {
             channelIds = new UUID[allChannels.size()];
             UUID last = getLastLiveTvChannel();
-            if (last == null) return ndx;
             int i = 0;
             for (BaseItemDto channel : allChannels) {
                 channelIds[i++] = channel.getId();
-                if (channel.getId().equals(last.toString())) ndx = i;
+                if (last != null && channel.getId().equals(last.toString())) ndx = i;
             }
         }
 
@@ -123,42 +122,45 @@ public class TvManager {
 
     public static void getProgramsAsync(Fragment fragment, int startNdx, int endNdx, final LocalDateTime startTime, LocalDateTime endTime, final EmptyResponse outerResponse) {
         LocalDateTime startTimeRounded = startTime.withMinute(startTime.getMinute() >= 30 ? 30 : 0).withSecond(0).withNano(0);
-        LocalDateTime endTimeRounded = endTime.minusSeconds(1);
-
-        if (forceReload || needLoadTime == null || startTimeRounded.isAfter(needLoadTime) || !mProgramsDict.containsKey(channelIds[startNdx]) || !mProgramsDict.containsKey(channelIds[endNdx])) {
-            forceReload = false;
+        // Programs changed on the server, like after scheduling a recording
+        boolean invalidate = forceReload;
+        forceReload = false;
 
-            endNdx = endNdx > channelIds.length ? channelIds.length : endNdx+1; //array copy range final ndx is exclusive
+        int endNdxExclusive = Math.min(endNdx + 1, channelIds.length);
 
-            TvManagerHelperKt.getPrograms(fragment, Arrays.copyOfRange(channelIds, startNdx, endNdx), startTimeRounded, endTimeRounded, programs -> {
-                if (programs != null) {
-                    Timber.d("*** About to build dictionary");
-                    buildProgramsDict(programs, startTimeRounded);
-                    Timber.d("*** Programs retrieval finished");
+        // Programs are served from the EPG store, only missing or changed hours are requested from the server
+        TvManagerHelperKt.getPrograms(fragment, Arrays.copyOfRange(channelIds, startNdx, endNdxExclusive), startTimeRounded, endTime, invalidate, programs -> {
+            if (programs != null) {
+                buildProgramsDict(programs);
+                Timber.d("*** Programs retrieval finished");
+            }
 
-                    outerResponse.onResponse();
-                } else {
-                    outerResponse.onResponse();
-                }
+            outerResponse.onResponse();
+            prefetchAdjacent(fragment, startNdx, endNdxExclusive, startTimeRounded, endTime);
+            return null;
+        });
+    }
 
-                return null;
-            });
+    /**
+     * Prefetch the hours after the displayed time range and the channel pages above and below it so paging the guide
+     * is served from the EPG store.
+     */
+    private static void prefetchAdjacent(Fragment fragment, int startNdx, int endNdxExclusive, LocalDateTime startTime, LocalDateTime endTime) {
+        UUID[] displayed = Arrays.copyOfRange(channelIds, startNdx, endNdxExclusive);
+        TvManagerHelperKt.prefetchPrograms(fragment, displayed, endTime, endTime.plusHours(PREFETCH_HOURS));
 
-            Timber.d("*** About to get programs");
-        } else {
-            outerResponse.onResponse();
-        }
+        int pageSize = LiveTvGuideFragment.PAGE_SIZE;
+        UUID[] above = Arrays.copyOfRange(channelIds, Math.max(startNdx - pageSize, 0), startNdx);
+        UUID[] below = Arrays.copyOfRange(channelIds, endNdxExclusive, Math.min(endNdxExclusive + pageSize, channelIds.length));
+        if (above.length > 0) TvManagerHelperKt.prefetchPrograms(fragment, above, startTime, endTime);
+        if (below.length > 0) TvManagerHelperKt.prefetchPrograms(fragment, below, startTime, endTime);
     }
 
-    private static void buildProgramsDict(Collection<BaseItemDto> programs, LocalDateTime startTime) {
+    private static void buildProgramsDict(Map<UUID, ? extends List<BaseItemDto>> programs) {
         mProgramsDict = new HashMap<>();
-        for (BaseItemDto program : programs) {
-            UUID id = program.getChannelId();
-            if (!mProgramsDict.containsKey(id)) mProgramsDict.put(id, new ArrayList<BaseItemDto>());
-            if (program.getEndDate().isAfter(startTime))
-                mProgramsDict.get(id).add(program);
+        for (Map.Entry<UUID, ? extends List<BaseItemDto>> entry : programs.entrySet()) {
+            mProgramsDict.put(entry.getKey(), new ArrayList<>(entry.getValue()));
         }
-        needLoadTime = startTime.plusMinutes(29);
     }
 
     public static List<BaseItemDto> getProgramsForChannel(UUID channelId, GuideFilters filters) {
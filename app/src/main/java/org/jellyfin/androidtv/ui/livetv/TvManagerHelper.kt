@@ -57,21 +57,14 @@ fun getPrograms(
 	channelIds: Array<UUID>,
 	startTime: LocalDateTime,
 	endTime: LocalDateTime,
-	callback: (programs: Collection<BaseItemDto>?) -> Unit,
+	invalidate: Boolean,
+	callback: (programs: Map<UUID, List<BaseItemDto>>?) -> Unit,
 ) {
-	val api by fragment.inject<ApiClient>()
+	val epgStore by fragment.inject<EpgStore>()
 
 	fragment.lifecycleScope.launch {
 		runCatching {
-			withContext(Dispatchers.IO) {
-				api.liveTvApi.getLiveTvPrograms(
-					channelIds = channelIds.toList(),
-					enableImages = false,
-					sortBy = setOf(ItemSortBy.START_DATE),
-					maxStartDate = endTime,
-					minEndDate = startTime,
-				).content.items
-			}
+			epgStore.getPrograms(channelIds.toList(), startTime, endTime, invalidate)
 		}.fold(
 			onSuccess = { programs -> callback(programs) },
 			onFailure = { callback(null) },
@@ -79,6 +72,16 @@ fun getPrograms(
 	}
 }
 
+fun prefetchPrograms(
+	fragment: Fragment,
+	channelIds: Array<UUID>,
+	startTime: LocalDateTime,
+	endTime: LocalDateTime,
+) {
+	val epgStore by fragment.inject<EpgStore>()
+	epgStore.prefetch(channelIds.toList(), startTime, endTime)
+}
+
 fun getScheduleRows(
 	fragment: Fragment,
 	seriesTimerId: String?,
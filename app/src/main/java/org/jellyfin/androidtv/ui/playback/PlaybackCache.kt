@@ -0,0 +1,230 @@
+package org.jellyfin.androidtv.ui.playback
+
+import android.content.Context
+import android.net.Uri
+import androidx.annotation.OptIn
+import androidx.media3.common.util.UnstableApi
+import androidx.media3.database.StandaloneDatabaseProvider
+import androidx.media3.datasource.DataSource
+import androidx.media3.datasource.DataSpec
+import androidx.media3.datasource.TransferListener
+import androidx.media3.datasource.cache.CacheDataSource
+import androidx.media3.datasource.cache.LeastRecentlyUsedCacheEvictor
+import androidx.media3.datasource.cache.SimpleCache
+import kotlinx.coroutines.CoroutineScope
+import kotlinx.coroutines.Dispatchers
+import kotlinx.coroutines.SupervisorJob
+import kotlinx.coroutines.launch
+import org.jellyfin.androidtv.preference.UserPreferences
+import org.jellyfin.sdk.api.client.ApiClient
+import timber.log.Timber
+import java.io.File
+import java.net.URLDecoder
+import java.util.concurrent.atomic.AtomicLong
+
+/**
+ * Optional disk cache in front of the media data source. Loaded media is kept so seeking back or
+ * resuming a stream reads from disk instead of loading it again. The cache is disabled when the
+ * [UserPreferences.mediaCacheSize] is 0.
+ */
+@OptIn(UnstableApi::class)
+class PlaybackCache(
+	private val context: Context,
+	private val userPreferences: UserPreferences,
+	private val api: ApiClient,
+	private val upstream: DataSource.Factory,
+) : DataSource.Factory {
+	companion object {
+		// Query parameters of static streams that change between sessions of the same media
+		private val sessionParameters = setOf("api_key", "apikey", "deviceid", "playsessionid")
+
+		// Server paths of transcoded streams, these are only valid during the session they were started in
+		private val transcodePath = Regex("^/(videos|audio)/[^/]+/(master\\.m3u8|main\\.m3u8|hls1?/|stream|universal)", RegexOption.IGNORE_CASE)
+
+		// Live TV streams have different content every time they are opened, even when the URL is static
+		private const val liveStreamPath = "/LiveTv/LiveStreamFiles/"
+		private const val liveStreamParameter = "livestreamid"
+
+		/**
+		 * Get the cache key for [url]. Static streams are the same file in every session, so the session
+		 * specific query parameters are ignored. Live streams and transcodes of the server at [baseUrl] are
+		 * marked as only valid for the current session.
+		 */
+		internal fun getCacheKey(url: String, baseUrl: String?): CacheKey {
+			val path = url.substringBefore('#').substringBefore('?')
+			val parameters = url.substringBefore('#').substringAfter('?', "")
+				.split('&')
+				.filter { it.isNotEmpty() }
+				.map { URLDecoder.decode(it.substringBefore('='), "UTF-8") to it }
+
+			val isLive = path.contains(liveStreamPath, ignoreCase = true) ||
+				parameters.any { (name) -> name.equals(liveStreamParameter, ignoreCase = true) }
+			if (isLive) return CacheKey(url, sessionOnly = true)
+
+			val isStatic = parameters.any { (name, parameter) -> name.equals("static", ignoreCase = true) && parameter.substringAfter('=', "") == "true" }
+			if (isStatic) {
+				val query = parameters
+					.filter { (name) -> name.lowercase() !in sessionParameters }
+					.sortedBy { (name) -> name }
+					.joinToString("&") { (_, parameter) -> parameter }
+				return CacheKey(if (query.isEmpty()) path else "$path?$query", sessionOnly = false)
+			}
+
+			val server = baseUrl?.trimEnd('/')
+			val isTranscode = server != null &&
+				path.startsWith(server, ignoreCase = true) &&
+				transcodePath.containsMatchIn(path.substring(server.length))
+			return CacheKey(url, sessionOnly = isTranscode)
+		}
+	}
+
+	internal data class CacheKey(
+		val key: String,
+		val sessionOnly: Boolean,
+	)
+
+	data class Stats(
+		val cacheSize: Long,
+		val maxCacheSize: Long,
+		val cachedBytes: Long,
+		val networkBytes: Long,
+	) {
+		val hitRatio get() = if (cachedBytes + networkBytes > 0) cachedBytes.toDouble() / (cachedBytes + networkBytes) else 0.0
+	}
+
+	private val directory = File(context.cacheDir, "media")
+	private val databaseProvider by lazy { StandaloneDatabaseProvider(context) }
+	private val scope = CoroutineScope(Dispatchers.IO + SupervisorJob())
+
+	private var cache: SimpleCache? = null
+	private var maxCacheSize = -1L
+
+	// Data sources that are reading from the cache, the cache is not replaced while in use
+	private var openSources = 0
+
+	private val cachedBytes = AtomicLong()
+	private val networkBytes = AtomicLong()
+
+	// Keys of transcoded media that can't be loaded again in a later session
+	private val sessionKeys = mutableSetOf<String>()
+
+	private val transferListener = object : TransferListener {
+		override fun onTransferInitializing(source: DataSource, dataSpec: DataSpec, isNetwork: Boolean) = Unit
+		override fun onTransferStart(source: DataSource, dataSpec: DataSpec, isNetwork: Boolean) = Unit
+		override fun onTransferEnd(source: DataSource, dataSpec: DataSpec, isNetwork: Boolean) = Unit
+
+		override fun onBytesTransferred(source: DataSource, dataSpec: DataSpec, isNetwork: Boolean, bytesTransferred: Int) {
+			if (isNetwork) networkBytes.addAndGet(bytesTransferred.toLong())
+			else cachedBytes.addAndGet(bytesTransferred.toLong())
+		}
+	}
+
+	@Synchronized
+	private fun getCache(): SimpleCache? {
+		val size = (userPreferences[UserPreferences.mediaCacheSize].toLongOrNull() ?: 0) * 1024 * 1024
+		if (size == maxCacheSize || openSources > 0) return cache
+
+		cache?.release()
+		cache = null
+		maxCacheSize = size
+
+		try {
+			if (size > 0) cache = SimpleCache(directory, LeastRecentlyUsedCacheEvictor(size), databaseProvider)
+			else SimpleCache.delete(directory, databaseProvider)
+		} catch (err: IllegalStateException) {
+			Timber.w(err, "Unable to open media cache")
+		}
+
+		return cache
+	}
+
+	private fun getCacheKey(dataSpec: DataSpec): String {
+		dataSpec.key?.let { return it }
+
+		val cacheKey = getCacheKey(dataSpec.uri.toString(), api.baseUrl)
+		if (cacheKey.sessionOnly) synchronized(sessionKeys) { sessionKeys += cacheKey.key }
+		return cacheKey.key
+	}
+
+	override fun createDataSource(): DataSource = CachedDataSource()
+
+	/**
+	 * Picks the current cache when opened, so a data source that is kept around never reads from a
+	 * cache that was replaced after the cache size changed.
+	 */
+	private inner class CachedDataSource : DataSource {
+		private val transferListeners = mutableListOf<TransferListener>()
+		private var source: DataSource? = null
+
+		override fun addTransferListener(transferListener: TransferListener) {
+			transferListeners += transferListener
+		}
+
+		override fun open(dataSpec: DataSpec): Long {
+			val source = synchronized(this@PlaybackCache) {
+				createSource(getCache()).also { openSources++ }
+			}
+			transferListeners.forEach(source::addTransferListener)
+			this.source = source
+			return source.open(dataSpec)
+		}
+
+		override fun read(buffer: ByteArray, offset: Int, length: Int): Int = requireNotNull(source).read(buffer, offset, length)
+
+		override fun getUri(): Uri? = source?.uri
+
+		override fun getResponseHeaders(): Map<String, List<String>> = source?.responseHeaders.orEmpty()
+
+		override fun close() {
+			val source = source ?: return
+			this.source = null
+
+			try {
+				source.close()
+			} finally {
+				synchronized(this@PlaybackCache) { openSources-- }
+			}
+		}
+	}
+
+	private fun createSource(cache: SimpleCache?): DataSource {
+		if (cache == null) return upstream.createDataSource()
+
+		return CacheDataSource.Factory()
+			.setCache(cache)
+			.setUpstreamDataSourceFactory(upstream)
+			.setCacheKeyFactory { dataSpec -> getCacheKey(dataSpec) }
+			.setFlags(CacheDataSource.FLAG_IGNORE_CACHE_ON_ERROR)
+			.createDataSource()
+			.apply { addTransferListener(transferListener) }
+	}
+
+	fun getStats() = Stats(
+		cacheSize = synchronized(this) { cache?.cacheSpace } ?: 0,
+		maxCacheSize = maxCacheSize.coerceAtLeast(0),
+		cachedBytes = cachedBytes.get(),
+		networkBytes = networkBytes.get(),
+	)
+
+	/**
+	 * Remove the transcoded media that can't be reused in a later session and reset the statistics.
+	 */
+	fun onSessionEnd() {
+		val stats = getStats()
+		if (stats.cachedBytes + stats.networkBytes > 0) {
+			Timber.i("Media cache session ended with %.1f%% read from cache", stats.hitRatio * 100)
+		}
+		cachedBytes.set(0)
+		networkBytes.set(0)
+
+		val keys = synchronized(sessionKeys) { sessionKeys.toList().also { sessionKeys.clear() } }
+		if (keys.isEmpty()) return
+
+		scope.launch {
+			synchronized(this@PlaybackCache) {
+				val cache = cache ?: return@launch
+				for (key in keys) cache.removeResource(key)
+			}
+		}
+	}
+}
@@ -32,8 +32,9 @@ import org.jellyfin.androidtv.util.TimeUtils;
 import org.jellyfin.androidtv.util.Utils;
 import org.jellyfin.androidtv.util.apiclient.ReportingHelper;
 import org.jellyfin.androidtv.util.apiclient.Response;
-import org.jellyfin.androidtv.util.profile.DeviceProfileKt;
+import org.jellyfin.androidtv.util.profile.DeviceProfileProvider;
 import org.jellyfin.androidtv.util.sdk.compat.JavaCompat;
+import org.jellyfin.playback.media3.exoplayer.BufferDecision;
 import org.jellyfin.sdk.model.api.BaseItemDto;
 import org.jellyfin.sdk.model.api.BaseItemKind;
 import org.jellyfin.sdk.model.api.DeviceProfile;
@@ -64,6 +65,7 @@ public class PlaybackController implements PlaybackControllerNotifiable {
 
     private Lazy<PlaybackManager> playbackManager = inject(PlaybackManager.class);
     private Lazy<UserPreferences> userPreferences = inject(UserPreferences.class);
+    private Lazy<DeviceProfileProvider> deviceProfileProvider = inject(DeviceProfileProvider.class);
     private Lazy<VideoQueueManager> videoQueueManager = inject(VideoQueueManager.class);
     private Lazy<org.jellyfin.sdk.api.client.ApiClient> api = inject(org.jellyfin.sdk.api.client.ApiClient.class);
     private Lazy<DataRefreshService> dataRefreshService = inject(DataRefreshService.class);
@@ -197,6 +199,15 @@ public class PlaybackController implements PlaybackControllerNotifiable {
         return mCurrentStreamInfo;
     }
 
+    @Nullable
+    public BufferDecision getBufferDecision() {
+        return mVideoManager != null ? mVideoManager.getBufferDecision() : null;
+    }
+
+    public long getBufferedBytes() {
+        return mVideoManager != null ? mVideoManager.getBufferedBytes() : 0;
+    }
+
     public boolean canSeek() {
         return !isLiveTv;
     }
@@ -633,8 +644,7 @@ public class PlaybackController implements PlaybackControllerNotifiable {
             }
         }
 
-        DeviceProfile internalProfile = DeviceProfileKt.createDeviceProfile(
-                userPreferences.getValue(),
+        DeviceProfile internalProfile = deviceProfileProvider.getValue().getDeviceProfile(
                 !internalOptions.getEnableDirectStream()
         );
         internalOptions.setProfile(internalProfile);
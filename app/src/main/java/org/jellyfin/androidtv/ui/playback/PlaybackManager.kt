@@ -53,8 +53,41 @@ private fun createStreamInfo(
 	}
 }
 
+internal suspend fun ApiClient.requestVideoStreamInfo(
+	options: VideoOptions,
+	startTimeTicks: Long
+) = runCatching {
+	val response = withContext(Dispatchers.IO) {
+		mediaInfoApi.getPostedPlaybackInfo(
+			itemId = requireNotNull(options.itemId) { "Item id cannot be null" },
+			data = PlaybackInfoDto(
+				mediaSourceId = options.mediaSourceId,
+				startTimeTicks = startTimeTicks,
+				deviceProfile = options.profile,
+				enableDirectStream = options.enableDirectStream,
+				enableDirectPlay = options.enableDirectPlay,
+				maxAudioChannels = options.maxAudioChannels,
+				audioStreamIndex = options.audioStreamIndex.takeIf { it != null && it >= 0 },
+				subtitleStreamIndex = options.subtitleStreamIndex,
+				allowVideoStreamCopy = true,
+				allowAudioStreamCopy = true,
+				autoOpenLiveStream = true,
+			)
+		).content
+	}
+
+	if (response.errorCode != null) {
+		throw PlaybackException().apply {
+			errorCode = response.errorCode!!
+		}
+	}
+
+	createStreamInfo(this@requestVideoStreamInfo, options, response)
+}
+
 class PlaybackManager(
-	private val api: ApiClient
+	private val api: ApiClient,
+	private val streamWarmUp: StreamWarmUp,
 ) {
 	fun getVideoStreamInfo(
 		lifecycleOwner: LifecycleOwner,
@@ -90,32 +123,10 @@ class PlaybackManager(
 	private suspend fun getVideoStreamInfoInternal(
 		options: VideoOptions,
 		startTimeTicks: Long
-	) = runCatching {
-		val response =withContext(Dispatchers.IO) {
-			api.mediaInfoApi.getPostedPlaybackInfo(
-				itemId = requireNotNull(options.itemId) { "Item id cannot be null" },
-				data = PlaybackInfoDto(
-					mediaSourceId = options.mediaSourceId,
-					startTimeTicks = startTimeTicks,
-					deviceProfile = options.profile,
-					enableDirectStream = options.enableDirectStream,
-					enableDirectPlay = options.enableDirectPlay,
-					maxAudioChannels = options.maxAudioChannels,
-					audioStreamIndex = options.audioStreamIndex.takeIf { it != null && it >= 0 },
-					subtitleStreamIndex = options.subtitleStreamIndex,
-					allowVideoStreamCopy = true,
-					allowAudioStreamCopy = true,
-					autoOpenLiveStream = true,
-				)
-			).content
-		}
-
-		if (response.errorCode != null) {
-			throw PlaybackException().apply {
-				errorCode = response.errorCode!!
-			}
-		}
+	): Result<StreamInfo> {
+		// Use the stream prepared on the detail page when it matches
+		streamWarmUp.consume(options)?.let { return Result.success(it) }
 
-		createStreamInfo(api, options, response)
+		return api.requestVideoStreamInfo(options, startTimeTicks)
 	}
 }
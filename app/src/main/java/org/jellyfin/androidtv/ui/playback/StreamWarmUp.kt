@@ -0,0 +1,341 @@
+package org.jellyfin.androidtv.ui.playback
+
+import android.net.Uri
+import android.os.SystemClock
+import androidx.annotation.OptIn
+import androidx.media3.common.C
+import androidx.media3.common.util.UnstableApi
+import androidx.media3.datasource.DataSource
+import androidx.media3.datasource.DataSpec
+import androidx.media3.datasource.HttpDataSource
+import androidx.media3.datasource.HttpUtil
+import androidx.media3.datasource.TransferListener
+import kotlinx.coroutines.CoroutineExceptionHandler
+import kotlinx.coroutines.CoroutineScope
+import kotlinx.coroutines.Dispatchers
+import kotlinx.coroutines.Job
+import kotlinx.coroutines.SupervisorJob
+import kotlinx.coroutines.ensureActive
+import kotlinx.coroutines.isActive
+import kotlinx.coroutines.launch
+import org.jellyfin.androidtv.data.compat.StreamInfo
+import org.jellyfin.androidtv.data.compat.VideoOptions
+import org.jellyfin.androidtv.util.profile.DeviceProfileProvider
+import org.jellyfin.sdk.api.client.ApiClient
+import org.jellyfin.sdk.model.api.BaseItemDto
+import org.jellyfin.sdk.model.api.DeviceProfile
+import org.jellyfin.sdk.model.api.MediaSourceInfo
+import org.jellyfin.sdk.model.api.MediaType
+import org.jellyfin.sdk.model.api.PlayMethod
+import org.jellyfin.sdk.model.serializer.toUUIDOrNull
+import timber.log.Timber
+import java.io.IOException
+import java.util.UUID
+import kotlin.coroutines.coroutineContext
+import kotlin.time.Duration.Companion.minutes
+
+/**
+ * Prepares playback of the item shown on a detail page before the user presses play. The stream
+ * info is requested, the connection to the server is opened and the start and end of the media are
+ * loaded into memory. The stream info is used once by [PlaybackManager] and the loaded media is read
+ * by the data sources created from this factory.
+ */
+@OptIn(UnstableApi::class)
+class StreamWarmUp(
+	private val api: ApiClient,
+	private val deviceProfileProvider: DeviceProfileProvider,
+	private val httpDataSourceFactory: HttpDataSource.Factory,
+	private val upstream: DataSource.Factory,
+) : DataSource.Factory {
+	companion object {
+		private const val HEAD_BYTES = 4 * 1024 * 1024
+		private const val TAIL_BYTES = 2 * 1024 * 1024
+		private const val READ_BYTES = 64 * 1024
+		private val MAX_AGE = 5.minutes
+
+		/**
+		 * Whether [options] request the same stream as a warm up of [mediaSourceId] with the default
+		 * options and [profile].
+		 */
+		internal fun matchesWarmUp(
+			options: VideoOptions,
+			itemId: UUID,
+			mediaSourceId: String,
+			profile: DeviceProfile,
+			source: MediaSourceInfo,
+		) = options.itemId == itemId &&
+			options.mediaSourceId == mediaSourceId &&
+			options.enableDirectPlay && options.enableDirectStream &&
+			options.maxAudioChannels == null &&
+			options.profile == profile &&
+			(options.audioStreamIndex == null || options.audioStreamIndex == source.defaultAudioStreamIndex) &&
+			(options.subtitleStreamIndex == null || options.subtitleStreamIndex == source.defaultSubtitleStreamIndex)
+	}
+
+	internal class Region(
+		val uri: String,
+		val position: Long,
+		val data: ByteArray,
+	) {
+		val end get() = position + data.size
+	}
+
+	private class WarmStream(
+		val itemId: UUID,
+		val mediaSourceId: String,
+		val createdAt: Long = SystemClock.elapsedRealtime(),
+	) {
+		var streamInfo: StreamInfo? = null
+		var resourceLength = C.LENGTH_UNSET.toLong()
+
+		val isExpired get() = SystemClock.elapsedRealtime() - createdAt > MAX_AGE.inWholeMilliseconds
+	}
+
+	private val scope = CoroutineScope(Dispatchers.IO + SupervisorJob() + CoroutineExceptionHandler { _, err ->
+		Timber.w(err, "Unable to warm up stream")
+	})
+
+	private var warmStream: WarmStream? = null
+	private var job: Job? = null
+
+	@Volatile
+	private var regions = emptyList<Region>()
+
+	/**
+	 * Start preparing playback of [item]. Does nothing when the item is already prepared or can't be
+	 * played by the internal player.
+	 */
+	@Synchronized
+	fun warmUp(item: BaseItemDto) {
+		if (item.mediaType != MediaType.VIDEO || item.isFolder == true) return
+
+		// Same source selection as the playback controller
+		val sources = item.mediaSources ?: return
+		val source = sources.firstOrNull { it.id?.toUUIDOrNull() == item.id } ?: sources.firstOrNull() ?: return
+		val mediaSourceId = source.id ?: return
+
+		val current = warmStream
+		if (current != null && current.itemId == item.id && current.mediaSourceId == mediaSourceId && !current.isExpired) {
+			if (job?.isActive == true || current.streamInfo != null) return
+		}
+
+		release()
+
+		val warm = WarmStream(item.id, mediaSourceId)
+		warmStream = warm
+		job = scope.launch {
+			val options = VideoOptions().apply {
+				itemId = item.id
+				mediaSources = item.mediaSources
+				this.mediaSourceId = mediaSourceId
+				profile = deviceProfileProvider.getDeviceProfile(false)
+			}
+
+			val streamInfo = api.requestVideoStreamInfo(options, 0)
+				.onFailure { Timber.w(it, "Unable to warm up stream of %s", item.id) }
+				.getOrNull()
+			ensureActive()
+
+			// Other play methods depend on the start position and selected streams
+			if (streamInfo == null || streamInfo.playMethod != PlayMethod.DIRECT_PLAY) return@launch
+
+			synchronized(this@StreamWarmUp) {
+				if (warmStream !== warm) return@launch
+				warm.streamInfo = streamInfo
+			}
+
+			prefetch(warm, requireNotNull(streamInfo.mediaUrl))
+		}
+	}
+
+	private suspend fun prefetch(warm: WarmStream, uri: String) {
+		// Reading the start opens the connection, the player reuses it from the connection pool
+		val head = load(DataSpec.Builder().setUri(uri).setPosition(0).setLength(HEAD_BYTES.toLong()).build()) ?: return
+		val (headData, length) = head
+		if (length == C.LENGTH_UNSET.toLong()) return
+
+		addRegion(warm, Region(uri, 0, headData), length)
+		if (!coroutineContext.isActive) return
+
+		// Containers often keep their index at the end, which is read before playback starts
+		if (length <= HEAD_BYTES + TAIL_BYTES) return
+		val tail = load(DataSpec.Builder().setUri(uri).setPosition(length - TAIL_BYTES).setLength(TAIL_BYTES.toLong()).build()) ?: return
+		addRegion(warm, Region(uri, length - TAIL_BYTES, tail.first), length)
+
+		Timber.i("Warmed up stream of %s", warm.itemId)
+	}
+
+	@Synchronized
+	private fun addRegion(warm: WarmStream, region: Region, resourceLength: Long) {
+		if (warmStream !== warm || region.data.isEmpty()) return
+
+		warm.resourceLength = resourceLength
+		regions = regions + region
+	}
+
+	/**
+	 * Load [dataSpec] into memory and return the data with the length of the complete resource. The
+	 * data is read in small parts so cancelling stops after the current part, the data read so far is
+	 * returned when cancelled.
+	 */
+	private suspend fun load(dataSpec: DataSpec): Pair<ByteArray, Long>? {
+		val source = httpDataSourceFactory.createDataSource()
+
+		val data = ByteArray(dataSpec.length.toInt())
+		var filled = 0
+		var resourceLength = C.LENGTH_UNSET.toLong()
+
+		return try {
+			source.open(dataSpec)
+			resourceLength = source.responseHeaders.entries
+				.firstOrNull { (key) -> key.equals("Content-Range", ignoreCase = true) }
+				?.value?.firstOrNull()
+				.let(HttpUtil::getDocumentSize)
+
+			while (filled < data.size && coroutineContext.isActive) {
+				val read = source.read(data, filled, minOf(READ_BYTES, data.size - filled))
+				if (read == C.RESULT_END_OF_INPUT) break
+				filled += read
+			}
+
+			data.copyOf(filled) to resourceLength
+		} catch (err: IOException) {
+			Timber.w(err, "Unable to prefetch %s", dataSpec.uri)
+			null
+		} finally {
+			source.closeQuietly()
+		}
+	}
+
+	/**
+	 * Return the prepared stream info when it matches [options], it is only returned once.
+	 */
+	@Synchronized
+	fun consume(options: VideoOptions): StreamInfo? {
+		val warm = warmStream ?: return null
+		val streamInfo = warm.streamInfo ?: return null
+		val source = streamInfo.mediaSource ?: return null
+
+		// The warm up used the default options, anything else needs a new request
+		if (warm.isExpired) return null
+		if (!matchesWarmUp(options, warm.itemId, warm.mediaSourceId, deviceProfileProvider.getDeviceProfile(false), source)) return null
+
+		warm.streamInfo = null
+		Timber.i("Using warmed up stream of %s", warm.itemId)
+		return streamInfo
+	}
+
+	/**
+	 * Stop preparing playback. Prepared playback is kept until it expires.
+	 */
+	@Synchronized
+	fun cancel() {
+		job?.cancel()
+		job = null
+	}
+
+	/**
+	 * Stop preparing playback and drop the prepared playback.
+	 */
+	@Synchronized
+	fun release() {
+		cancel()
+		warmStream = null
+		regions = emptyList()
+	}
+
+	override fun createDataSource(): DataSource = WarmDataSource(upstream.createDataSource(), ::findRegion)
+
+	private fun findRegion(uri: Uri, position: Long): Pair<Region, Long>? = synchronized(this) {
+		val length = warmStream?.resourceLength ?: return null
+		if (length == C.LENGTH_UNSET.toLong()) return null
+
+		val key = uri.toString()
+		regions.firstOrNull { it.uri == key && position >= it.position && position < it.end }?.let { it to length }
+	}
+
+	private fun DataSource.closeQuietly() {
+		try {
+			close()
+		} catch (_: IOException) {
+			// Ignore, the source is no longer used
+		}
+	}
+}
+
+/**
+ * Reads the prefetched regions from memory and continues with the upstream data source.
+ * [findRegion] returns the region containing a position with the length of the complete resource.
+ */
+@OptIn(UnstableApi::class)
+internal class WarmDataSource(
+	private val upstream: DataSource,
+	private val findRegion: (uri: Uri, position: Long) -> Pair<StreamWarmUp.Region, Long>?,
+) : DataSource {
+	private var dataSpec: DataSpec? = null
+	private var region: StreamWarmUp.Region? = null
+	private var regionOffset = 0
+	private var regionBytes = 0
+	private var regionLength = 0
+	private var remaining = 0L
+	private var upstreamOpened = false
+
+	override fun addTransferListener(transferListener: TransferListener) = upstream.addTransferListener(transferListener)
+
+	override fun open(dataSpec: DataSpec): Long {
+		this.dataSpec = dataSpec
+
+		val (region, resourceLength) = findRegion(dataSpec.uri, dataSpec.position) ?: run {
+			upstreamOpened = true
+			return upstream.open(dataSpec)
+		}
+
+		val length = if (dataSpec.length != C.LENGTH_UNSET.toLong()) dataSpec.length else resourceLength - dataSpec.position
+		this.region = region
+		regionOffset = (dataSpec.position - region.position).toInt()
+		regionBytes = minOf((region.data.size - regionOffset).toLong(), length).toInt()
+		regionLength = regionBytes
+		remaining = length - regionBytes
+		return length
+	}
+
+	override fun read(buffer: ByteArray, offset: Int, length: Int): Int {
+		if (length == 0) return 0
+
+		val region = region
+		if (region != null && regionBytes > 0) {
+			val count = minOf(length, regionBytes)
+			System.arraycopy(region.data, regionOffset, buffer, offset, count)
+			regionOffset += count
+			regionBytes -= count
+			return count
+		}
+
+		if (!upstreamOpened) {
+			if (remaining <= 0) return C.RESULT_END_OF_INPUT
+
+			val dataSpec = requireNotNull(dataSpec)
+			upstreamOpened = true
+			upstream.open(dataSpec.subrange(regionLength.toLong()))
+		}
+
+		return upstream.read(buffer, offset, length)
+	}
+
+	override fun getUri(): Uri? = if (upstreamOpened) upstream.uri else dataSpec?.uri
+
+	override fun getResponseHeaders(): Map<String, List<String>> = if (upstreamOpened) upstream.responseHeaders else emptyMap()
+
+	override fun close() {
+		region = null
+		dataSpec = null
+		regionBytes = 0
+		regionLength = 0
+		remaining = 0
+
+		if (upstreamOpened) {
+			upstreamOpened = false
+			upstream.close()
+		}
+	}
+}
@@ -29,12 +29,12 @@ import androidx.media3.common.TrackSelectionParameters;
 import androidx.media3.common.Tracks;
 import androidx.media3.common.util.UnstableApi;
 import androidx.media3.datasource.DefaultDataSource;
-import androidx.media3.datasource.HttpDataSource;
 import androidx.media3.exoplayer.DefaultRenderersFactory;
 import androidx.media3.exoplayer.ExoPlayer;
 import androidx.media3.exoplayer.analytics.AnalyticsListener;
 import androidx.media3.exoplayer.source.DefaultMediaSourceFactory;
 import androidx.media3.exoplayer.trackselection.DefaultTrackSelector;
+import androidx.media3.exoplayer.upstream.DefaultBandwidthMeter;
 import androidx.media3.exoplayer.util.EventLogger;
 import androidx.media3.extractor.DefaultExtractorsFactory;
 import androidx.media3.extractor.ExtractorsFactory;
@@ -48,9 +48,13 @@ import org.jellyfin.androidtv.R;
 import org.jellyfin.androidtv.data.compat.StreamInfo;
 import org.jellyfin.androidtv.preference.UserPreferences;
 import org.jellyfin.androidtv.preference.constant.ZoomMode;
+import org.jellyfin.androidtv.util.DeviceMemoryUtils;
+import org.jellyfin.playback.media3.exoplayer.AdaptiveLoadControl;
+import org.jellyfin.playback.media3.exoplayer.BufferDecision;
 import org.jellyfin.sdk.api.client.ApiClient;
 import org.jellyfin.sdk.model.api.MediaStream;
 import org.jellyfin.sdk.model.api.MediaStreamType;
+import org.jellyfin.sdk.model.api.PlayMethod;
 import org.jellyfin.sdk.model.api.SubtitleDeliveryMethod;
 import org.koin.java.KoinJavaComponent;
 
@@ -78,6 +82,7 @@ public class VideoManager {
     private PlaybackOverlayFragmentHelper _helper;
     public ExoPlayer mExoPlayer;
     private PlayerView mExoPlayerView;
+    private AdaptiveLoadControl mLoadControl;
     private Handler mHandler = new Handler();
 
     private long mMetaDuration = -1;
@@ -87,7 +92,8 @@ public class VideoManager {
     public boolean isContracted = false;
 
     private final UserPreferences userPreferences = KoinJavaComponent.get(UserPreferences.class);
-    private final HttpDataSource.Factory exoPlayerHttpDataSourceFactory = KoinJavaComponent.get(HttpDataSource.Factory.class);
+    private final PlaybackCache playbackCache = KoinJavaComponent.get(PlaybackCache.class);
+    private final StreamWarmUp streamWarmUp = KoinJavaComponent.get(StreamWarmUp.class);
 
     public VideoManager(@NonNull Activity activity, @NonNull View view, @NonNull PlaybackOverlayFragmentHelper helper) {
         mActivity = activity;
@@ -233,10 +239,15 @@ public class VideoManager {
         );
         exoPlayerBuilder.setTrackSelector(trackSelector);
 
+        DefaultBandwidthMeter bandwidthMeter = DefaultBandwidthMeter.getSingletonInstance(context);
+        mLoadControl = new AdaptiveLoadControl(bandwidthMeter, DeviceMemoryUtils.INSTANCE.getPlaybackBufferBytes(context));
+        exoPlayerBuilder.setBandwidthMeter(bandwidthMeter);
+        exoPlayerBuilder.setLoadControl(mLoadControl);
+
         DefaultExtractorsFactory extractorsFactory = new DefaultExtractorsFactory().setTsExtractorTimestampSearchBytes(TsExtractor.DEFAULT_TIMESTAMP_SEARCH_BYTES * 3);
         extractorsFactory.setConstantBitrateSeekingEnabled(true);
         extractorsFactory.setConstantBitrateSeekingAlwaysEnabled(true);
-        DefaultDataSource.Factory dataSourceFactory = new DefaultDataSource.Factory(context, exoPlayerHttpDataSourceFactory);
+        DefaultDataSource.Factory dataSourceFactory = new DefaultDataSource.Factory(context, streamWarmUp);
         if (assHandler != null) {
             AssSubtitleParserFactory assSubtitleParserFactory = new AssSubtitleParserFactory(assHandler);
             ExtractorsFactory assExtractorsFactory = AssPlayerKt.withAssMkvSupport(extractorsFactory, assSubtitleParserFactory, assHandler);
@@ -252,6 +263,14 @@ public class VideoManager {
         return exoPlayerBuilder;
     }
 
+    public @Nullable BufferDecision getBufferDecision() {
+        return mLoadControl != null ? mLoadControl.getDecision() : null;
+    }
+
+    public long getBufferedBytes() {
+        return mLoadControl != null ? mLoadControl.getBufferedBytes() : 0;
+    }
+
     public boolean isInitialized() {
         return mExoPlayer != null;
     }
@@ -400,6 +419,9 @@ public class VideoManager {
                     .setSubtitleConfigurations(subtitleConfigurations)
                     .build();
 
+            // The source bitrate only applies to the stream when it is not transcoded, otherwise it is measured
+            boolean isTranscoding = streamInfo.getPlayMethod() == PlayMethod.TRANSCODE;
+            mLoadControl.setMediaBitrate(isTranscoding ? null : streamInfo.getMediaSource().getBitrate());
             mExoPlayer.setMediaItem(mediaItem);
             mExoPlayer.prepare();
         } catch (IllegalStateException e) {
@@ -590,6 +612,8 @@ public class VideoManager {
         mPlaybackControllerNotifiable = null;
         stopPlayback();
         releasePlayer();
+        playbackCache.onSessionEnd();
+        streamWarmUp.release();
     }
 
     private void releasePlayer() {
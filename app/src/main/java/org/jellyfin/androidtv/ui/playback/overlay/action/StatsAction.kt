@@ -12,6 +12,7 @@ import androidx.core.view.isVisible
 import org.jellyfin.androidtv.R
 import org.jellyfin.androidtv.databinding.OverlayStatsBindingBinding
 import org.jellyfin.androidtv.ui.graph.NetworkGraphView
+import org.jellyfin.androidtv.ui.playback.PlaybackCache
 import org.jellyfin.androidtv.ui.playback.PlaybackController
 import org.jellyfin.androidtv.ui.playback.getConnectionSpeed
 import org.jellyfin.androidtv.ui.playback.getNetworkStats
@@ -22,6 +23,7 @@ import org.jellyfin.androidtv.util.dp
 import org.jellyfin.sdk.model.api.MediaStream
 import org.jellyfin.sdk.model.api.MediaStreamType
 import org.jellyfin.sdk.model.api.VideoRangeType
+import org.koin.java.KoinJavaComponent
 import java.util.Locale
 
 class StatsAction(
@@ -34,6 +36,7 @@ class StatsAction(
     private val networkHandler = Handler(Looper.getMainLooper())
     private var networkGraph: NetworkGraphView? = null
     private var isMonitoringNetwork = false
+    private val playbackCache by KoinJavaComponent.inject<PlaybackCache>(PlaybackCache::class.java)
 
     init {
         initializeWithIcon(R.drawable.ic_error)
@@ -171,6 +174,8 @@ class StatsAction(
                     lastUploadSpeed = smoothedUpload
                     lastTime = currentTime
 
+                    updateBufferStats(playbackController)
+
                     // Update graph on UI thread
                     networkGraph?.post {
                         try {
@@ -411,6 +416,32 @@ class StatsAction(
 
             playbackState.text = transcodingDetails
         }
+
+        updateBufferStats(playbackController)
+    }
+
+    private fun updateBufferStats(playbackController: PlaybackController) {
+        val decision = playbackController.bufferDecision ?: return
+        val bufferedMb = playbackController.bufferedBytes / (1024.0 * 1024)
+        val targetMb = decision.targetBytes / (1024.0 * 1024)
+
+        binding?.bufferStats?.text = buildString {
+            val bitrate = if (decision.mediaBitrate > 0) "${String.format(Locale.US, "%.1f", decision.mediaBitrate / 1_000_000.0)} Mbps" else "N/A"
+            val throughput = if (decision.throughput > 0) "${String.format(Locale.US, "%.1f", decision.throughput / 1_000_000.0)} Mbps" else "N/A"
+
+            append("• Media Bitrate: $bitrate\n")
+            append("• Network: $throughput\n")
+            append("• Buffered: ${String.format(Locale.US, "%.1f", bufferedMb)} / ${String.format(Locale.US, "%.0f", targetMb)} MB\n")
+            append("• Target: ${decision.minBuffer.inWholeSeconds}-${decision.maxBuffer.inWholeSeconds}s\n")
+            append("• Start After: ${decision.bufferForPlayback.inWholeMilliseconds / 1000.0}s (${decision.bufferForPlaybackAfterRebuffer.inWholeMilliseconds / 1000.0}s after rebuffer)")
+
+            val cacheStats = playbackCache.getStats()
+            if (cacheStats.maxCacheSize > 0) {
+                val usedMb = cacheStats.cacheSize / (1024 * 1024)
+                val maxMb = cacheStats.maxCacheSize / (1024 * 1024)
+                append("\n• Disk Cache: ${String.format(Locale.US, "%.0f", cacheStats.hitRatio * 100)}% hits • $usedMb / $maxMb MB")
+            }
+        }
     }
 
     fun dismissPopup() {
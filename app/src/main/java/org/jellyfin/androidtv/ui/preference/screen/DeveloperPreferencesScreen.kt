@@ -14,6 +14,7 @@ import org.jellyfin.androidtv.ui.preference.dsl.action
 import org.jellyfin.androidtv.ui.preference.dsl.checkbox
 import org.jellyfin.androidtv.ui.preference.dsl.list
 import org.jellyfin.androidtv.ui.preference.dsl.optionsScreen
+import org.jellyfin.androidtv.util.coil.ImageCachePolicy
 import org.jellyfin.androidtv.util.isTvDevice
 import org.koin.android.ext.android.inject
 
@@ -22,6 +23,7 @@ class DeveloperPreferencesScreen : OptionsFragment() {
 	private val systemPreferences: SystemPreferences by inject()
 	private val telemetryPreferences: TelemetryPreferences by inject()
 	private val imageLoader: ImageLoader by inject()
+	private val imageCachePolicy: ImageCachePolicy by inject()
 
 	private fun showRestartDialog() {
 		AlertDialog.Builder(requireContext())
@@ -133,10 +135,31 @@ class DeveloperPreferencesScreen : OptionsFragment() {
 				onActivate = {
 					imageLoader.memoryCache?.clear()
 					imageLoader.diskCache?.clear()
+					imageCachePolicy.metrics.reset()
 					rebuild()
 				}
 			}
 
+			action {
+				setTitle(R.string.image_cache_statistics)
+				val metrics = imageCachePolicy.metrics
+				content = getString(
+					R.string.image_cache_statistics_content,
+					imageCachePolicy.deviceClass.name,
+					Formatter.formatFileSize(context, imageLoader.memoryCache?.size ?: 0),
+					Formatter.formatFileSize(context, imageLoader.memoryCache?.maxSize ?: 0),
+					metrics.memoryHits.get(),
+					metrics.memoryMisses,
+					(metrics.hitRate() * 100).toInt(),
+					metrics.diskHits.get(),
+					metrics.networkLoads.get(),
+					Formatter.formatFileSize(context, metrics.evictedBytes(imageLoader)),
+					metrics.trims.get(),
+				)
+				// Refresh the counters
+				onActivate = { rebuild() }
+			}
+
 			list {
 				setTitle(R.string.pref_disk_cache_size)
 			entries = setOf(
@@ -13,6 +13,7 @@ import org.jellyfin.androidtv.preference.constant.AppLanguage
 import org.jellyfin.androidtv.ui.preference.dsl.OptionsFragment
 import org.jellyfin.androidtv.ui.preference.dsl.enum
 import org.jellyfin.androidtv.ui.preference.dsl.optionsScreen
+import org.jellyfin.preference.store.SharedPreferenceStore
 import timber.log.Timber
 import org.koin.android.ext.android.inject
 
@@ -56,6 +57,7 @@ class LanguagePreferencesScreen : OptionsFragment() {
                         activity.startActivity(mainIntent)
                         
                         // Kill the current process to ensure a clean restart
+                        SharedPreferenceStore.flushAll()
                         android.os.Process.killProcess(android.os.Process.myPid())
                         System.exit(0)
                     } catch (e: Exception) {
@@ -1,6 +1,7 @@
 package org.jellyfin.androidtv.ui.preference.screen
 
 import android.os.Build
+import android.text.format.Formatter
 import android.widget.Toast
 import androidx.lifecycle.lifecycleScope
 import kotlinx.coroutines.Dispatchers
@@ -20,6 +21,7 @@ import org.jellyfin.androidtv.ui.preference.dsl.list
 import org.jellyfin.androidtv.ui.preference.dsl.optionsScreen
 import org.jellyfin.androidtv.ui.preference.dsl.seekbar
 import org.jellyfin.androidtv.util.TimeUtils
+import org.jellyfin.androidtv.util.profile.DeviceProfileProvider
 import org.jellyfin.androidtv.util.profile.createDeviceProfileReport
 import org.jellyfin.sdk.api.client.ApiClient
 import org.jellyfin.sdk.api.client.extensions.clientLogApi
@@ -29,6 +31,7 @@ import timber.log.Timber
 class PlaybackAdvancedPreferencesScreen : OptionsFragment() {
 	private val api: ApiClient by inject()
 	private val userPreferences: UserPreferences by inject()
+	private val deviceProfileProvider: DeviceProfileProvider by inject()
 	private var deviceProfileReported = false
 
 	override val screen by optionsScreen {
@@ -70,6 +73,18 @@ class PlaybackAdvancedPreferencesScreen : OptionsFragment() {
 				bind(userPreferences, UserPreferences.maxBitrate)
 			}
 
+			@Suppress("MagicNumber")
+			list {
+				setTitle(R.string.pref_media_cache_size_title)
+				entries = setOf(0, 512, 1024, 2048, 4096, 8192).associate {
+					val value = if (it == 0) getString(R.string.state_disabled)
+					else Formatter.formatShortFileSize(context, it * 1024L * 1024L)
+
+					it.toString() to value
+				}
+				bind(userPreferences, UserPreferences.mediaCacheSize)
+			}
+
 			enum<RefreshRateSwitchingBehavior> {
 				setTitle(R.string.lbl_refresh_switching)
 				bind(userPreferences, UserPreferences.refreshRateSwitchingBehavior)
@@ -159,7 +174,7 @@ class PlaybackAdvancedPreferencesScreen : OptionsFragment() {
 					lifecycleScope.launch {
 						runCatching {
 							withContext(Dispatchers.IO) {
-								api.clientLogApi.logFile(createDeviceProfileReport(context, userPreferences)).content
+								api.clientLogApi.logFile(createDeviceProfileReport(context, deviceProfileProvider)).content
 							}
 						}.fold(
 							onSuccess = { result ->
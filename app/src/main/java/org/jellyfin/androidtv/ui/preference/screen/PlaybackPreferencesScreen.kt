@@ -20,6 +20,7 @@ import org.jellyfin.androidtv.preference.constant.SkipDuration
 import org.jellyfin.androidtv.preference.constant.SubtitleLanguage
 import org.jellyfin.androidtv.preference.constant.AudioLanguage
 import org.jellyfin.androidtv.preference.constant.StreamSortBy
+import org.jellyfin.androidtv.preference.constant.StreamCacheDuration
 import org.jellyfin.androidtv.preference.constant.StreamMinSizeMovies
 import org.jellyfin.androidtv.preference.constant.StreamMaxSizeMovies
 import org.jellyfin.androidtv.preference.constant.StreamMinSizeEpisodes
@@ -386,6 +387,40 @@ class PlaybackPreferencesScreen : OptionsFragment() {
 				bind(userPreferences, UserPreferences.streamSortBy)
 			}
 
+			@Suppress("MagicNumber")
+			seekbar {
+				setTitle(R.string.pref_stream_max_results)
+				setContent(R.string.pref_stream_max_results_description)
+				min = 0 // value of 0 disables the limit
+				max = 500
+				increment = 25
+				valueFormatter = object : DurationSeekBarPreference.ValueFormatter() {
+					override fun display(value: Int): String = when (value) {
+						0 -> getString(R.string.pref_stream_max_results_unlimited)
+						else -> value.toString()
+					}
+				}
+				bind(userPreferences, UserPreferences.streamMaxResults)
+			}
+
+			enum<StreamCacheDuration> {
+				setTitle(R.string.pref_stream_cache_duration)
+				bind(userPreferences, UserPreferences.streamCacheDuration)
+			}
+
+			checkbox {
+				setTitle(R.string.pref_stream_cache_stale_while_revalidate)
+				setContent(R.string.pref_stream_cache_stale_while_revalidate_description)
+				bind(userPreferences, UserPreferences.streamCacheStaleWhileRevalidate)
+			}
+
+			checkbox {
+				setTitle(R.string.pref_stream_prefetch)
+				setContent(R.string.pref_stream_prefetch_description)
+				bind(userPreferences, UserPreferences.streamPrefetchEnabled)
+				depends { userPreferences[UserPreferences.streamCacheDuration] != StreamCacheDuration.DISABLED }
+			}
+
 			category {
 				setTitle(R.string.pref_stream_filters)
 
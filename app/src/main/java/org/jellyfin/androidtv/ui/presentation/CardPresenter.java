@@ -21,6 +21,7 @@ import org.jellyfin.androidtv.constant.PosterSize;
 import org.jellyfin.androidtv.preference.UserPreferences;
 import org.jellyfin.androidtv.preference.constant.RatingType;
 import org.jellyfin.androidtv.preference.constant.WatchedIndicatorBehavior;
+import org.jellyfin.androidtv.ui.AsyncImageView;
 import org.jellyfin.androidtv.ui.card.InfoUnderSummaryCardView;
 import org.jellyfin.androidtv.ui.card.LegacyImageCardView;
 import org.jellyfin.androidtv.ui.itemhandling.AudioQueueBaseRowItem;
@@ -148,6 +149,16 @@ public class CardPresenter extends Presenter {
             return cardHeight;
         }
 
+        /**
+         * Get the image URL this card would load for {@code rowItem}. Used to prefetch the images of
+         * neighbouring cards, which share the size and aspect ratio of this card.
+         */
+        @Nullable
+        public String getImageUrl(BaseRowItem rowItem) {
+            JellyfinImage image = resolveImage(this, rowItem);
+            return image == null ? getFallbackImageUrl(this, rowItem) : imageHelper.getValue().getImageUrl(image);
+        }
+
         public void setItem(BaseRowItem m) {
             setItem(m, ImageType.POSTER, 130, 150, 150);
         }
@@ -606,6 +617,37 @@ public class CardPresenter extends Presenter {
             }
         }
 
+        /**
+         * Show an empty card for an item that is not loaded, see {@link org.jellyfin.androidtv.ui.itemhandling.ItemRowPlaceholder}.
+         */
+        protected void bindPlaceholder() {
+            resetCardView();
+            mItem = null;
+
+            AsyncImageView imageView = null;
+            if (mCardView instanceof LegacyImageCardView) {
+                LegacyImageCardView cardView = (LegacyImageCardView) mCardView;
+                cardView.setTitleText("");
+                cardView.setContentText("");
+                imageView = cardView.getMainImageView();
+            } else if (mCardView instanceof InfoUnderSummaryCardView) {
+                InfoUnderSummaryCardView cardView = (InfoUnderSummaryCardView) mCardView;
+                cardView.setTitle("");
+                cardView.setSummary("");
+                cardView.setCommunityRating(null);
+                cardView.setCriticRating(null);
+                imageView = cardView.getMainImageView();
+            }
+
+            if (imageView == null) return;
+            if (android.os.Build.VERSION.SDK_INT >= android.os.Build.VERSION_CODES.M) {
+                // Replaces a pending load of the previous item
+                imageView.load(null, null, mDefaultCardImage, aspect, 0);
+            } else {
+                imageView.setImageDrawable(mDefaultCardImage);
+            }
+        }
+
         protected void resetCardView() {
             if (mCardView instanceof LegacyImageCardView) {
                 ((LegacyImageCardView) mCardView).clearBanner();
@@ -697,6 +739,7 @@ public class CardPresenter extends Presenter {
     @Override
     public void onBindViewHolder(Presenter.ViewHolder viewHolder, Object item) {
         if (!(item instanceof BaseRowItem)) {
+            ((ViewHolder) viewHolder).bindPlaceholder();
             return;
         }
         BaseRowItem rowItem = (BaseRowItem) item;
@@ -875,28 +918,9 @@ public class CardPresenter extends Presenter {
         // Post image loading to avoid blocking the main thread
         holder.mCardView.post(() -> {
             try {
-                JellyfinImage image = null;
-                if (rowItem.getBaseItem() != null) {
-                    if (holder.aspect == ImageHelper.ASPECT_RATIO_BANNER) {
-                        image = JellyfinImageKt.getItemImages(rowItem.getBaseItem()).get(org.jellyfin.sdk.model.api.ImageType.BANNER);
-                    } else if (holder.aspect == ImageHelper.ASPECT_RATIO_2_3 && rowItem.getBaseItem().getType() == BaseItemKind.EPISODE && rowItem instanceof BaseItemDtoBaseRowItem && ((BaseItemDtoBaseRowItem) rowItem).getPreferSeriesPoster()) {
-                        image = JellyfinImageKt.getSeriesPrimaryImage(rowItem.getBaseItem());
-                    } else if (holder.aspect == ImageHelper.ASPECT_RATIO_16_9 && !holder.isUserView && (rowItem.getBaseItem().getType() != BaseItemKind.EPISODE || !rowItem.getBaseItem().getImageTags().containsKey(org.jellyfin.sdk.model.api.ImageType.PRIMARY) || (rowItem.getPreferParentThumb() && rowItem.getBaseItem().getParentThumbImageTag() != null))) {
-                        if (rowItem.getPreferParentThumb() || !rowItem.getBaseItem().getImageTags().containsKey(org.jellyfin.sdk.model.api.ImageType.PRIMARY)) {
-                            image = JellyfinImageKt.getParentImages(rowItem.getBaseItem()).get(org.jellyfin.sdk.model.api.ImageType.THUMB);
-                        } else {
-                            image = JellyfinImageKt.getItemImages(rowItem.getBaseItem()).get(org.jellyfin.sdk.model.api.ImageType.THUMB);
-                        }
-                    } else {
-                        image = JellyfinImageKt.getItemImages(rowItem.getBaseItem()).get(org.jellyfin.sdk.model.api.ImageType.PRIMARY);
-                    }
-                }
-
-                int fillWidth = Math.round(holder.getCardWidth() * holder.mCardView.getResources().getDisplayMetrics().density);
-                int fillHeight = Math.round(holder.getCardHeight() * holder.mCardView.getResources().getDisplayMetrics().density);
-
+                JellyfinImage image = resolveImage(holder, rowItem);
                 holder.updateCardViewImage(
-                    image == null ? rowItem.getImageUrl(holder.mCardView.getContext(), imageHelper.getValue(), mImageType != null ? mImageType : ImageType.POSTER, fillWidth, fillHeight) : imageHelper.getValue().getImageUrl(image),
+                    image == null ? getFallbackImageUrl(holder, rowItem) : imageHelper.getValue().getImageUrl(image),
                     image == null ? null : image.getBlurHash()
                 );
             } catch (Exception e) {
@@ -906,6 +930,32 @@ public class CardPresenter extends Presenter {
         });
     }
 
+    @Nullable
+    private JellyfinImage resolveImage(ViewHolder holder, BaseRowItem rowItem) {
+        if (rowItem.getBaseItem() == null) return null;
+
+        if (holder.aspect == ImageHelper.ASPECT_RATIO_BANNER) {
+            return JellyfinImageKt.getItemImages(rowItem.getBaseItem()).get(org.jellyfin.sdk.model.api.ImageType.BANNER);
+        } else if (holder.aspect == ImageHelper.ASPECT_RATIO_2_3 && rowItem.getBaseItem().getType() == BaseItemKind.EPISODE && rowItem instanceof BaseItemDtoBaseRowItem && ((BaseItemDtoBaseRowItem) rowItem).getPreferSeriesPoster()) {
+            return JellyfinImageKt.getSeriesPrimaryImage(rowItem.getBaseItem());
+        } else if (holder.aspect == ImageHelper.ASPECT_RATIO_16_9 && !holder.isUserView && (rowItem.getBaseItem().getType() != BaseItemKind.EPISODE || !rowItem.getBaseItem().getImageTags().containsKey(org.jellyfin.sdk.model.api.ImageType.PRIMARY) || (rowItem.getPreferParentThumb() && rowItem.getBaseItem().getParentThumbImageTag() != null))) {
+            if (rowItem.getPreferParentThumb() || !rowItem.getBaseItem().getImageTags().containsKey(org.jellyfin.sdk.model.api.ImageType.PRIMARY)) {
+                return JellyfinImageKt.getParentImages(rowItem.getBaseItem()).get(org.jellyfin.sdk.model.api.ImageType.THUMB);
+            } else {
+                return JellyfinImageKt.getItemImages(rowItem.getBaseItem()).get(org.jellyfin.sdk.model.api.ImageType.THUMB);
+            }
+        } else {
+            return JellyfinImageKt.getItemImages(rowItem.getBaseItem()).get(org.jellyfin.sdk.model.api.ImageType.PRIMARY);
+        }
+    }
+
+    @Nullable
+    private String getFallbackImageUrl(ViewHolder holder, BaseRowItem rowItem) {
+        int fillWidth = Math.round(holder.getCardWidth() * holder.mCardView.getResources().getDisplayMetrics().density);
+        int fillHeight = Math.round(holder.getCardHeight() * holder.mCardView.getResources().getDisplayMetrics().density);
+        return rowItem.getImageUrl(holder.mCardView.getContext(), imageHelper.getValue(), mImageType != null ? mImageType : ImageType.POSTER, fillWidth, fillHeight);
+    }
+
     @Override
     public void onUnbindViewHolder(Presenter.ViewHolder viewHolder) {
         ((ViewHolder) viewHolder).resetCardView();
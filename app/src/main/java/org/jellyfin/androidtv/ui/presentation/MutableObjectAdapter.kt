@@ -41,6 +41,20 @@ open class MutableObjectAdapter<T : Any> : ObjectAdapter, Iterable<T> {
 		notifyItemRangeChanged(index, 1)
 	}
 
+	fun addAll(index: Int, elements: Collection<T>) {
+		if (elements.isEmpty()) return
+
+		data.addAll(index, elements)
+		notifyItemRangeInserted(index, elements.size)
+	}
+
+	fun setAll(index: Int, elements: Collection<T>) {
+		if (elements.isEmpty()) return
+
+		elements.forEachIndexed { offset, element -> data[index + offset] = element }
+		notifyItemRangeChanged(index, elements.size)
+	}
+
 	fun replaceAll(
 		items: List<T>,
 		areItemsTheSame: (old: T, new: T) -> Boolean = { old, new -> old == new },
@@ -15,8 +15,6 @@ import org.koin.core.component.KoinComponent
 import org.koin.core.component.inject
 import org.jellyfin.androidtv.preference.UserPreferences
 
-import org.jellyfin.androidtv.util.ImagePreloader
-
 class UserViewCardPresenter(
 	val small: Boolean,
 ) : Presenter(), KoinComponent {
@@ -21,7 +21,7 @@ import org.jellyfin.androidtv.R
 import org.jellyfin.androidtv.ui.itemhandling.BaseRowItem
 import org.jellyfin.androidtv.constant.ImageType
 import org.jellyfin.androidtv.util.ImageHelper
-import org.jellyfin.androidtv.util.ImagePreloader
+import org.jellyfin.androidtv.util.ImagePrefetcher
 import org.jellyfin.androidtv.data.service.BackgroundService
 import org.jellyfin.androidtv.util.Utils
 import org.koin.android.ext.android.inject
@@ -129,16 +129,12 @@ class SearchFragment : Fragment() {
 		viewModel.searchResultsFlow
 			.onEach { results: Collection<SearchResultGroup> ->
 				searchFragmentDelegate.showResults(results)
-				// Preload images for all visible and next 5 items
-                // Import required classes
-                // import org.jellyfin.androidtv.util.ImageHelper
-                // import org.jellyfin.androidtv.ui.itemhandling.BaseRowItem
-                // import org.jellyfin.androidtv.constant.ImageType
-                // import org.jellyfin.androidtv.util.ImagePreloader
-
+				// Prefetch the first 5 images of every row
                 val imageHelper: ImageHelper by inject()
+                val imagePrefetcher: ImagePrefetcher by inject()
                 val width: Int = 300 // or whatever your card width is
                 val height: Int = 450 // or whatever your card height is
+                val targets = mutableListOf<ImagePrefetcher.Target>()
                 for (rowIdx in 0 until searchFragmentDelegate.rowsAdapter.size()) {
                     val row = searchFragmentDelegate.rowsAdapter.get(rowIdx)
                     val listRow = row as? androidx.leanback.widget.ListRow ?: continue
@@ -146,13 +142,12 @@ class SearchFragment : Fragment() {
                     val items = (0 until adapter.size()).mapNotNull { idx: Int ->
     adapter.get(idx) as? BaseRowItem
 }
-                    val urls = items.take(5).mapNotNull { item ->
+                    items.take(5).mapNotNullTo(targets) { item ->
                         item.getImageUrl(requireContext(), imageHelper, ImageType.POSTER, width, height)
-                    }
-                    if (urls.isNotEmpty()) {
-                        ImagePreloader.preloadImages(requireContext(), urls)
+                            ?.let { url -> ImagePrefetcher.Target(url, width, height) }
                     }
                 }
+                imagePrefetcher.prefetch(targets)
 			}
 			.launchIn(lifecycleScope)
 
@@ -3,11 +3,14 @@ package org.jellyfin.androidtv.ui.search
 import kotlinx.coroutines.Dispatchers
 import kotlinx.coroutines.withContext
 import org.jellyfin.androidtv.data.repository.ItemRepository
+import org.jellyfin.androidtv.data.repository.LibraryIndexRepository
+import org.jellyfin.androidtv.preference.UserPreferences
 import org.jellyfin.sdk.api.client.ApiClient
 import org.jellyfin.sdk.api.client.exception.ApiClientException
 import org.jellyfin.sdk.api.client.extensions.itemsApi
 import org.jellyfin.sdk.model.api.BaseItemDto
 import org.jellyfin.sdk.model.api.BaseItemKind
+import org.jellyfin.sdk.model.api.ItemFields
 import org.jellyfin.sdk.model.api.MediaType
 import org.jellyfin.sdk.model.api.request.GetItemsRequest
 import timber.log.Timber
@@ -16,26 +19,59 @@ interface SearchRepository {
 	suspend fun search(
 		searchTerm: String,
 		itemTypes: Collection<BaseItemKind>,
+		limit: Int = SearchRepositoryImpl.QUERY_LIMIT,
 	): Result<List<BaseItemDto>>
 }
 
 class SearchRepositoryImpl(
-	private val apiClient: ApiClient
+	private val apiClient: ApiClient,
+	private val userPreferences: UserPreferences,
+	private val libraryIndexRepository: LibraryIndexRepository,
 ) : SearchRepository {
 	companion object {
-		private const val QUERY_LIMIT = 25
+		const val QUERY_LIMIT = 25
 	}
 
+	// Results are only shown as cards, media sources are only needed for the movie badges
+	private val fields: Set<ItemFields>
+		get() = when {
+			userPreferences[UserPreferences.showResolutionBadge] || userPreferences[UserPreferences.showAudioCodecBadge] ->
+				ItemRepository.cardFields + ItemFields.MEDIA_SOURCES
+
+			else -> ItemRepository.cardFields
+		}
+
 	override suspend fun search(
 		searchTerm: String,
 		itemTypes: Collection<BaseItemKind>,
+		limit: Int,
 	): Result<List<BaseItemDto>> = try {
+		// Indexed kinds are searched on the device, the server is only asked for the other kinds
+		val (indexedTypes, remoteTypes) = itemTypes.partition(libraryIndexRepository::isIndexed)
+		val indexedItems = indexedTypes
+			.takeIf { it.isNotEmpty() }
+			?.let { libraryIndexRepository.search(searchTerm, it, limit, fields) }
+		val serverTypes = if (indexedItems == null) itemTypes else remoteTypes
+
+		val serverItems = if (serverTypes.isEmpty()) emptyList() else searchServer(searchTerm, serverTypes, limit)
+
+		Result.success(indexedItems.orEmpty() + serverItems)
+	} catch (e: ApiClientException) {
+		Timber.e(e, "Failed to search for items")
+		Result.failure(e)
+	}
+
+	private suspend fun searchServer(
+		searchTerm: String,
+		itemTypes: Collection<BaseItemKind>,
+		limit: Int,
+	): List<BaseItemDto> {
 		var request = GetItemsRequest(
 			searchTerm = searchTerm,
-			limit = QUERY_LIMIT,
+			limit = limit,
 			imageTypeLimit = 1,
 			includeItemTypes = itemTypes,
-			fields = ItemRepository.itemFields,
+			fields = fields,
 			recursive = true,
 			enableTotalRecordCount = false,
 		)
@@ -49,13 +85,8 @@ class SearchRepositoryImpl(
 			)
 		}
 
-		val result = withContext(Dispatchers.IO) {
-			apiClient.itemsApi.getItems(request).content
+		return withContext(Dispatchers.IO) {
+			apiClient.itemsApi.getItems(request).content.items
 		}
-
-		Result.success(result.items)
-	} catch (e: ApiClientException) {
-		Timber.e(e, "Failed to search for items")
-		Result.failure(e)
 	}
 }
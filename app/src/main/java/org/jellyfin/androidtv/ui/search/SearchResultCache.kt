@@ -0,0 +1,35 @@
+package org.jellyfin.androidtv.ui.search
+
+import org.jellyfin.sdk.model.api.BaseItemDto
+
+/**
+ * Search results per search term. Only the exact (normalized) term is reused, the server matching
+ * can't be reproduced locally so a longer term is always searched again.
+ */
+class SearchResultCache(
+	private val maxEntries: Int = 16,
+) {
+	/**
+	 * @param items The items matching the search term
+	 */
+	data class Entry(
+		val items: List<BaseItemDto>,
+	)
+
+	private val entries = object : LinkedHashMap<String, Entry>(maxEntries, 0.75f, true) {
+		override fun removeEldestEntry(eldest: MutableMap.MutableEntry<String, Entry>?) = size > maxEntries
+	}
+
+	/**
+	 * Get the cached results for [searchTerm].
+	 */
+	operator fun get(searchTerm: String): Entry? = entries[normalize(searchTerm)]
+
+	operator fun set(searchTerm: String, entry: Entry) {
+		entries[normalize(searchTerm)] = entry
+	}
+
+	fun clear() = entries.clear()
+
+	private fun normalize(searchTerm: String) = searchTerm.trim().lowercase()
+}
@@ -1,5 +1,6 @@
 package org.jellyfin.androidtv.ui.search
 
+import androidx.annotation.StringRes
 import androidx.lifecycle.ViewModel
 import androidx.lifecycle.viewModelScope
 import kotlinx.coroutines.Job
@@ -17,24 +18,61 @@ import kotlin.time.Duration.Companion.milliseconds
 class SearchViewModel(
 	private val searchRepository: SearchRepository
 ) : ViewModel() {
+	private data class Group(
+		@StringRes val labelRes: Int,
+		val itemTypes: Set<BaseItemKind>,
+	)
+
+	/**
+	 * A single search request for one or more groups. When a batch has a single group all its
+	 * results belong to that group.
+	 */
+	private data class Batch(
+		val groups: List<Group>,
+		val limit: Int,
+	) {
+		val itemTypes = groups.flatMapTo(mutableSetOf()) { it.itemTypes }
+	}
+
 	companion object {
 		private val debounceDuration = 600.milliseconds
 
-		private val groups = mapOf(
-			R.string.lbl_movies to setOf(BaseItemKind.MOVIE),
-			R.string.lbl_series to setOf(BaseItemKind.SERIES),
-			R.string.lbl_episodes to setOf(BaseItemKind.EPISODE),
-			R.string.lbl_videos to setOf(BaseItemKind.VIDEO),
-			R.string.lbl_programs to setOf(BaseItemKind.LIVE_TV_PROGRAM),
-			R.string.channels to setOf(BaseItemKind.LIVE_TV_CHANNEL),
-			R.string.lbl_playlists to setOf(BaseItemKind.PLAYLIST),
-			R.string.lbl_artists to setOf(BaseItemKind.MUSIC_ARTIST),
-			R.string.lbl_albums to setOf(BaseItemKind.MUSIC_ALBUM),
-			R.string.lbl_songs to setOf(BaseItemKind.AUDIO),
-			R.string.photo_albums to setOf(BaseItemKind.PHOTO_ALBUM),
-			R.string.photos to setOf(BaseItemKind.PHOTO),
-			R.string.lbl_collections to setOf(BaseItemKind.BOX_SET),
-			R.string.lbl_people to setOf(BaseItemKind.PERSON),
+		/**
+		 * Maximum amount of items shown per group.
+		 */
+		private const val GROUP_LIMIT = SearchRepositoryImpl.QUERY_LIMIT
+
+		private val movies = Group(R.string.lbl_movies, setOf(BaseItemKind.MOVIE))
+		private val series = Group(R.string.lbl_series, setOf(BaseItemKind.SERIES))
+		private val episodes = Group(R.string.lbl_episodes, setOf(BaseItemKind.EPISODE))
+		private val videos = Group(R.string.lbl_videos, setOf(BaseItemKind.VIDEO))
+		private val programs = Group(R.string.lbl_programs, setOf(BaseItemKind.LIVE_TV_PROGRAM))
+		private val channels = Group(R.string.channels, setOf(BaseItemKind.LIVE_TV_CHANNEL))
+		private val playlists = Group(R.string.lbl_playlists, setOf(BaseItemKind.PLAYLIST))
+		private val artists = Group(R.string.lbl_artists, setOf(BaseItemKind.MUSIC_ARTIST))
+		private val albums = Group(R.string.lbl_albums, setOf(BaseItemKind.MUSIC_ALBUM))
+		private val songs = Group(R.string.lbl_songs, setOf(BaseItemKind.AUDIO))
+		private val photoAlbums = Group(R.string.photo_albums, setOf(BaseItemKind.PHOTO_ALBUM))
+		private val photos = Group(R.string.photos, setOf(BaseItemKind.PHOTO))
+		private val collections = Group(R.string.lbl_collections, setOf(BaseItemKind.BOX_SET))
+		private val people = Group(R.string.lbl_people, setOf(BaseItemKind.PERSON))
+
+		// Display order of the groups
+		private val groups = listOf(
+			movies, series, episodes, videos, programs, channels, playlists,
+			artists, albums, songs, photoAlbums, photos, collections, people,
+		)
+
+		// Kinds with few items per library share a request, kinds with many items get their own
+		// request so they cannot push the other kinds out of the result
+		private val batches = listOf(
+			Batch(listOf(movies, series, channels, playlists, artists, albums, photoAlbums, collections), GROUP_LIMIT * 4),
+			Batch(listOf(episodes), GROUP_LIMIT),
+			Batch(listOf(videos), GROUP_LIMIT),
+			Batch(listOf(programs), GROUP_LIMIT),
+			Batch(listOf(songs), GROUP_LIMIT),
+			Batch(listOf(photos), GROUP_LIMIT),
+			Batch(listOf(people), GROUP_LIMIT),
 		)
 	}
 
@@ -42,6 +80,9 @@ class SearchViewModel(
 
 	private var previousQuery: String? = null
 
+	// One cache per batch, a batch can be cached while another needs a request
+	private val resultCaches = batches.map { SearchResultCache() }
+
 	private val _searchResultsFlow = MutableStateFlow<Collection<SearchResultGroup>>(emptyList())
 	val searchResultsFlow = _searchResultsFlow.asStateFlow()
 
@@ -59,16 +100,29 @@ class SearchViewModel(
 		}
 
 		searchJob = viewModelScope.launch {
-			delay(debounce)
+			val cached = resultCaches.map { it[query] }
 
-			_searchResultsFlow.value = groups.map { (stringRes, itemKinds) ->
-				async {
-					val result = searchRepository.search(query, itemKinds)
-					val items = result.getOrNull().orEmpty()
+			// Cached results are shown without waiting for more input
+			if (cached.any { it == null }) delay(debounce)
 
-					SearchResultGroup(stringRes, items)
+			val results = batches.mapIndexed { index, batch ->
+				async {
+					cached[index] ?: searchRepository.search(query, batch.itemTypes, batch.limit).getOrNull()?.let { items ->
+						SearchResultCache.Entry(items)
+							.also { resultCaches[index][query] = it }
+					}
 				}
 			}.awaitAll()
+
+			val groupItems = batches.zip(results).flatMap { (batch, entry) ->
+				val items = entry?.items.orEmpty()
+				if (batch.groups.size == 1) listOf(batch.groups.first() to items)
+				else batch.groups.map { group -> group to items.filter { it.type in group.itemTypes } }
+			}.toMap()
+
+			_searchResultsFlow.value = groups.map { group ->
+				SearchResultGroup(group.labelRes, groupItems[group].orEmpty().take(GROUP_LIMIT))
+			}
 		}
 
 		return true
@@ -4,6 +4,7 @@ import android.app.ActivityManager
 import android.content.Context
 import android.graphics.Bitmap
 import android.graphics.Color
+import android.util.LruCache
 import kotlin.math.PI
 import kotlin.math.cos
 import kotlin.math.pow
@@ -38,17 +39,56 @@ object DeviceMemoryUtils {
 		activityManager?.getMemoryInfo(memInfo)
 		return (memInfo.totalMem / (1024 * 1024))
 	}
+
+	/**
+	 * Get the maximum amount of media the player may buffer in bytes for this device class
+	 */
+	fun getPlaybackBufferBytes(context: Context): Int = when {
+		isLowEndDevice(context) -> 64 * 1024 * 1024
+		getTotalMemoryMB(context) <= 4096 -> 160 * 1024 * 1024
+		else -> 256 * 1024 * 1024
+	}
 }
 
 @Suppress("MagicNumber", "NestedBlockDepth")
 object BlurHashDecoder {
 	private const val CHARS = "0123456789ABCDEFGHIJKLMNOPQRSTUVWXYZabcdefghijklmnopqrstuvwxyz#$%*+,-.:;=?@[]^_{|}~"
+	private const val MAX_COMPONENTS = 9
+	private const val BITMAP_CACHE_BYTES = 2 * 1024 * 1024
+	private const val COSINE_CACHE_ENTRIES = 64
+
+	/**
+	 * Decoded placeholders keyed by hash, size and punch. Bitmaps are immutable and shared by all
+	 * users of the same placeholder.
+	 */
+	private val bitmapCache = object : LruCache<String, Bitmap>(BITMAP_CACHE_BYTES) {
+		override fun sizeOf(key: String, value: Bitmap) = value.byteCount
+	}
+
+	/**
+	 * Cosine tables keyed by (size, numComp).
+	 */
+	private val cosineCache = LruCache<Long, FloatArray>(COSINE_CACHE_ENTRIES)
 
 	/**
-	 * Decode a blur hash into a new bitmap.
+	 * Per thread scratch buffers, decoding happens on background threads.
+	 */
+	private val colorBuffer = object : ThreadLocal<FloatArray>() {
+		override fun initialValue() = FloatArray(MAX_COMPONENTS * MAX_COMPONENTS * 3)
+	}
+	private val pixelBuffer = object : ThreadLocal<IntArray>() {
+		override fun initialValue() = IntArray(0)
+	}
+
+	/**
+	 * Decode a blur hash into a bitmap. The result is cached and may be shared, so it must not be
+	 * modified or recycled. Prefer calling this off the main thread.
 	 */
 	fun decode(blurHash: String?, width: Int, height: Int, punch: Float = 1f): Bitmap? {
-		if (blurHash == null || blurHash.length < 6) return null
+		if (blurHash == null || blurHash.length < 6 || width <= 0 || height <= 0) return null
+
+		val key = "$blurHash:$width:$height:$punch"
+		bitmapCache.get(key)?.let { return it }
 
 		val numCompEnc = decode83(blurHash, 0, 1)
 		val numCompX = (numCompEnc % 9) + 1
@@ -58,7 +98,7 @@ object BlurHashDecoder {
 
 		val maxAcEnc = decode83(blurHash, 1, 2)
 		val maxAc = (maxAcEnc + 1) / 166f
-		val colors = FloatArray(totalComp * 3)
+		val colors = colorBuffer.get()!!
 		var colorEnc = decode83(blurHash, 2, 6)
 		decodeDc(colorEnc, colors)
 
@@ -68,7 +108,16 @@ object BlurHashDecoder {
 			decodeAc(colorEnc, maxAc * punch, colors, i * 3)
 		}
 
-		return composeBitmap(width, height, numCompX, numCompY, colors)
+		val bitmap = composeBitmap(width, height, numCompX, numCompY, colors)
+		bitmapCache.put(key, bitmap)
+		return bitmap
+	}
+
+	/**
+	 * Remove all cached placeholders.
+	 */
+	fun clearCache() {
+		bitmapCache.evictAll()
 	}
 
 	private fun decode83(str: String, from: Int, to: Int): Int {
@@ -115,12 +164,13 @@ object BlurHashDecoder {
 
 	private fun composeBitmap(width: Int, height: Int, numCompX: Int, numCompY: Int, colors: FloatArray): Bitmap {
 		// use an array for better performance when writing pixel colors
-		val imageArray = IntArray(width * height)
-		val cosinesX = createCosines(width, numCompX)
-		val cosinesY = when {
-			width == height && numCompX == numCompY -> cosinesX
-			else -> createCosines(height, numCompY)
+		val size = width * height
+		val imageArray = pixelBuffer.get()!!.let { buffer ->
+			if (buffer.size >= size) buffer
+			else IntArray(size).also(pixelBuffer::set)
 		}
+		val cosinesX = getCosines(width, numCompX)
+		val cosinesY = getCosines(height, numCompY)
 
 		for (y in 0 until height) {
 			for (x in 0 until width) {
@@ -145,7 +195,12 @@ object BlurHashDecoder {
 			}
 		}
 
-		return Bitmap.createBitmap(imageArray, width, height, Bitmap.Config.ARGB_8888)
+		return Bitmap.createBitmap(imageArray, 0, width, width, height, Bitmap.Config.ARGB_8888)
+	}
+
+	private fun getCosines(size: Int, numComp: Int): FloatArray {
+		val key = (size.toLong() shl 32) or numComp.toLong()
+		return cosineCache.get(key) ?: createCosines(size, numComp).also { cosineCache.put(key, it) }
 	}
 
 	private fun createCosines(size: Int, numComp: Int) = FloatArray(size * numComp) { index ->
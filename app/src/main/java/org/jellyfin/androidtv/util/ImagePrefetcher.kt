@@ -0,0 +1,144 @@
+package org.jellyfin.androidtv.util
+
+import android.content.Context
+import androidx.annotation.MainThread
+import androidx.leanback.widget.ObjectAdapter
+import androidx.leanback.widget.Presenter
+import coil3.ImageLoader
+import coil3.request.CachePolicy
+import coil3.request.ImageRequest
+import coil3.size.Precision
+import kotlinx.coroutines.CoroutineScope
+import kotlinx.coroutines.Dispatchers
+import kotlinx.coroutines.Job
+import kotlinx.coroutines.SupervisorJob
+import kotlinx.coroutines.launch
+import kotlinx.coroutines.sync.Semaphore
+import kotlinx.coroutines.sync.withPermit
+import org.jellyfin.androidtv.preference.UserPreferences
+import org.jellyfin.androidtv.ui.itemhandling.BaseRowItem
+import org.jellyfin.androidtv.ui.presentation.CardPresenter
+import java.util.concurrent.ConcurrentHashMap
+import kotlin.math.abs
+import kotlin.math.roundToInt
+
+/**
+ * Prefetches the images of the cards around the focused card.
+ *
+ * Cards ahead in the direction of travel are requested first, at the size of the focused card so
+ * the memory cache entry is reused when the card is bound. Requests for cards that are no longer
+ * near the focus are cancelled, duplicate URLs share one request and only a few requests run at
+ * the same time so prefetching does not compete with the visible cards.
+ */
+class ImagePrefetcher(
+	private val context: Context,
+	private val imageLoader: ImageLoader,
+	private val userPreferences: UserPreferences,
+) {
+	companion object {
+		private const val MAX_CONCURRENT_REQUESTS = 3
+		private const val LOOKAHEAD_CARDS = 6
+		private const val LOOKAHEAD_ROWS = 2
+		private const val LOOKBEHIND_CARDS = 2
+	}
+
+	/**
+	 * An image to prefetch with its size in pixels.
+	 */
+	data class Target(
+		val url: String,
+		val width: Int,
+		val height: Int,
+	)
+
+	private val scope = CoroutineScope(Dispatchers.Main.immediate + SupervisorJob())
+	private val permits = Semaphore(MAX_CONCURRENT_REQUESTS)
+	private val inFlight = ConcurrentHashMap<String, Job>()
+
+	private var lastGroup: Any? = null
+	private var lastIndex = -1
+
+	/**
+	 * Prefetch the neighbours of the card at [focusedIndex] in [adapter]. The direction of travel
+	 * is derived from the previously focused index in the same adapter; a jump of more than one
+	 * card (moving between rows of a grid) prefetches whole rows ahead.
+	 */
+	@MainThread
+	fun onCardFocused(itemViewHolder: Presenter.ViewHolder?, adapter: ObjectAdapter?, focusedIndex: Int) {
+		val holder = itemViewHolder as? CardPresenter.ViewHolder ?: return
+		if (adapter == null || focusedIndex < 0) return
+		if (!userPreferences[UserPreferences.preloadImages]) return
+
+		val delta = if (adapter === lastGroup && lastIndex >= 0) focusedIndex - lastIndex else 1
+		lastGroup = adapter
+		lastIndex = focusedIndex
+		if (delta == 0) return
+
+		val direction = if (delta > 0) 1 else -1
+		val step = abs(delta)
+		val lookahead = if (step == 1) LOOKAHEAD_CARDS else step * LOOKAHEAD_ROWS
+
+		val indices = buildList {
+			for (i in 1..lookahead) add(focusedIndex + direction * i)
+			for (i in 1..LOOKBEHIND_CARDS) add(focusedIndex - direction * i)
+		}
+
+		val density = holder.view.resources.displayMetrics.density
+		val width = (holder.cardWidth * density).roundToInt()
+		val height = (holder.cardHeight * density).roundToInt()
+
+		val targets = indices
+			.filter { it in 0 until adapter.size() }
+			.mapNotNull { index ->
+				val item = adapter.get(index) as? BaseRowItem ?: return@mapNotNull null
+				holder.getImageUrl(item)?.let { url -> Target(url, width, height) }
+			}
+
+		prefetch(targets)
+	}
+
+	/**
+	 * Prefetch [targets] in order, cancelling in-flight requests that are not part of [targets].
+	 */
+	@MainThread
+	fun prefetch(targets: List<Target>) {
+		if (!userPreferences[UserPreferences.preloadImages]) return
+
+		val urls = targets.mapTo(mutableSetOf()) { it.url }
+		for ((url, job) in inFlight) {
+			if (url !in urls) job.cancel()
+		}
+
+		for (target in targets) {
+			if (inFlight.containsKey(target.url)) continue
+
+			// The semaphore is fair so requests start in the order they are listed
+			val job = scope.launch {
+				permits.withPermit {
+					val request = ImageRequest.Builder(context)
+						.data(target.url)
+						.size(target.width, target.height)
+						.precision(Precision.INEXACT)
+						.memoryCachePolicy(CachePolicy.ENABLED)
+						.diskCachePolicy(CachePolicy.ENABLED)
+						.build()
+
+					imageLoader.execute(request)
+				}
+			}
+
+			inFlight[target.url] = job
+			job.invokeOnCompletion { inFlight.remove(target.url, job) }
+		}
+	}
+
+	/**
+	 * Cancel all pending prefetch requests. Cached images are kept.
+	 */
+	@MainThread
+	fun cancelAll() {
+		inFlight.values.forEach { it.cancel() }
+		lastGroup = null
+		lastIndex = -1
+	}
+}
@@ -0,0 +1,168 @@
+package org.jellyfin.androidtv.util.coil
+
+import android.app.ActivityManager
+import android.content.ComponentCallbacks2
+import android.content.Context
+import androidx.core.content.getSystemService
+import coil3.EventListener
+import coil3.ImageLoader
+import coil3.decode.DataSource
+import coil3.request.ErrorResult
+import coil3.request.ImageRequest
+import coil3.request.SuccessResult
+import org.jellyfin.androidtv.util.BlurHashDecoder
+import org.jellyfin.androidtv.util.DeviceMemoryUtils
+import timber.log.Timber
+import java.util.concurrent.atomic.AtomicLong
+
+/**
+ * Sizes the Coil caches for the device the app runs on and shrinks them progressively when the
+ * system reports memory pressure.
+ */
+class ImageCachePolicy(context: Context) {
+	companion object {
+		private const val BYTES_PER_MB = 1024L * 1024
+		private const val MID_END_MEMORY_THRESHOLD_BYTES = 4096 * BYTES_PER_MB
+
+		/**
+		 * Upper bound for the memory cache, the fixed size used before the cache was adaptive.
+		 */
+		private const val MAX_MEMORY_CACHE_BYTES = 700 * BYTES_PER_MB
+	}
+
+	enum class DeviceClass(
+		/**
+		 * Share of the app heap limit to use for the memory cache. Bitmaps live in native memory
+		 * so this can go past the heap limit on devices with enough RAM.
+		 */
+		val heapFactor: Float,
+		/**
+		 * Share of the total device memory the memory cache may never exceed.
+		 */
+		val totalMemoryRatio: Float,
+	) {
+		LOW(0.25f, 0.03f),
+		MID(0.75f, 0.06f),
+		HIGH(1.5f, 0.08f),
+	}
+
+	val deviceClass: DeviceClass
+
+	/**
+	 * Memory cache budget in bytes.
+	 */
+	val memoryCacheSize: Long
+
+	/**
+	 * Decode opaque images as RGB_565 to halve their size, only done on low-end devices.
+	 */
+	val allowRgb565: Boolean get() = deviceClass == DeviceClass.LOW
+
+	val metrics = ImageCacheMetrics()
+
+	init {
+		val activityManager = context.getSystemService<ActivityManager>()
+		val memoryInfo = ActivityManager.MemoryInfo()
+		activityManager?.getMemoryInfo(memoryInfo)
+
+		deviceClass = when {
+			activityManager?.isLowRamDevice == true || DeviceMemoryUtils.isLowEndDevice(context) -> DeviceClass.LOW
+			memoryInfo.totalMem <= MID_END_MEMORY_THRESHOLD_BYTES -> DeviceClass.MID
+			else -> DeviceClass.HIGH
+		}
+
+		// The manifest requests a large heap
+		val heapBytes = (activityManager?.largeMemoryClass ?: 128) * BYTES_PER_MB
+		memoryCacheSize = minOf(
+			(heapBytes * deviceClass.heapFactor).toLong(),
+			(memoryInfo.totalMem * deviceClass.totalMemoryRatio).toLong(),
+			MAX_MEMORY_CACHE_BYTES,
+		)
+
+		Timber.i("Image memory cache: ${memoryCacheSize / BYTES_PER_MB}MB for $deviceClass device (${memoryInfo.totalMem / BYTES_PER_MB}MB RAM, ${heapBytes / BYTES_PER_MB}MB heap)")
+	}
+
+	/**
+	 * Shrink the memory cache according to [level] from [ComponentCallbacks2.onTrimMemory].
+	 */
+	@Suppress("DEPRECATION")
+	fun onTrimMemory(imageLoader: ImageLoader, level: Int) {
+		val memoryCache = imageLoader.memoryCache ?: return
+		val fraction = when {
+			level >= ComponentCallbacks2.TRIM_MEMORY_MODERATE -> 0f
+			level >= ComponentCallbacks2.TRIM_MEMORY_BACKGROUND -> 0.25f
+			level >= ComponentCallbacks2.TRIM_MEMORY_UI_HIDDEN -> 0.5f
+			level >= ComponentCallbacks2.TRIM_MEMORY_RUNNING_CRITICAL -> 0.25f
+			level >= ComponentCallbacks2.TRIM_MEMORY_RUNNING_LOW -> 0.5f
+			level >= ComponentCallbacks2.TRIM_MEMORY_RUNNING_MODERATE -> 0.75f
+			else -> return
+		}
+
+		if (fraction == 0f) BlurHashDecoder.clearCache()
+
+		val targetSize = (memoryCache.maxSize * fraction).toLong()
+		if (memoryCache.size <= targetSize) return
+
+		Timber.d("Trimming image memory cache to ${targetSize / BYTES_PER_MB}MB (level $level)")
+		if (targetSize == 0L) memoryCache.clear()
+		else memoryCache.trimToSize(targetSize)
+		metrics.trims.incrementAndGet()
+	}
+
+	/**
+	 * Counts where images were served from. Coil does not expose evictions, they are derived from
+	 * the bytes written to the memory cache minus its current size.
+	 */
+	class ImageCacheMetrics : EventListener() {
+		val memoryHits = AtomicLong()
+		val diskHits = AtomicLong()
+		val networkLoads = AtomicLong()
+		val errors = AtomicLong()
+		val trims = AtomicLong()
+		private val bytesCached = AtomicLong()
+
+		/**
+		 * Requests not served from the memory cache.
+		 */
+		val memoryMisses get() = diskHits.get() + networkLoads.get()
+
+		/**
+		 * Approximate amount of bytes evicted, trimmed or replaced in [imageLoader]'s memory cache.
+		 */
+		fun evictedBytes(imageLoader: ImageLoader): Long {
+			val size = imageLoader.memoryCache?.size ?: 0L
+			return (bytesCached.get() - size).coerceAtLeast(0L)
+		}
+
+		override fun onSuccess(request: ImageRequest, result: SuccessResult) {
+			when (result.dataSource) {
+				DataSource.MEMORY_CACHE -> memoryHits.incrementAndGet()
+				DataSource.DISK -> diskHits.incrementAndGet()
+				DataSource.MEMORY, DataSource.NETWORK -> networkLoads.incrementAndGet()
+			}
+
+			if (result.dataSource != DataSource.MEMORY_CACHE && request.memoryCachePolicy.writeEnabled) {
+				bytesCached.addAndGet(result.image.size)
+			}
+		}
+
+		override fun onError(request: ImageRequest, result: ErrorResult) {
+			errors.incrementAndGet()
+		}
+
+		fun hitRate(): Float {
+			val hits = memoryHits.get()
+			val total = hits + memoryMisses
+			return if (total == 0L) 0f else hits.toFloat() / total
+		}
+
+		fun reset() {
+			memoryHits.set(0)
+			diskHits.set(0)
+			networkLoads.set(0)
+			errors.set(0)
+			trims.set(0)
+			bytesCached.set(0)
+		}
+	}
+}
@@ -0,0 +1,33 @@
+package org.jellyfin.androidtv.util.profile
+
+import org.jellyfin.androidtv.preference.UserPreferences
+import org.jellyfin.sdk.model.api.DeviceProfile
+
+/**
+ * Creates device profiles from the stored [MediaCodecCapabilities]. Profiles are kept per set of
+ * [DeviceProfileOptions] so starting playback only builds a new profile after a preference changed.
+ */
+class DeviceProfileProvider(
+	private val capabilitiesStore: MediaCodecCapabilitiesStore,
+	private val userPreferences: UserPreferences,
+) {
+	companion object {
+		private const val MAX_PROFILES = 4
+	}
+
+	private val profiles = mutableMapOf<DeviceProfileOptions, DeviceProfile>()
+
+	val capabilities get() = capabilitiesStore.capabilities
+
+	fun getDeviceProfile(disableDirectPlay: Boolean): DeviceProfile {
+		val options = userPreferences.getDeviceProfileOptions(disableDirectPlay)
+
+		return synchronized(profiles) {
+			profiles.getOrPut(options) {
+				// Older profiles belong to changed preferences and are unlikely to be used again
+				if (profiles.size >= MAX_PROFILES) profiles.clear()
+				createDeviceProfile(capabilities, options)
+			}
+		}
+	}
+}
@@ -0,0 +1,95 @@
+package org.jellyfin.androidtv.util.profile
+
+import android.content.Context
+import android.os.Build
+import kotlinx.serialization.Serializable
+import kotlinx.serialization.SerializationException
+import kotlinx.serialization.json.Json
+import timber.log.Timber
+import java.io.File
+import java.io.IOException
+
+@Serializable
+data class VideoResolution(
+	val width: Int,
+	val height: Int,
+)
+
+/**
+ * Decoder capabilities used to create the device profile, see [MediaCodecCapabilitiesTest].
+ */
+@Serializable
+data class MediaCodecCapabilities(
+	val supportsAV1: Boolean,
+	val supportsAV1Main10: Boolean,
+	val supportsAVC: Boolean,
+	val supportsAVCHigh10: Boolean,
+	val avcMainLevel: Int,
+	val avcHigh10Level: Int,
+	val supportsHevc: Boolean,
+	val supportsHevcMain10: Boolean,
+	val hevcMainLevel: Int,
+	val hevcMain10Level: Int,
+	val maxResolutionAVC: VideoResolution,
+	val maxResolutionHevc: VideoResolution,
+	val maxResolutionAV1: VideoResolution,
+)
+
+/**
+ * Probes the decoder capabilities once per firmware and keeps them on disk. The available decoders
+ * only change with a system update, which also changes the build fingerprint.
+ */
+class MediaCodecCapabilitiesStore(
+	context: Context,
+) {
+	companion object {
+		/**
+		 * Bump when the probed capabilities change to probe again.
+		 */
+		private const val VERSION = 1
+
+		private val json = Json {
+			ignoreUnknownKeys = true
+		}
+	}
+
+	@Serializable
+	private data class StoredCapabilities(
+		val version: Int,
+		val fingerprint: String,
+		val capabilities: MediaCodecCapabilities,
+	)
+
+	private val file = File(context.cacheDir, "media_capabilities.json")
+
+	val capabilities: MediaCodecCapabilities by lazy {
+		load() ?: MediaCodecCapabilitiesTest().probe().also { capabilities ->
+			Timber.i("Probed media codec capabilities: %s", capabilities)
+			save(capabilities)
+		}
+	}
+
+	private fun load(): MediaCodecCapabilities? = try {
+		if (!file.exists()) null
+		else json.decodeFromString<StoredCapabilities>(file.readText())
+			.takeIf { it.version == VERSION && it.fingerprint == Build.FINGERPRINT }
+			?.capabilities
+	} catch (err: IOException) {
+		Timber.w(err, "Unable to read media codec capabilities")
+		null
+	} catch (err: SerializationException) {
+		Timber.w(err, "Unable to read media codec capabilities")
+		null
+	}
+
+	private fun save(capabilities: MediaCodecCapabilities) {
+		try {
+			// Write to a temporary file first so a partial file is never read
+			val tmp = File(file.parentFile, "${file.name}.tmp")
+			tmp.writeText(json.encodeToString(StoredCapabilities(VERSION, Build.FINGERPRINT, capabilities)))
+			if (!tmp.renameTo(file)) tmp.delete()
+		} catch (err: IOException) {
+			Timber.w(err, "Unable to store media codec capabilities")
+		}
+	}
+}
@@ -1,5 +1,6 @@
 package org.jellyfin.androidtv.util.profile
 
+import android.media.MediaCodecInfo
 import android.media.MediaCodecInfo.CodecProfileLevel
 import android.media.MediaCodecList
 import android.media.MediaFormat
@@ -8,7 +9,12 @@ import android.util.Size
 import timber.log.Timber
 
 class MediaCodecCapabilitiesTest {
-	private val mediaCodecList by lazy { MediaCodecList(MediaCodecList.REGULAR_CODECS) }
+	private val decoders by lazy {
+		MediaCodecList(MediaCodecList.REGULAR_CODECS).codecInfos.filterNot { it.isEncoder }
+	}
+
+	// Capabilities are requested for the same few types many times, only query each decoder once
+	private val capabilities = mutableMapOf<String, List<MediaCodecInfo.CodecCapabilities>>()
 
 	// AVC levels as reported by ffprobe are multiplied by 10, e.g. level 4.1 is 41. Level 1b is set to 9
 	private val avcLevels = listOf(
@@ -109,18 +115,11 @@ class MediaCodecCapabilitiesTest {
 	private fun getDecoderLevel(mime: String, profile: Int): Int {
 		var maxLevel = 0
 
-		for (info in mediaCodecList.codecInfos) {
-			if (info.isEncoder) continue
-
-			try {
-				val capabilities = info.getCapabilitiesForType(mime)
-				for (profileLevel in capabilities.profileLevels) {
-					if (profileLevel.profile == profile) {
-						maxLevel = maxOf(maxLevel, profileLevel.level)
-					}
+		for (capabilities in getCapabilities(mime)) {
+			for (profileLevel in capabilities.profileLevels) {
+				if (profileLevel.profile == profile) {
+					maxLevel = maxOf(maxLevel, profileLevel.level)
 				}
-			} catch (_: IllegalArgumentException) {
-				// Decoder not supported - ignore
 			}
 		}
 
@@ -128,26 +127,19 @@ class MediaCodecCapabilitiesTest {
 	}
 
 	private fun hasDecoder(mime: String, profile: Int, level: Int): Boolean {
-		for (info in mediaCodecList.codecInfos) {
-			if (info.isEncoder) continue
-
-			try {
-				val capabilities = info.getCapabilitiesForType(mime)
-				for (profileLevel in capabilities.profileLevels) {
-					if (profileLevel.profile != profile) continue
-
-					// H.263 levels are not completely ordered:
-					// Level45 support only implies Level10 support
-					if (mime.equals(MediaFormat.MIMETYPE_VIDEO_H263, ignoreCase = true)) {
-						if (profileLevel.level != level && profileLevel.level == CodecProfileLevel.H263Level45 && level > CodecProfileLevel.H263Level10) {
-							continue
-						}
+		for (capabilities in getCapabilities(mime)) {
+			for (profileLevel in capabilities.profileLevels) {
+				if (profileLevel.profile != profile) continue
+
+				// H.263 levels are not completely ordered:
+				// Level45 support only implies Level10 support
+				if (mime.equals(MediaFormat.MIMETYPE_VIDEO_H263, ignoreCase = true)) {
+					if (profileLevel.level != level && profileLevel.level == CodecProfileLevel.H263Level45 && level > CodecProfileLevel.H263Level10) {
+						continue
 					}
-
-					if (profileLevel.level >= level) return true
 				}
-			} catch (_: IllegalArgumentException) {
-				// Decoder not supported - ignore
+
+				if (profileLevel.level >= level) return true
 			}
 		}
 
@@ -155,9 +147,7 @@ class MediaCodecCapabilitiesTest {
 	}
 
 	private fun hasCodecForMime(mime: String): Boolean {
-		for (info in mediaCodecList.codecInfos) {
-			if (info.isEncoder) continue
-
+		for (info in decoders) {
 			if (info.supportedTypes.any { it.equals(mime, ignoreCase = true) }) {
 				Timber.i("found codec %s for mime %s", info.name, mime)
 				return true
@@ -171,26 +161,49 @@ class MediaCodecCapabilitiesTest {
 		var maxWidth = 0
 		var maxHeight = 0
 
-		for (info in mediaCodecList.codecInfos) {
-			if (info.isEncoder) continue
+		for (capabilities in getCapabilities(mime)) {
+			val videoCapabilities = capabilities.videoCapabilities ?: continue
+			val supportedWidth = videoCapabilities.supportedWidths?.upper ?: continue
+			val supportedHeight = videoCapabilities.supportedHeights?.upper ?: continue
 
-			try {
-				val capabilities = info.getCapabilitiesForType(mime)
-				val videoCapabilities = capabilities.videoCapabilities ?: continue
-				val supportedWidth = videoCapabilities.supportedWidths?.upper ?: continue
-				val supportedHeight = videoCapabilities.supportedHeights?.upper ?: continue
+			maxWidth = maxOf(maxWidth, supportedWidth)
+			maxHeight = maxOf(maxHeight, supportedHeight)
+		}
 
-				maxWidth = maxOf(maxWidth, supportedWidth)
-				maxHeight = maxOf(maxHeight, supportedHeight)
+		Timber.d("Computed max resolution for %s: %dx%d", mime, maxWidth, maxHeight)
 
+		return Size(maxWidth, maxHeight)
+	}
+
+	private fun getCapabilities(mime: String) = capabilities.getOrPut(mime) {
+		decoders.mapNotNull { info ->
+			try {
+				info.getCapabilitiesForType(mime)
 			} catch (_: IllegalArgumentException) {
 				// Decoder not supported - ignore
+				null
 			}
 		}
-
-		Timber.d("Computed max resolution for %s: %dx%d", mime, maxWidth, maxHeight)
-
-		return Size(maxWidth, maxHeight)
 	}
 
+	/**
+	 * Probe all capabilities used by the device profile.
+	 */
+	fun probe() = MediaCodecCapabilities(
+		supportsAV1 = supportsAV1(),
+		supportsAV1Main10 = supportsAV1Main10(),
+		supportsAVC = supportsAVC(),
+		supportsAVCHigh10 = supportsAVCHigh10(),
+		avcMainLevel = getAVCMainLevel(),
+		avcHigh10Level = getAVCHigh10Level(),
+		supportsHevc = supportsHevc(),
+		supportsHevcMain10 = supportsHevcMain10(),
+		hevcMainLevel = getHevcMainLevel(),
+		hevcMain10Level = getHevcMain10Level(),
+		maxResolutionAVC = getMaxResolution(MediaFormat.MIMETYPE_VIDEO_AVC).toVideoResolution(),
+		maxResolutionHevc = getMaxResolution(MediaFormat.MIMETYPE_VIDEO_HEVC).toVideoResolution(),
+		maxResolutionAV1 = getMaxResolution(MediaFormat.MIMETYPE_VIDEO_AV1).toVideoResolution(),
+	)
+
+	private fun Size.toVideoResolution() = VideoResolution(width, height)
 }
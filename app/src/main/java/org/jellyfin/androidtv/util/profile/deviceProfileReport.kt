@@ -6,7 +6,6 @@ import android.os.Build
 import android.util.Range
 import kotlinx.serialization.json.Json
 import org.jellyfin.androidtv.BuildConfig
-import org.jellyfin.androidtv.preference.UserPreferences
 import org.jellyfin.androidtv.util.appendCodeBlock
 import org.jellyfin.androidtv.util.appendDetails
 import org.jellyfin.androidtv.util.appendItem
@@ -42,7 +41,7 @@ private val featureNames = setOf(
 
 fun createDeviceProfileReport(
 	context: Context,
-	userPreferences: UserPreferences,
+	deviceProfileProvider: DeviceProfileProvider,
 ) = buildMarkdown {
 	// Header
 	appendLine("---")
@@ -58,12 +57,20 @@ fun createDeviceProfileReport(
 	appendDetails("Generated device profile") {
 		appendCodeBlock(
 			language = "json",
-			code = createDeviceProfile(userPreferences, disableDirectPlay = false)
+			code = deviceProfileProvider.getDeviceProfile(disableDirectPlay = false)
 				.let(ApiSerializer::encodeRequestBody)
 				?.let(::formatJson)
 		)
 	}
 
+	// Stored capabilities used to generate profile
+	appendDetails("Probed codec capabilities") {
+		appendCodeBlock(
+			language = "json",
+			code = prettyPrintJson.encodeToString(deviceProfileProvider.capabilities)
+		)
+	}
+
 	// Device capabilities used to generate profile
 	val isQ = Build.VERSION.SDK_INT >= Build.VERSION_CODES.Q
 	val isS = Build.VERSION.SDK_INT >= Build.VERSION_CODES.S
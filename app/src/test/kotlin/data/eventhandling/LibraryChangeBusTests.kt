@@ -0,0 +1,46 @@
+package org.jellyfin.androidtv.data.eventhandling
+
+import io.kotest.core.spec.style.FunSpec
+import io.kotest.matchers.collections.shouldContainExactly
+import io.kotest.matchers.nulls.shouldBeNull
+import io.kotest.matchers.shouldBe
+import java.time.Instant
+import java.util.UUID
+
+class LibraryChangeBusTests : FunSpec({
+	val start = Instant.parse("2024-01-01T00:00:00Z")
+
+	fun change(minutes: Long) = LibraryChange(
+		kind = LibraryChangeKind.UPDATED,
+		itemIds = setOf(UUID.randomUUID()),
+		time = start.plusSeconds(minutes * 60),
+	)
+
+	test("getChangesSince() returns changes after the given time") {
+		val bus = LibraryChangeBus()
+		val first = change(1)
+		val second = change(2)
+		bus.publish(first)
+		bus.publish(second)
+
+		bus.getChangesSince(start)!! shouldContainExactly listOf(first, second)
+		bus.getChangesSince(first.time)!! shouldContainExactly listOf(second)
+		bus.getChangesSince(second.time)!!.size shouldBe 0
+	}
+
+	test("publish() ignores empty changes") {
+		val bus = LibraryChangeBus()
+		bus.publish(LibraryChange(LibraryChangeKind.ADDED, emptySet(), time = start.plusSeconds(60)))
+		bus.publish(LibraryChange(LibraryChangeKind.REMOVED, emptySet(), setOf(UUID.randomUUID()), time = start.plusSeconds(60)))
+
+		bus.getChangesSince(start)!!.size shouldBe 0
+	}
+
+	test("getChangesSince() returns null when changes were dropped") {
+		val bus = LibraryChangeBus()
+		repeat(201) { bus.publish(change(it + 1L)) }
+
+		bus.getChangesSince(start).shouldBeNull()
+		bus.getChangesSince(start.plusSeconds(60))!!.size shouldBe 200
+	}
+})
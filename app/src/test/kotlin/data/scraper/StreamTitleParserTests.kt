@@ -0,0 +1,133 @@
+package org.jellyfin.androidtv.data.scraper
+
+import io.kotest.core.spec.style.FunSpec
+import io.kotest.matchers.collections.shouldContainExactly
+import io.kotest.matchers.shouldBe
+import kotlin.time.measureTimedValue
+
+class StreamTitleParserTests : FunSpec({
+	fun torrentioStream(index: Int) = StreamTitleParser.parse(
+		url = "https://torrentio.strem.fun/resolve/premiumize/$index/file.mkv",
+		name = "Torrentio\n${if (index % 3 == 0) "4k DV | HDR" else "1080p"}",
+		title = "Movie.Title.2019.${if (index % 3 == 0) "2160p" else "1080p"}.BluRay.REMUX.HEVC.DTS-HD.MA.7.1-GROUP\n" +
+			"👤 ${index % 250} 💾 ${(index % 60) + 1}.${index % 100} GB ⚙️ ThePirateBay",
+		filename = "Movie.Title.2019.${if (index % 3 == 0) "2160p" else "1080p"}.BluRay.REMUX.HEVC.DTS-HD.MA.7.1-GROUP.mkv",
+		bingeGroup = if (index % 2 == 0) "torrentio|4k|BluRay REMUX|hevc|DV" else "torrentio|0123456789abcdef0123456789abcdef",
+		provider = "Torrentio",
+		requireBingeMetadata = true,
+	)
+
+	test("StreamTitleParser.parse() extracts typed fields from Torrentio streams") {
+		val stream = StreamTitleParser.parse(
+			url = "https://example.com/stream.mkv",
+			name = "Torrentio\n4k DV | HDR",
+			title = "Movie.2019.2160p.BluRay.REMUX.HEVC.TrueHD.Atmos.7.1\n👤 42 💾 58.3 GB ⚙️ RARBG",
+			filename = "Movie.2019.2160p.BluRay.REMUX.HEVC.TrueHD.Atmos.7.1.mkv",
+			bingeGroup = "torrentio|4k|BluRay REMUX|hevc|DV",
+			provider = "Torrentio",
+			requireBingeMetadata = true,
+		)
+
+		stream.quality shouldBe "4k"
+		stream.resolution shouldBe StreamResolution.UHD_2160P
+		stream.seeds shouldBe 42
+		stream.fileSize shouldBe "58.3 GB"
+		stream.sizeBytes shouldBe (58.3 * 1024 * 1024 * 1024).toLong()
+		stream.source shouldBe "RARBG"
+		stream.hdrFormats shouldContainExactly listOf("Dolby Vision")
+		stream.hasDolbyVision shouldBe true
+		stream.hasHdr shouldBe true
+		stream.codec shouldBe "hevc"
+		stream.release shouldBe "REMUX"
+		stream.isAtmos shouldBe true
+		stream.audioChannels shouldBe 7
+	}
+
+	test("StreamTitleParser.parse() ignores hash-only binge groups") {
+		val stream = StreamTitleParser.parse(
+			url = "https://example.com/episode.mkv",
+			name = "Torrentio\n720p",
+			title = "Show.S01E01.720p.WEB-DL.x264\n👤 5 💾 512 MB ⚙️ EZTV",
+			filename = "Show.S01E01.720p.WEB-DL.x264.mkv",
+			bingeGroup = "torrentio|0123456789abcdef0123456789abcdef",
+			provider = "Torrentio",
+			requireBingeMetadata = true,
+		)
+
+		stream.resolution shouldBe StreamResolution.HD_720P
+		stream.sizeBytes shouldBe 512L * 1024 * 1024
+		stream.codec shouldBe "x264"
+		stream.release shouldBe "WEB-DL"
+		stream.hdrFormats shouldContainExactly listOf("SDR")
+		stream.hasHdr shouldBe false
+		stream.audioChannels shouldBe 2
+	}
+
+	test("StreamTitleParser.parse() prefers the behavior hints video size") {
+		val stream = StreamTitleParser.parse(
+			url = "https://example.com/stream.mkv",
+			name = "[PM+] AIOStreams 1080p",
+			title = "💾 1.2 GB",
+			filename = "Movie.2020.1080p.mkv",
+			bingeGroup = "com.aiostreams.viren070|premiumize|false|1080p|BluRay|HEVC|DTS-HD MA|HDR10",
+			provider = "AIOStreams",
+			videoSize = 3L * 1024 * 1024 * 1024,
+		)
+
+		stream.fileSize shouldBe "3.00 GB"
+		stream.sizeBytes shouldBe 3L * 1024 * 1024 * 1024
+		stream.hdrFormats shouldContainExactly listOf("HDR10")
+		stream.release shouldBe "BLURAY"
+	}
+
+	test("StreamTitleParser.parse() does not read sizes as audio channels") {
+		val stream = StreamTitleParser.parse(
+			url = "https://example.com/stream.mkv",
+			name = "Torrentio\n1080p",
+			title = "Movie.2020.1080p.WEB-DL.x264\n👤 12 💾 1.2 GB ⚙️ YTS",
+			filename = "Movie.2020.1080p.WEB-DL.x264.mkv",
+			bingeGroup = "",
+			provider = "Torrentio",
+		)
+
+		stream.sizeBytes shouldBe (1.2 * 1024 * 1024 * 1024).toLong()
+		stream.audioChannels shouldBe 2
+	}
+
+	test("StreamTitleParser.parse() parses every stream of a large response") {
+		// A large response, comparable to a popular title on Torrentio
+		val streams = (0 until 2000).map { index -> index to torrentioStream(index) }
+
+		for ((index, stream) in streams) {
+			val size = "${(index % 60) + 1}.${index % 100}".toDouble()
+			stream.sizeBytes shouldBe (size * 1024 * 1024 * 1024).toLong()
+			stream.seeds shouldBe index % 250
+			stream.source shouldBe "ThePirateBay"
+			stream.audioChannels shouldBe 7
+			stream.resolution shouldBe if (index % 3 == 0) StreamResolution.UHD_2160P else StreamResolution.FHD_1080P
+		}
+	}
+
+	test("StreamTitleParser.parse() sizes sort like the display sizes") {
+		// The previous sorting parsed the display size with a new pattern on every comparison
+		fun parseFileSize(fileSize: String): Long {
+			val match = Regex("([\\d.]+)\\s*(GB|MB|GiB|MiB)").find(fileSize) ?: return 0L
+			val size = match.groupValues[1].toDoubleOrNull() ?: return 0L
+			return when (match.groupValues[2].uppercase()) {
+				"GB", "GIB" -> (size * 1024 * 1024 * 1024).toLong()
+				else -> (size * 1024 * 1024).toLong()
+			}
+		}
+
+		val streams = (0 until 2000).map(::torrentioStream)
+
+		// Both orders are measured and logged, timings on shared runners are too noisy to assert
+		repeat(3) {
+			val (displayOrder, displayTime) = measureTimedValue { streams.sortedByDescending { parseFileSize(it.fileSize) } }
+			val (typedOrder, typedTime) = measureTimedValue { streams.sortedByDescending { it.sizeBytes } }
+			println("Sorting ${streams.size} streams: display size $displayTime, typed size $typedTime")
+
+			typedOrder.map { it.sizeBytes } shouldContainExactly displayOrder.map { it.sizeBytes }
+		}
+	}
+})
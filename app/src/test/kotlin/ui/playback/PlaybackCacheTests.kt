@@ -0,0 +1,57 @@
+package org.jellyfin.androidtv.ui.playback
+
+import io.kotest.core.spec.style.FunSpec
+import io.kotest.matchers.shouldBe
+
+class PlaybackCacheTests : FunSpec({
+	val baseUrl = "https://demo.jellyfin.org/stable/"
+
+	test("Static streams ignore session parameters") {
+		val first = PlaybackCache.getCacheKey("https://demo.jellyfin.org/stable/Videos/abc/stream.mkv?Static=true&MediaSourceId=abc&api_key=one&PlaySessionId=1&DeviceId=tv", baseUrl)
+		val second = PlaybackCache.getCacheKey("https://demo.jellyfin.org/stable/Videos/abc/stream.mkv?api_key=two&DeviceId=tv&PlaySessionId=2&MediaSourceId=abc&Static=true", baseUrl)
+
+		first shouldBe PlaybackCache.CacheKey("https://demo.jellyfin.org/stable/Videos/abc/stream.mkv?MediaSourceId=abc&Static=true", sessionOnly = false)
+		second shouldBe first
+	}
+
+	test("Static streams keep the order of repeated parameters") {
+		PlaybackCache.getCacheKey("https://host/Videos/abc/stream?static=true&b=2&a=1&b=1", null).key shouldBe
+			"https://host/Videos/abc/stream?a=1&b=2&b=1&static=true"
+	}
+
+	test("Transcodes of the server are only valid in the session") {
+		listOf(
+			"https://demo.jellyfin.org/stable/videos/abc/master.m3u8?PlaySessionId=1&api_key=one",
+			"https://demo.jellyfin.org/stable/Videos/abc/hls1/main/0.ts?PlaySessionId=1",
+			"https://demo.jellyfin.org/stable/Videos/abc/stream.mkv?PlaySessionId=1&VideoCodec=h264",
+			"https://demo.jellyfin.org/stable/Audio/abc/universal?PlaySessionId=1",
+		).forEach { url ->
+			PlaybackCache.getCacheKey(url, baseUrl) shouldBe PlaybackCache.CacheKey(url, sessionOnly = true)
+		}
+	}
+
+	test("Live streams are only valid in the session") {
+		listOf(
+			"https://demo.jellyfin.org/stable/LiveTv/LiveStreamFiles/abc/stream.ts",
+			"https://demo.jellyfin.org/stable/Videos/abc/stream.ts?Static=true&MediaSourceId=abc&LiveStreamId=def&api_key=one",
+			"https://tuner.example.com/LiveTv/LiveStreamFiles/abc/stream.ts",
+		).forEach { url ->
+			PlaybackCache.getCacheKey(url, baseUrl) shouldBe PlaybackCache.CacheKey(url, sessionOnly = true)
+		}
+	}
+
+	test("Streams of other hosts are kept between sessions") {
+		listOf(
+			"https://debrid.example.com/dl/abc/movie.mkv?token=abc",
+			"https://demo.jellyfin.org/other/Videos/abc/stream.mkv?PlaySessionId=1",
+			"https://demo.jellyfin.org/stable/Items/abc/Download?api_key=one",
+		).forEach { url ->
+			PlaybackCache.getCacheKey(url, baseUrl) shouldBe PlaybackCache.CacheKey(url, sessionOnly = false)
+		}
+	}
+
+	test("Streams are kept between sessions without a server") {
+		val url = "https://demo.jellyfin.org/stable/Videos/abc/master.m3u8"
+		PlaybackCache.getCacheKey(url, null) shouldBe PlaybackCache.CacheKey(url, sessionOnly = false)
+	}
+})
@@ -0,0 +1,150 @@
+package org.jellyfin.androidtv.ui.playback
+
+import android.net.Uri
+import androidx.media3.common.C
+import androidx.media3.datasource.DataSource
+import androidx.media3.datasource.DataSpec
+import androidx.media3.datasource.TransferListener
+import io.kotest.core.spec.style.FunSpec
+import io.kotest.matchers.shouldBe
+import io.mockk.every
+import io.mockk.mockk
+import org.jellyfin.androidtv.data.compat.VideoOptions
+import org.jellyfin.sdk.model.api.DeviceProfile
+import org.jellyfin.sdk.model.api.MediaSourceInfo
+import java.io.ByteArrayOutputStream
+import java.util.UUID
+
+private val resource = ByteArray(100) { it.toByte() }
+
+/**
+ * Upstream serving [resource] that records the opened ranges.
+ */
+private class FakeUpstream(private val uri: Uri) : DataSource {
+	val opened = mutableListOf<Pair<Long, Long>>()
+	private var position = 0
+	private var end = 0
+
+	override fun addTransferListener(transferListener: TransferListener) = Unit
+
+	override fun open(dataSpec: DataSpec): Long {
+		opened += dataSpec.position to dataSpec.length
+		position = dataSpec.position.toInt()
+		end = if (dataSpec.length == C.LENGTH_UNSET.toLong()) resource.size else position + dataSpec.length.toInt()
+		return (end - position).toLong()
+	}
+
+	override fun read(buffer: ByteArray, offset: Int, length: Int): Int {
+		if (position >= end) return C.RESULT_END_OF_INPUT
+		val count = minOf(length, end - position)
+		System.arraycopy(resource, position, buffer, offset, count)
+		position += count
+		return count
+	}
+
+	override fun getUri(): Uri = uri
+
+	override fun close() = Unit
+}
+
+private fun DataSource.readAll(): ByteArray {
+	val output = ByteArrayOutputStream()
+	val buffer = ByteArray(16)
+	while (true) {
+		val read = read(buffer, 0, buffer.size)
+		if (read == C.RESULT_END_OF_INPUT) break
+		output.write(buffer, 0, read)
+	}
+	return output.toByteArray()
+}
+
+private fun dataSpec(uri: Uri, position: Long, length: Long = C.LENGTH_UNSET.toLong()) =
+	DataSpec.Builder().setUri(uri).setPosition(position).setLength(length).build()
+
+class StreamWarmUpTests : FunSpec({
+	val uri = mockk<Uri>()
+	val head = StreamWarmUp.Region("stream", 0, resource.copyOfRange(0, 40))
+	val tail = StreamWarmUp.Region("stream", 60, resource.copyOfRange(60, 100))
+
+	fun warmDataSource(upstream: DataSource, vararg regions: StreamWarmUp.Region) = WarmDataSource(upstream) { _, position ->
+		regions.firstOrNull { position >= it.position && position < it.end }?.let { it to resource.size.toLong() }
+	}
+
+	test("WarmDataSource continues after the region with the upstream") {
+		val upstream = FakeUpstream(uri)
+		val source = warmDataSource(upstream, head)
+
+		source.open(dataSpec(uri, 10)) shouldBe 90
+		source.readAll() shouldBe resource.copyOfRange(10, 100)
+		upstream.opened shouldBe listOf(40L to C.LENGTH_UNSET.toLong())
+	}
+
+	test("WarmDataSource reads a range inside the region from memory") {
+		val upstream = FakeUpstream(uri)
+		val source = warmDataSource(upstream, head)
+
+		source.open(dataSpec(uri, 5, 10)) shouldBe 10
+		source.readAll() shouldBe resource.copyOfRange(5, 15)
+		upstream.opened shouldBe emptyList()
+	}
+
+	test("WarmDataSource requests the remainder of a range ending after the region") {
+		val upstream = FakeUpstream(uri)
+		val source = warmDataSource(upstream, head)
+
+		source.open(dataSpec(uri, 30, 20)) shouldBe 20
+		source.readAll() shouldBe resource.copyOfRange(30, 50)
+		upstream.opened shouldBe listOf(40L to 10L)
+	}
+
+	test("WarmDataSource reads the end of the resource from memory") {
+		val upstream = FakeUpstream(uri)
+		val source = warmDataSource(upstream, head, tail)
+
+		source.open(dataSpec(uri, 70)) shouldBe 30
+		source.readAll() shouldBe resource.copyOfRange(70, 100)
+		upstream.opened shouldBe emptyList()
+	}
+
+	test("WarmDataSource uses the upstream outside of the regions") {
+		val upstream = FakeUpstream(uri)
+		val source = warmDataSource(upstream, head, tail)
+
+		source.open(dataSpec(uri, 50, 5)) shouldBe 5
+		source.readAll() shouldBe resource.copyOfRange(50, 55)
+		upstream.opened shouldBe listOf(50L to 5L)
+	}
+
+	val itemId = UUID.randomUUID()
+	val profile = mockk<DeviceProfile>()
+	val mediaSource = mockk<MediaSourceInfo> {
+		every { defaultAudioStreamIndex } returns 1
+		every { defaultSubtitleStreamIndex } returns null
+	}
+
+	fun options(block: VideoOptions.() -> Unit = {}) = VideoOptions().apply {
+		this.itemId = itemId
+		mediaSourceId = "source"
+		this.profile = profile
+		block()
+	}
+
+	test("Warm up matches the default options") {
+		StreamWarmUp.matchesWarmUp(options(), itemId, "source", profile, mediaSource) shouldBe true
+		StreamWarmUp.matchesWarmUp(options { audioStreamIndex = 1 }, itemId, "source", profile, mediaSource) shouldBe true
+	}
+
+	test("Warm up does not match other options") {
+		listOf(
+			options { this.itemId = UUID.randomUUID() },
+			options { mediaSourceId = "other" },
+			options { this.profile = mockk() },
+			options { enableDirectPlay = false },
+			options { maxAudioChannels = 2 },
+			options { audioStreamIndex = 2 },
+			options { subtitleStreamIndex = 3 },
+		).forEach { options ->
+			StreamWarmUp.matchesWarmUp(options, itemId, "source", profile, mediaSource) shouldBe false
+		}
+	}
+})
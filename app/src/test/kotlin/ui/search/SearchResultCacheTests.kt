@@ -0,0 +1,48 @@
+package org.jellyfin.androidtv.ui.search
+
+import io.kotest.core.spec.style.FunSpec
+import io.kotest.matchers.collections.shouldContainExactly
+import io.kotest.matchers.nulls.shouldBeNull
+import io.kotest.matchers.nulls.shouldNotBeNull
+import org.jellyfin.sdk.model.api.BaseItemDto
+import org.jellyfin.sdk.model.api.BaseItemKind
+import java.util.UUID
+
+class SearchResultCacheTests : FunSpec({
+	fun item(name: String) = BaseItemDto(
+		id = UUID.randomUUID(),
+		type = BaseItemKind.MOVIE,
+		name = name,
+	)
+
+	val starWars = item("Star Wars")
+	val stargate = item("Stargate")
+	val mustang = item("Mustang")
+
+	test("SearchResultCache returns exact matches") {
+		val cache = SearchResultCache()
+		cache["sta"] = SearchResultCache.Entry(listOf(starWars, mustang))
+
+		cache["sta"].shouldNotBeNull().items shouldContainExactly listOf(starWars, mustang)
+		cache[" STA "].shouldNotBeNull().items shouldContainExactly listOf(starWars, mustang)
+	}
+
+	test("SearchResultCache does not reuse results for other terms") {
+		val cache = SearchResultCache()
+		cache["sta"] = SearchResultCache.Entry(listOf(starWars, stargate, mustang))
+
+		cache["star"].shouldBeNull()
+		cache["st"].shouldBeNull()
+	}
+
+	test("SearchResultCache evicts the least recently used term") {
+		val cache = SearchResultCache(maxEntries = 2)
+		cache["a"] = SearchResultCache.Entry(emptyList())
+		cache["b"] = SearchResultCache.Entry(emptyList())
+		cache["a"]
+		cache["c"] = SearchResultCache.Entry(emptyList())
+
+		cache["a"].shouldNotBeNull()
+		cache["b"].shouldBeNull()
+	}
+})
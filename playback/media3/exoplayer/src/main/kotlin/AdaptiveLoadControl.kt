@@ -0,0 +1,168 @@
+package org.jellyfin.playback.media3.exoplayer
+
+import android.os.SystemClock
+import androidx.annotation.OptIn
+import androidx.media3.common.C
+import androidx.media3.common.util.UnstableApi
+import androidx.media3.common.util.Util
+import androidx.media3.exoplayer.DefaultLoadControl
+import androidx.media3.exoplayer.LoadControl
+import androidx.media3.exoplayer.analytics.PlayerId
+import androidx.media3.exoplayer.upstream.BandwidthMeter
+import kotlin.time.Duration
+import kotlin.time.Duration.Companion.microseconds
+import kotlin.time.Duration.Companion.milliseconds
+import kotlin.time.Duration.Companion.seconds
+
+/**
+ * Buffer targets chosen for the current media by the [AdaptiveLoadControl].
+ */
+data class BufferDecision(
+	/**
+	 * Media bitrate in bits per second the targets are based on, 0 when unknown.
+	 */
+	val mediaBitrate: Int,
+	/**
+	 * Measured network throughput in bits per second, 0 when unknown.
+	 */
+	val throughput: Long,
+	val minBuffer: Duration,
+	val maxBuffer: Duration,
+	val bufferForPlayback: Duration,
+	val bufferForPlaybackAfterRebuffer: Duration,
+	val targetBytes: Int,
+) {
+	companion object {
+		private val MIN_BUFFER = 10.seconds
+		private val MAX_BUFFER = 120.seconds
+		private val BUFFER_FOR_PLAYBACK = 2500.milliseconds
+		private val BUFFER_FOR_PLAYBACK_AFTER_REBUFFER = 5.seconds
+
+		// Assumed bitrate until the media bitrate is known
+		private const val DEFAULT_BITRATE = 20_000_000
+
+		// Throughput below this multiple of the media bitrate leaves little room for network hiccups
+		private const val MIN_THROUGHPUT_HEADROOM = 1.5
+
+		/**
+		 * Pick buffer targets that fit [memoryBudget] bytes for media of [mediaBitrate] loaded at
+		 * [throughput]. Low bitrate media buffers further ahead, high bitrate media is limited by the
+		 * memory budget instead of a fixed duration.
+		 */
+		fun create(mediaBitrate: Int, throughput: Long, memoryBudget: Int): BufferDecision {
+			val bitrate = mediaBitrate.takeIf { it > 0 } ?: DEFAULT_BITRATE
+			val maxBuffer = (memoryBudget * 8.0 / bitrate).seconds.coerceIn(MIN_BUFFER, MAX_BUFFER)
+
+			// Keep loading continuously and wait for a larger buffer when the network barely keeps up
+			val isThroughputLimited = throughput > 0 && throughput < bitrate * MIN_THROUGHPUT_HEADROOM
+
+			return BufferDecision(
+				mediaBitrate = mediaBitrate.coerceAtLeast(0),
+				throughput = throughput.coerceAtLeast(0),
+				minBuffer = if (isThroughputLimited) maxBuffer else (maxBuffer / 2).coerceAtLeast(MIN_BUFFER),
+				maxBuffer = maxBuffer,
+				bufferForPlayback = if (isThroughputLimited) BUFFER_FOR_PLAYBACK * 2 else BUFFER_FOR_PLAYBACK,
+				bufferForPlaybackAfterRebuffer = if (isThroughputLimited) BUFFER_FOR_PLAYBACK_AFTER_REBUFFER * 2 else BUFFER_FOR_PLAYBACK_AFTER_REBUFFER,
+				targetBytes = memoryBudget,
+			)
+		}
+	}
+}
+
+/**
+ * [LoadControl] that sizes the playback buffer from the media bitrate, the device memory budget and
+ * the measured network throughput. The targets are reevaluated while loading, see [decision].
+ */
+@OptIn(UnstableApi::class)
+class AdaptiveLoadControl(
+	private val bandwidthMeter: BandwidthMeter,
+	maxBufferBytes: Int,
+	private val delegate: DefaultLoadControl = DefaultLoadControl(),
+) : LoadControl by delegate {
+	companion object {
+		private const val MIN_LOADING_BUFFER_US = 500_000L
+		private const val MIN_MEASURED_BUFFER_US = 2_000_000L
+		private const val UPDATE_INTERVAL_MS = 1_000L
+	}
+
+	// Buffers are allocated on the Java heap
+	private val memoryBudget = minOf(maxBufferBytes.toLong(), Runtime.getRuntime().maxMemory() / 2).toInt()
+
+	@Volatile
+	private var mediaBitrate = 0
+	private var isLoading = false
+	private var updatedAt = 0L
+
+	@Volatile
+	var decision = BufferDecision.create(0, bandwidthMeter.bitrateEstimate, memoryBudget)
+		private set
+
+	val bufferedBytes get() = delegate.allocator.totalBytesAllocated
+
+	/**
+	 * Set the bitrate of the playing media in bits per second, or null when unknown. The bitrate
+	 * is measured from the buffered media when unknown.
+	 */
+	fun setMediaBitrate(bitrate: Int?) {
+		mediaBitrate = bitrate?.takeIf { it > 0 } ?: 0
+		updatedAt = 0
+	}
+
+	private fun update(bufferedDurationUs: Long): BufferDecision {
+		val now = SystemClock.elapsedRealtime()
+		if (now - updatedAt < UPDATE_INTERVAL_MS) return decision
+		updatedAt = now
+
+		val bitrate = when {
+			mediaBitrate > 0 -> mediaBitrate
+			bufferedDurationUs >= MIN_MEASURED_BUFFER_US -> (bufferedBytes.toLong() * 8 * C.MICROS_PER_SECOND / bufferedDurationUs).toInt()
+			else -> 0
+		}
+
+		decision = BufferDecision.create(bitrate, bandwidthMeter.bitrateEstimate, memoryBudget)
+		return decision
+	}
+
+	override fun shouldContinueLoading(parameters: LoadControl.Parameters): Boolean {
+		val decision = update(parameters.bufferedDurationUs)
+		val targetBytesReached = bufferedBytes >= decision.targetBytes
+		val maxBufferUs = decision.maxBuffer.inWholeMicroseconds
+
+		var minBufferUs = decision.minBuffer.inWholeMicroseconds
+		if (parameters.playbackSpeed > 1) {
+			minBufferUs = minOf(Util.getMediaDurationForPlayoutDuration(minBufferUs, parameters.playbackSpeed), maxBufferUs)
+		}
+		minBufferUs = maxOf(minBufferUs, MIN_LOADING_BUFFER_US)
+
+		if (parameters.bufferedDurationUs < minBufferUs) isLoading = !targetBytesReached
+		else if (parameters.bufferedDurationUs >= maxBufferUs || targetBytesReached) isLoading = false
+
+		return isLoading
+	}
+
+	override fun shouldStartPlayback(parameters: LoadControl.Parameters): Boolean {
+		val decision = decision
+		val bufferedDuration = Util.getPlayoutDurationForMediaDuration(parameters.bufferedDurationUs, parameters.playbackSpeed).microseconds
+		var minBuffer = if (parameters.rebuffering) decision.bufferForPlaybackAfterRebuffer else decision.bufferForPlayback
+		if (parameters.targetLiveOffsetUs != C.TIME_UNSET) {
+			minBuffer = minOf(minBuffer, (parameters.targetLiveOffsetUs / 2).microseconds)
+		}
+
+		return bufferedDuration >= minBuffer || bufferedBytes >= decision.targetBytes
+	}
+
+	override fun onPrepared(playerId: PlayerId) {
+		isLoading = false
+		delegate.onPrepared(playerId)
+	}
+
+	override fun onStopped(playerId: PlayerId) {
+		isLoading = false
+		delegate.onStopped(playerId)
+	}
+
+	override fun onReleased(playerId: PlayerId) {
+		isLoading = false
+		delegate.onReleased(playerId)
+	}
+}
@@ -7,10 +7,12 @@ import androidx.annotation.OptIn
 import androidx.core.content.getSystemService
 import androidx.media3.common.AudioAttributes
 import androidx.media3.common.C
+import androidx.media3.common.Format
 import androidx.media3.common.MediaItem
 import androidx.media3.common.PlaybackException
 import androidx.media3.common.Player
 import androidx.media3.common.TrackSelectionParameters
+import androidx.media3.common.Tracks
 import androidx.media3.common.VideoSize
 import androidx.media3.common.text.CueGroup
 import androidx.media3.common.util.UnstableApi
@@ -19,6 +21,7 @@ import androidx.media3.exoplayer.DefaultRenderersFactory
 import androidx.media3.exoplayer.ExoPlayer
 import androidx.media3.exoplayer.source.DefaultMediaSourceFactory
 import androidx.media3.exoplayer.trackselection.DefaultTrackSelector
+import androidx.media3.exoplayer.upstream.DefaultBandwidthMeter
 import androidx.media3.exoplayer.util.EventLogger
 import androidx.media3.extractor.DefaultExtractorsFactory
 import androidx.media3.extractor.ts.TsExtractor
@@ -60,6 +63,14 @@ class ExoPlayerBackend(
 	private var subtitleView: SubtitleView? = null
 	private var audioPipeline = ExoPlayerAudioPipeline()
 
+	private val bandwidthMeter by lazy {
+		DefaultBandwidthMeter.getSingletonInstance(context)
+	}
+
+	private val loadControl by lazy {
+		AdaptiveLoadControl(bandwidthMeter, exoPlayerOptions.maxBufferBytes)
+	}
+
 	private val assHandler by lazy {
 		AssHandler(AssRenderType.OVERLAY)
 	}
@@ -115,6 +126,8 @@ class ExoPlayerBackend(
 				})
 			})
 			.setMediaSourceFactory(mediaSourceFactory)
+			.setBandwidthMeter(bandwidthMeter)
+			.setLoadControl(loadControl)
 			.setAudioAttributes(AudioAttributes.Builder().apply {
 				setUsage(C.USAGE_MEDIA)
 			}.build(), true)
@@ -165,6 +178,14 @@ class ExoPlayerBackend(
 			}
 		}
 
+		override fun onTracksChanged(tracks: Tracks) {
+			// Base the buffer targets on the bitrate of the selected tracks when the container reports it
+			val bitrate = tracks.groups
+				.flatMap { group -> (0 until group.length).filter(group::isTrackSelected).map(group::getTrackFormat) }
+				.sumOf { format -> format.bitrate.takeIf { it != Format.NO_VALUE } ?: 0 }
+			loadControl.setMediaBitrate(bitrate)
+		}
+
 		override fun onAudioSessionIdChanged(audioSessionId: Int) {
 			audioPipeline.setAudioSessionId(audioSessionId)
 		}
@@ -2,10 +2,12 @@ package org.jellyfin.playback.media3.exoplayer
 
 import androidx.media3.datasource.DataSource
 import androidx.media3.datasource.DefaultHttpDataSource
+import androidx.media3.exoplayer.DefaultLoadControl
 
 data class ExoPlayerOptions(
 	val preferFfmpeg: Boolean = false,
 	val enableDebugLogging: Boolean = false,
 	val enableLibass: Boolean = false,
 	val baseDataSourceFactory: DataSource.Factory = DefaultHttpDataSource.Factory(),
+	val maxBufferBytes: Int = DefaultLoadControl.DEFAULT_MUXED_BUFFER_SIZE,
 )
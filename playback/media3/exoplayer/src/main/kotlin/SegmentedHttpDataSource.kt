@@ -0,0 +1,342 @@
+package org.jellyfin.playback.media3.exoplayer
+
+import android.net.Uri
+import android.os.SystemClock
+import androidx.annotation.OptIn
+import androidx.media3.common.C
+import androidx.media3.common.util.UnstableApi
+import androidx.media3.datasource.BaseDataSource
+import androidx.media3.datasource.DataSource
+import androidx.media3.datasource.DataSpec
+import androidx.media3.datasource.HttpDataSource
+import timber.log.Timber
+import java.io.EOFException
+import java.io.IOException
+import java.io.InterruptedIOException
+import java.util.concurrent.ExecutorService
+import java.util.concurrent.Executors
+import java.util.concurrent.Future
+import java.util.concurrent.locks.ReentrantLock
+import kotlin.concurrent.withLock
+
+/**
+ * [DataSource] that loads large HTTP resources with multiple parallel range requests. Servers often
+ * limit the speed of a single connection, loading consecutive chunks on several connections gets
+ * closer to the available bandwidth.
+ *
+ * Chunks are returned in order and their size follows the measured throughput. Resources that are
+ * small, have an unknown length or are served without range support use a single connection.
+ */
+@OptIn(UnstableApi::class)
+class SegmentedHttpDataSource private constructor(
+	private val upstream: HttpDataSource.Factory,
+	private val connections: Int,
+) : BaseDataSource(true) {
+	companion object {
+		const val DEFAULT_CONNECTIONS = 4
+
+		private const val MIN_SEGMENTED_LENGTH = 64L * 1024 * 1024
+		private const val MIN_CHUNK_SIZE = 1024 * 1024
+		private const val INITIAL_CHUNK_SIZE = 4 * 1024 * 1024
+		private const val MAX_CHUNK_SIZE = 8 * 1024 * 1024
+		private const val MAX_BUFFERED_BYTES = 32L * 1024 * 1024
+		private const val TARGET_CHUNK_DURATION_MS = 2_000L
+		private const val MAX_RETRIES = 2
+
+		private val executor: ExecutorService by lazy {
+			Executors.newCachedThreadPool { runnable ->
+				Thread(runnable, "SegmentedHttpDataSource").apply { isDaemon = true }
+			}
+		}
+	}
+
+	class Factory @JvmOverloads constructor(
+		private val upstream: HttpDataSource.Factory,
+		private val connections: Int = DEFAULT_CONNECTIONS,
+	) : DataSource.Factory {
+		override fun createDataSource(): DataSource = SegmentedHttpDataSource(upstream, connections)
+	}
+
+	private class Chunk(
+		val position: Long,
+		val length: Int,
+		val data: ByteArray,
+	) {
+		@Volatile
+		var filled = 0
+		var read = 0
+		var error: IOException? = null
+	}
+
+	private val lock = ReentrantLock()
+	private val changed = lock.newCondition()
+
+	private val chunks = ArrayDeque<Chunk>()
+	private val buffers = mutableListOf<ByteArray>()
+	private val activeSources = mutableSetOf<DataSource>()
+	private val workers = mutableListOf<Future<*>>()
+
+	private var dataSpec: DataSpec? = null
+	private var primary: HttpDataSource? = null
+	private var uri: Uri? = null
+	private var opened = false
+	private var segmented = false
+
+	// Incremented when closed so workers of a previous open stop
+	private var session = 0
+	private var end = 0L
+	private var nextPosition = 0L
+	private var chunkSize = INITIAL_CHUNK_SIZE
+
+	override fun open(dataSpec: DataSpec): Long {
+		this.dataSpec = dataSpec
+		transferInitializing(dataSpec)
+
+		val primary = upstream.createDataSource()
+		this.primary = primary
+		val length = try {
+			primary.open(dataSpec)
+		} catch (err: IOException) {
+			this.primary = null
+			this.dataSpec = null
+			primary.closeQuietly()
+			throw err
+		}
+		uri = primary.uri ?: dataSpec.uri
+		opened = true
+
+		val supportsRanges = primary.responseHeaders.any { (key, values) ->
+			key.equals("Accept-Ranges", ignoreCase = true) && values.any { it.equals("bytes", ignoreCase = true) }
+		}
+		segmented = connections > 1 && supportsRanges && length != C.LENGTH_UNSET.toLong() && length >= MIN_SEGMENTED_LENGTH
+
+		transferStarted(dataSpec)
+
+		if (segmented) {
+			val first = lock.withLock {
+				end = dataSpec.position + length
+				nextPosition = dataSpec.position
+				chunkSize = INITIAL_CHUNK_SIZE
+				activeSources += primary
+				assignChunk()
+			}
+
+			// The primary connection already loads from the start, use it for the first chunk
+			startWorker(first, primary)
+			repeat(connections - 1) { startWorker(null, null) }
+		}
+
+		return length
+	}
+
+	private fun assignChunk(): Chunk {
+		val length = minOf(chunkSize.toLong(), end - nextPosition).toInt()
+		val data = buffers.firstOrNull { it.size >= length }?.also { buffers.remove(it) } ?: ByteArray(length)
+		val chunk = Chunk(nextPosition, length, data)
+		chunks.addLast(chunk)
+		nextPosition += length
+		return chunk
+	}
+
+	private fun recycle(chunk: Chunk) {
+		if (buffers.size < connections) buffers += chunk.data
+	}
+
+	private fun isActive(session: Int) = this.session == session && opened
+
+	private fun awaitChunk(session: Int): Chunk? = lock.withLock {
+		while (isActive(session)) {
+			if (nextPosition >= end) return@withLock null
+
+			val bufferedBytes = chunks.sumOf { (it.length - it.read).toLong() }
+			if (chunks.isEmpty() || bufferedBytes + chunkSize <= MAX_BUFFERED_BYTES) return@withLock assignChunk()
+
+			changed.await()
+		}
+
+		null
+	}
+
+	private fun startWorker(initialChunk: Chunk?, initialSource: HttpDataSource?) {
+		val session = lock.withLock { session }
+
+		workers += executor.submit(Runnable {
+			try {
+				var chunk = initialChunk ?: awaitChunk(session)
+				var source = initialSource
+				while (chunk != null) {
+					fetch(session, chunk, source)
+					source = null
+					chunk = awaitChunk(session)
+				}
+			} catch (_: InterruptedException) {
+				// Closed while waiting
+			}
+		})
+	}
+
+	private fun fetch(session: Int, chunk: Chunk, openedSource: HttpDataSource?) {
+		var attempt = 0
+		while (true) {
+			val source = if (attempt == 0 && openedSource != null) openedSource else upstream.createDataSource()
+			val isRegistered = lock.withLock {
+				if (isActive(session)) activeSources += source
+				isActive(session)
+			}
+			if (!isRegistered) {
+				source.closeQuietly()
+				return
+			}
+
+			try {
+				val start = SystemClock.elapsedRealtime()
+				val filledAtStart = chunk.filled
+
+				if (source !== openedSource) source.open(
+					DataSpec.Builder()
+						.setUri(requireNotNull(uri))
+						.setPosition(chunk.position + chunk.filled)
+						.setLength((chunk.length - chunk.filled).toLong())
+						.setHttpRequestHeaders(dataSpec?.httpRequestHeaders.orEmpty())
+						.build()
+				)
+
+				while (chunk.filled < chunk.length) {
+					val read = source.read(chunk.data, chunk.filled, chunk.length - chunk.filled)
+					if (read == C.RESULT_END_OF_INPUT) throw EOFException("Segment ended at ${chunk.position + chunk.filled}")
+
+					lock.withLock {
+						if (!isActive(session)) return
+						chunk.filled += read
+						changed.signalAll()
+					}
+				}
+
+				updateChunkSize(chunk.length - filledAtStart, SystemClock.elapsedRealtime() - start)
+				return
+			} catch (err: IOException) {
+				if (!lock.withLock { isActive(session) }) return
+
+				if (++attempt > MAX_RETRIES) {
+					lock.withLock {
+						chunk.error = err
+						changed.signalAll()
+					}
+					return
+				}
+
+				Timber.w(err, "Retrying segment at %d", chunk.position)
+			} finally {
+				lock.withLock { activeSources -= source }
+				source.closeQuietly()
+			}
+		}
+	}
+
+	private fun updateChunkSize(bytes: Int, durationMs: Long) {
+		if (durationMs <= 0) return
+
+		// Size chunks so each one takes about the same time to load at the current throughput
+		val bytesPerSecond = bytes * 1000L / durationMs
+		lock.withLock {
+			chunkSize = (bytesPerSecond * TARGET_CHUNK_DURATION_MS / 1000)
+				.coerceIn(MIN_CHUNK_SIZE.toLong(), MAX_CHUNK_SIZE.toLong())
+				.toInt()
+		}
+	}
+
+	override fun read(buffer: ByteArray, offset: Int, length: Int): Int {
+		if (length == 0) return 0
+
+		if (!segmented) {
+			val read = requireNotNull(primary).read(buffer, offset, length)
+			if (read > 0) bytesTransferred(read)
+			return read
+		}
+
+		val read = readChunk(buffer, offset, length)
+		if (read > 0) bytesTransferred(read)
+		return read
+	}
+
+	private fun readChunk(buffer: ByteArray, offset: Int, length: Int): Int {
+		lock.lock()
+		try {
+			while (true) {
+				val chunk = chunks.firstOrNull()
+				if (chunk == null && nextPosition >= end) return C.RESULT_END_OF_INPUT
+
+				if (chunk != null && chunk.read < chunk.filled) {
+					val count = minOf(length, chunk.filled - chunk.read)
+					System.arraycopy(chunk.data, chunk.read, buffer, offset, count)
+					chunk.read += count
+
+					if (chunk.read == chunk.length) {
+						chunks.removeFirst()
+						recycle(chunk)
+						changed.signalAll()
+					}
+
+					return count
+				}
+
+				chunk?.error?.let { throw it }
+				if (!opened) throw InterruptedIOException("Data source closed")
+
+				try {
+					changed.await()
+				} catch (err: InterruptedException) {
+					Thread.currentThread().interrupt()
+					throw InterruptedIOException().apply { initCause(err) }
+				}
+			}
+		} finally {
+			lock.unlock()
+		}
+	}
+
+	override fun getUri(): Uri? = uri
+
+	override fun getResponseHeaders(): Map<String, List<String>> = primary?.responseHeaders.orEmpty()
+
+	override fun close() {
+		val sources = lock.withLock {
+			session++
+			changed.signalAll()
+			activeSources.toList().also { activeSources.clear() }
+		}
+
+		// Closing aborts blocking reads of the workers
+		sources.forEach { it.closeQuietly() }
+		workers.forEach { it.cancel(true) }
+		workers.clear()
+
+		lock.withLock {
+			// Cancelled workers can still be writing to chunks that are not filled yet
+			chunks.filter { it.filled == it.length }.forEach(::recycle)
+			chunks.clear()
+		}
+
+		val primary = primary
+		this.primary = null
+		uri = null
+
+		try {
+			if (!segmented) primary?.close()
+		} finally {
+			segmented = false
+			if (opened) {
+				opened = false
+				transferEnded()
+			}
+		}
+	}
+
+	private fun DataSource.closeQuietly() {
+		try {
+			close()
+		} catch (_: IOException) {
+			// Ignore, the source is no longer used
+		}
+	}
+}
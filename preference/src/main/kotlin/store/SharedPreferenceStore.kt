@@ -1,11 +1,26 @@
 package org.jellyfin.preference.store
 
 import android.content.SharedPreferences
+import kotlinx.coroutines.CoroutineScope
+import kotlinx.coroutines.Dispatchers
+import kotlinx.coroutines.SupervisorJob
+import kotlinx.coroutines.flow.Flow
+import kotlinx.coroutines.flow.MutableSharedFlow
+import kotlinx.coroutines.flow.SharedFlow
+import kotlinx.coroutines.flow.asSharedFlow
+import kotlinx.coroutines.flow.distinctUntilChanged
+import kotlinx.coroutines.flow.filter
+import kotlinx.coroutines.flow.map
+import kotlinx.coroutines.flow.onStart
+import kotlinx.coroutines.launch
 import org.jellyfin.preference.Preference
 import org.jellyfin.preference.PreferenceEnum
 import org.jellyfin.preference.intPreference
 import org.jellyfin.preference.migration.MigrationContext
 import timber.log.Timber
+import java.util.Collections
+import java.util.WeakHashMap
+import java.util.concurrent.ConcurrentHashMap
 
 /**
  * Implementation of the [PreferenceStore] using Android shared preferences.
@@ -25,6 +40,10 @@ import timber.log.Timber
  * 	setString("example", "new value")
  * }
  * ```
+ *
+ * Values are read from an in-memory snapshot of the shared preferences. Writes update the snapshot
+ * immediately and are written to the shared preferences in the background, use [flush] or [flushAll]
+ * to write them synchronously.
  */
 @Suppress("TooManyFunctions")
 abstract class SharedPreferenceStore(
@@ -33,7 +52,47 @@ abstract class SharedPreferenceStore(
 	 */
 	protected val sharedPreferences: SharedPreferences
 ) : PreferenceStore<SharedPreferences.Editor, SharedPreferences>() {
+	private class DecodedEnum(val serializedValue: String, val value: Enum<*>)
+
+	@Volatile
+	private var snapshot: Map<String, Any?> = sharedPreferences.all.toMap()
+	private val decodedEnums = ConcurrentHashMap<String, DecodedEnum>()
+
+	// Keys written to the snapshot but not to the shared preferences yet, null values are removed
+	private val pendingWrites = mutableMapOf<String, Any?>()
+	private var writeScheduled = false
+	private val writeLock = Any()
+	private val flushLock = Any()
+	private val scope = CoroutineScope(Dispatchers.IO + SupervisorJob())
+
+	private val _changes = MutableSharedFlow<String>(extraBufferCapacity = 64)
+
+	/**
+	 * Keys of changed preferences, including changes made to the shared preferences directly.
+	 */
+	val changes: SharedFlow<String> = _changes.asSharedFlow()
+
+	// Kept as field, shared preferences only keep a weak reference to listeners
+	private val changeListener = SharedPreferences.OnSharedPreferenceChangeListener { _, key ->
+		if (key == null) {
+			// The shared preferences were cleared
+			synchronized(writeLock) { snapshot = sharedPreferences.all.toMap() + pendingWrites }
+		} else {
+			synchronized(writeLock) {
+				// Own writes that are not flushed yet are newer
+				if (key in pendingWrites) return@OnSharedPreferenceChangeListener
+				val value = sharedPreferences.all[key]
+				if (snapshot[key] == value) return@OnSharedPreferenceChangeListener
+				snapshot = if (value == null) snapshot - key else snapshot + (key to value)
+			}
+			_changes.tryEmit(key)
+		}
+	}
 
+	init {
+		sharedPreferences.registerOnSharedPreferenceChangeListener(changeListener)
+		synchronized(instances) { instances.add(this) }
+	}
 
 	// Internal helpers
 	private fun transaction(body: SharedPreferences.Editor.() -> Unit) {
@@ -45,42 +104,102 @@ abstract class SharedPreferenceStore(
 		}
 	}
 
-	override fun getInt(key: String, defaultValue: Int) =
-		sharedPreferences.getInt(key, defaultValue)
+	private fun write(key: String, value: Any?) {
+		synchronized(writeLock) {
+			snapshot = if (value == null) snapshot - key else snapshot + (key to value)
+			pendingWrites[key] = value
 
-	override fun getLong(key: String, defaultValue: Long) =
-		sharedPreferences.getLong(key, defaultValue)
+			// Writes made before the scheduled write runs are written together
+			if (!writeScheduled) {
+				writeScheduled = true
+				scope.launch { writePending(commit = false) }
+			}
+		}
 
-	override fun getFloat(key: String, defaultValue: Float) =
-		sharedPreferences.getFloat(key, defaultValue)
+		_changes.tryEmit(key)
+	}
 
-	override fun getBool(key: String, defaultValue: Boolean) =
-		sharedPreferences.getBoolean(key, defaultValue)
+	private fun writePending(commit: Boolean): Boolean = synchronized(flushLock) {
+		val writes = synchronized(writeLock) {
+			writeScheduled = false
+			pendingWrites.toMap().also { pendingWrites.clear() }
+		}
+		if (writes.isEmpty()) return true
 
-	override fun getString(key: String, defaultValue: String): String {
-		val value = sharedPreferences.getString(key, defaultValue) ?: defaultValue
-		Timber.d("[SharedPreferenceStore] getString: key='$key', default='$defaultValue', returned='$value'")
-		return value
+		val editor = sharedPreferences.edit()
+		for ((key, value) in writes) {
+			when (value) {
+				null -> editor.remove(key)
+				is Int -> editor.putInt(key, value)
+				is Long -> editor.putLong(key, value)
+				is Float -> editor.putFloat(key, value)
+				is Boolean -> editor.putBoolean(key, value)
+				is String -> editor.putString(key, value)
+			}
+		}
+
+		if (commit) editor.commit().also { success ->
+			if (!success) Timber.w("SharedPreferences commit failed!")
+		} else {
+			editor.apply()
+			true
+		}
 	}
 
-	override fun setInt(key: String, value: Int) = transaction { putInt(key, value) }
-	override fun setLong(key: String, value: Long) = transaction { putLong(key, value) }
-	override fun setFloat(key: String, value: Float) = transaction { putFloat(key, value) }
-	override fun setBool(key: String, value: Boolean) =
-		transaction { putBoolean(key, value) }
+	/**
+	 * Write all pending changes to the shared preferences before returning.
+	 * @return false when the shared preferences could not be written
+	 */
+	fun flush(): Boolean = writePending(commit = true)
+
+	/**
+	 * Get the value of [preference] followed by every change to it.
+	 */
+	fun <T : Any> observe(preference: Preference<T>): Flow<T> = observeKey(preference.key) { this[preference] }
 
-	override fun setString(key: String, value: String) {
-		Timber.d("[SharedPreferenceStore] setString called: key='$key', value='$value'")
-		transaction { putString(key, value) }
-		Timber.d("[SharedPreferenceStore] setString completed: key='$key', value='$value'")
-	}
+	/**
+	 * Get the value of [preference] followed by every change to it.
+	 */
+	@JvmName("observeEnum")
+	fun <T : Enum<T>> observe(preference: Preference<T>): Flow<T> = observeKey(preference.key) { this[preference] }
+
+	private fun <T> observeKey(key: String, get: () -> T): Flow<T> = changes
+		.filter { it == key }
+		.map { get() }
+		.onStart { emit(get()) }
+		.distinctUntilChanged()
+
+	private inline fun <reified T> read(key: String, defaultValue: T): T = snapshot[key] as? T ?: defaultValue
+
+	override fun getInt(key: String, defaultValue: Int) = read(key, defaultValue)
+	override fun getLong(key: String, defaultValue: Long) = read(key, defaultValue)
+	override fun getFloat(key: String, defaultValue: Float) = read(key, defaultValue)
+	override fun getBool(key: String, defaultValue: Boolean) = read(key, defaultValue)
+	override fun getString(key: String, defaultValue: String) = read(key, defaultValue)
+
+	override fun setInt(key: String, value: Int) = write(key, value)
+	override fun setLong(key: String, value: Long) = write(key, value)
+	override fun setFloat(key: String, value: Float) = write(key, value)
+	override fun setBool(key: String, value: Boolean) = write(key, value)
+	override fun setString(key: String, value: String) = write(key, value)
 
 	override fun <T : Enum<T>> getEnum(preference: Preference<T>): T {
 		val stringValue = getString(preference.key, "")
-		return if (stringValue.isBlank()) preference.defaultValue
+
+		// Enums are decoded once per stored value
+		val decoded = decodedEnums[preference.key]
+		if (decoded != null && decoded.serializedValue == stringValue && preference.type.java.isInstance(decoded.value)) {
+			@Suppress("UNCHECKED_CAST")
+			return decoded.value as T
+		}
+
+		val value = if (stringValue.isBlank()) preference.defaultValue
 		else preference.type.java.enumConstants?.find {
 			(it is PreferenceEnum && it.serializedName == stringValue) || it.name == stringValue
 		} ?: preference.defaultValue
+
+		decodedEnums[preference.key] = DecodedEnum(stringValue, value)
+		return value
 	}
 
 	override fun <V : Enum<V>> setEnum(preference: Preference<*>, value: Enum<V>) =
@@ -90,9 +209,7 @@ abstract class SharedPreferenceStore(
 			})
 
 	// Additional mutations
-	override fun <T : Any> delete(preference: Preference<T>) = transaction {
-		remove(preference.key)
-	}
+	override fun <T : Any> delete(preference: Preference<T>) = write(preference.key, null)
 
 	// Migrations
 	override fun runMigrations(body: MigrationContext<SharedPreferences.Editor, SharedPreferences>.() -> Unit) {
@@ -102,8 +219,11 @@ abstract class SharedPreferenceStore(
 		this[VERSION] = context.applyMigrations(this[VERSION]) { migration ->
 			Timber.i("Migrating a preference store to version ${migration.toVersion}")
 
-			// Create a new transaction and execute the migration
+			// Migrations use the shared preferences directly, write pending changes first and
+			// read the migrated values back
+			flush()
 			transaction { migration.body(this, sharedPreferences) }
+			synchronized(writeLock) { snapshot = sharedPreferences.all.toMap() + pendingWrites }
 		}
 	}
 
@@ -112,5 +232,15 @@ abstract class SharedPreferenceStore(
 		 * Version of the preference store. Used for migration.
 		 */
 		val VERSION = intPreference("store_version", -1)
+
+		private val instances = Collections.newSetFromMap(WeakHashMap<SharedPreferenceStore, Boolean>())
+
+		/**
+		 * Write the pending changes of every store, used before the process is stopped.
+		 * @return false when any of the stores could not be written
+		 */
+		fun flushAll(): Boolean = synchronized(instances) { instances.toList() }
+			.map { it.flush() }
+			.all { it }
 	}
 }
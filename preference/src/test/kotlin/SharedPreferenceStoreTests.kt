@@ -0,0 +1,65 @@
+package org.jellyfin.preference
+
+import android.content.SharedPreferences
+import io.kotest.core.spec.style.FunSpec
+import io.kotest.matchers.shouldBe
+import io.mockk.every
+import io.mockk.mockk
+import io.mockk.verify
+import org.jellyfin.preference.store.SharedPreferenceStore
+
+class SharedPreferenceStoreTests : FunSpec({
+	fun createStore(values: Map<String, Any?>): Pair<SharedPreferenceStore, SharedPreferences.Editor> {
+		val editor = mockk<SharedPreferences.Editor>(relaxed = true) {
+			every { commit() } returns true
+		}
+		val sharedPreferences = mockk<SharedPreferences>(relaxed = true) {
+			every { all } returns values
+			every { edit() } returns editor
+		}
+
+		return object : SharedPreferenceStore(sharedPreferences) {} to editor
+	}
+
+	test("Values are read from the snapshot") {
+		val (store, _) = createStore(mapOf("int" to 1, "string" to "value"))
+
+		store[intPreference("int", 0)] shouldBe 1
+		store[stringPreference("string", "")] shouldBe "value"
+		store[booleanPreference("missing", true)] shouldBe true
+	}
+
+	test("Enums are decoded from their stored value") {
+		val (store, _) = createStore(mapOf("enum" to "SET"))
+		val preference = enumPreference("enum", TestEnum.NOT_SET)
+
+		store[preference] shouldBe TestEnum.SET
+		store[preference] = TestEnum.NOT_SET
+		store[preference] shouldBe TestEnum.NOT_SET
+	}
+
+	test("Writes are visible immediately and the last value is written once") {
+		val (store, editor) = createStore(emptyMap())
+		val preference = intPreference("int", 0)
+
+		store[preference] = 1
+		store[preference] = 2
+		store[preference] shouldBe 2
+
+		store.flush() shouldBe true
+		verify(exactly = 1) { editor.putInt("int", 2) }
+	}
+
+	test("Deleted values return the default value") {
+		val (store, editor) = createStore(mapOf("string" to "value"))
+		val preference = stringPreference("string", "default")
+
+		store.delete(preference)
+		store[preference] shouldBe "default"
+
+		store.flush()
+		verify(exactly = 1) { editor.remove("string") }
+	}
+})
+
+private enum class TestEnum { NOT_SET, SET }